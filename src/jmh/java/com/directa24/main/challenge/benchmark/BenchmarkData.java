@@ -0,0 +1,81 @@
+package com.directa24.main.challenge.benchmark;
+
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MoviePage;
+import com.directa24.main.challenge.api.model.MoviesResponse;
+import com.directa24.main.challenge.api.model.PageValidators;
+import com.directa24.main.challenge.api.repository.MovieRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Deterministic synthetic catalogs shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private static final String[] GENRES = {"Action", "Comedy", "Drama", "Horror", "Sci-Fi", "Romance"};
+    private static final String[] RATINGS = {"G", "PG", "PG-13", "R"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a catalog whose director popularity follows a skewed distribution,
+     * like the real catalog where a few directors account for many movies.
+     */
+    static List<Movie> movies(int count, int directors) {
+        Random random = new Random(42);
+        List<Movie> movies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int director = (int) (directors * Math.pow(random.nextDouble(), 2));
+            int year = 1950 + random.nextInt(70);
+            movies.add(new Movie("Movie " + i, String.valueOf(year), RATINGS[random.nextInt(RATINGS.length)],
+                    "01 Jan " + year, (80 + random.nextInt(100)) + " min",
+                    GENRES[random.nextInt(GENRES.length)] + ", " + GENRES[random.nextInt(GENRES.length)],
+                    "Director " + director, "Writer " + random.nextInt(directors * 2),
+                    "Actor " + random.nextInt(1000) + ", Actor " + random.nextInt(1000)));
+        }
+        return movies;
+    }
+
+    /**
+     * Serves the movies from memory in pages of up to perPage movies. The movies never change, so a
+     * page's number stands in for its content hash.
+     */
+    static MovieRepository repository(List<Movie> movies, int perPage) {
+        int totalPages = Math.max(1, (movies.size() + perPage - 1) / perPage);
+        return new MovieRepository() {
+            @Override
+            public Flux<Movie> fetchAllMovies() {
+                return Flux.fromIterable(movies);
+            }
+
+            @Override
+            public Flux<MoviePage> syncPages(IntFunction<PageValidators> validators) {
+                return Flux.range(1, totalPages).map(page -> new MoviePage(page, perPage, totalPages, true, page,
+                        null, null, movies.subList(Math.min((page - 1) * perPage, movies.size()),
+                        Math.min(page * perPage, movies.size()))));
+            }
+        };
+    }
+
+    /**
+     * Serializes one /search page in the upstream format.
+     */
+    static String pageJson(List<Movie> pageMovies, int page, int perPage, int total, int totalPages) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(new MoviesResponse(page, perPage, total, totalPages, pageMovies));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
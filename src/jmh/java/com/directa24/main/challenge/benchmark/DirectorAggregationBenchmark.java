@@ -0,0 +1,63 @@
+package com.directa24.main.challenge.benchmark;
+
+import com.directa24.main.challenge.api.catalog.CatalogSnapshot;
+import com.directa24.main.challenge.api.cache.InMemoryRemoteCacheStore;
+import com.directa24.main.challenge.api.catalog.CatalogSnapshotStore;
+import com.directa24.main.challenge.api.catalog.MovieCatalog;
+import com.directa24.main.challenge.api.catalog.SharedCatalog;
+import com.directa24.main.challenge.api.model.Movie;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Director aggregation over an in-memory catalog: building a catalog snapshot (the
+ * per-director counting pipeline) and answering a threshold query from its index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectorAggregationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    private MovieCatalog movieCatalog;
+    private CatalogSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        List<Movie> movies = BenchmarkData.movies(catalogSize, Math.max(10, catalogSize / 20));
+        movieCatalog = new MovieCatalog(Duration.ofMinutes(5), Duration.ofSeconds(30),
+                Duration.ofMinutes(30), Duration.ofMinutes(1), false, false, BenchmarkData.repository(movies, 100),
+                new CatalogSnapshotStore(false, Paths.get("catalog.snapshot")),
+                new SharedCatalog(Duration.ofMinutes(30), Duration.ofMinutes(2), Duration.ofSeconds(30),
+                        new InMemoryRemoteCacheStore()),
+                new SimpleMeterRegistry());
+        snapshot = movieCatalog.refresh().block();
+    }
+
+    @Benchmark
+    public CatalogSnapshot buildSnapshot() {
+        return movieCatalog.refresh().block();
+    }
+
+    @Benchmark
+    public List<String> thresholdQuery() {
+        return snapshot.getDirectorIndex().directorsAbove(3);
+    }
+}
@@ -0,0 +1,71 @@
+package com.directa24.main.challenge.benchmark;
+
+import com.directa24.main.challenge.api.cache.InMemoryRemoteCacheStore;
+import com.directa24.main.challenge.api.catalog.CatalogSnapshotStore;
+import com.directa24.main.challenge.api.catalog.MovieCatalog;
+import com.directa24.main.challenge.api.catalog.SharedCatalog;
+import com.directa24.main.challenge.api.configuration.caching.CachingConfig;
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.repository.MovieRepository;
+import com.directa24.main.challenge.api.service.impl.MovieInfoServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * MovieInfoServiceImpl.getDirectors on a loaded catalog: a hit on the per-threshold
+ * directorsCache entry against a miss that has to query the director index again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectorsCacheBenchmark {
+
+    private MovieInfoServiceImpl movieInfoService;
+    private CacheManager cacheManager;
+
+    @Setup
+    public void setUp() {
+        List<Movie> movies = BenchmarkData.movies(20000, 1000);
+        MovieRepository movieRepository = BenchmarkData.repository(movies, 100);
+        MovieCatalog movieCatalog = new MovieCatalog(Duration.ofMinutes(5), Duration.ofSeconds(30),
+                Duration.ofMinutes(30), Duration.ofMinutes(1), false, false, movieRepository,
+                new CatalogSnapshotStore(false, Paths.get("catalog.snapshot")),
+                new SharedCatalog(Duration.ofMinutes(30), Duration.ofMinutes(2), Duration.ofSeconds(30),
+                        new InMemoryRemoteCacheStore()),
+                new SimpleMeterRegistry());
+        movieCatalog.refresh().block();
+
+        CachingConfig cachingConfig = new CachingConfig();
+        ReflectionTestUtils.setField(cachingConfig, "cacheExpiryMinutes", 5L);
+        cacheManager = cachingConfig.cacheManager(cachingConfig.caffeineConfig());
+        movieInfoService = new MovieInfoServiceImpl(movieCatalog, cacheManager);
+        movieInfoService.getDirectors(2).block();
+    }
+
+    @Benchmark
+    public List<String> cacheHit() {
+        return movieInfoService.getDirectors(2).block().getValue();
+    }
+
+    @Benchmark
+    public List<String> cacheMiss() {
+        cacheManager.getCache("directorsCache").clear();
+        return movieInfoService.getDirectors(2).block().getValue();
+    }
+}
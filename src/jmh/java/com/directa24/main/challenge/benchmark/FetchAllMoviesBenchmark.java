@@ -0,0 +1,106 @@
+package com.directa24.main.challenge.benchmark;
+
+import com.directa24.main.challenge.api.concurrency.AdaptiveConcurrencyLimiter;
+import com.directa24.main.challenge.api.configuration.resilience.ResilienceConfig;
+import com.directa24.main.challenge.api.configuration.webclient.WebClientConfig;
+import com.directa24.main.challenge.api.dedup.MovieDeduplicator;
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.repository.impl.MovieRepositoryImpl;
+import com.directa24.main.challenge.api.repository.impl.MoviesPageDecoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * End-to-end crawl of MovieRepositoryImpl.fetchAllMovies against an in-process stub of the
+ * upstream /search endpoint served (gzip-compressed) by Reactor Netty on a local port, using the
+ * same pooled HttpClient as the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FetchAllMoviesBenchmark {
+
+    @Param({"10", "50"})
+    public int totalPages;
+
+    @Param({"10"})
+    public int perPage;
+
+    @Param({"10"})
+    public int concurrencyLimit;
+
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private MovieRepositoryImpl movieRepository;
+
+    @Setup
+    public void setUp() {
+        int total = totalPages * perPage;
+        List<Movie> movies = BenchmarkData.movies(total, total / 5 + 1);
+        byte[][] pages = new byte[totalPages + 1][];
+        for (int page = 1; page <= totalPages; page++) {
+            List<Movie> pageMovies = movies.subList((page - 1) * perPage, page * perPage);
+            pages[page] = BenchmarkData.pageJson(pageMovies, page, perPage, total, totalPages)
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .compress(true)
+                .route(routes -> routes.get("/api/movies/search", (request, response) -> {
+                    List<String> pageParam = new QueryStringDecoder(request.uri()).parameters().get("page");
+                    int page = pageParam == null ? 1 : Integer.parseInt(pageParam.get(0));
+                    byte[] body = page >= 1 && page <= totalPages ? pages[page] : pages[totalPages];
+                    return response.header("Content-Type", "application/json")
+                            .sendByteArray(Mono.just(body));
+                }))
+                .bindNow();
+
+        String baseUrl = "http://127.0.0.1:" + server.port() + "/api/movies";
+        WebClientConfig webClientConfig = new WebClientConfig(baseUrl, concurrencyLimit, 1000, Duration.ofSeconds(10),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(5), Duration.ofSeconds(10),
+                Duration.ofSeconds(10), true, false);
+        connectionProvider = webClientConfig.movieConnectionProvider();
+        ResilienceConfig resilienceConfig = new ResilienceConfig();
+        movieRepository = new MovieRepositoryImpl(webClientConfig.movieWebClient(connectionProvider),
+                new MoviesPageDecoder(BenchmarkData.OBJECT_MAPPER),
+                new AdaptiveConcurrencyLimiter(concurrencyLimit, 1, concurrencyLimit, Duration.ofSeconds(2), 0.9),
+                resilienceConfig.pageFetchCircuitBreaker(5, Duration.ofSeconds(30)),
+                resilienceConfig.pageFetchRetry(2, Duration.ofMillis(200), Duration.ofSeconds(2), 0.5),
+                resilienceConfig.pageFetchHedging(true, 0.95, Duration.ofMillis(200), 20, 128),
+                MovieDeduplicator.exact(), new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionProvider.dispose();
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public long fetchAllMovies() {
+        return movieRepository.fetchAllMovies().count().block();
+    }
+}
@@ -0,0 +1,69 @@
+package com.directa24.main.challenge.benchmark;
+
+import com.directa24.main.challenge.api.model.MoviesResponse;
+import com.directa24.main.challenge.api.repository.impl.MoviesPageDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Deserialization of a single /search page: the streaming decoder used by the repository
+ * against a plain ObjectMapper read of the whole body as a String.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoviesPageDecodingBenchmark {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private String json;
+    private byte[][] chunks;
+    private MoviesPageDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        json = BenchmarkData.pageJson(BenchmarkData.movies(pageSize, pageSize / 4 + 1), 1, pageSize, pageSize, 1);
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> split = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += CHUNK_SIZE) {
+            split.add(Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + CHUNK_SIZE)));
+        }
+        chunks = split.toArray(new byte[0][]);
+        decoder = new MoviesPageDecoder(BenchmarkData.OBJECT_MAPPER);
+    }
+
+    @Benchmark
+    public long streamingDecoder() {
+        Flux<DataBuffer> body = Flux.fromArray(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+        return decoder.decode(body)
+                .map(chunk -> chunk.getData().size())
+                .reduce(0, Integer::sum)
+                .block();
+    }
+
+    @Benchmark
+    public int objectMapperString() throws Exception {
+        return BenchmarkData.OBJECT_MAPPER.readValue(json, MoviesResponse.class).getData().size();
+    }
+}
@@ -0,0 +1,43 @@
+package com.directa24.main.challenge.api.cache;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.DigestUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A response body serialized once, with a strong ETag of its bytes. Immutable: every response
+ * wraps the same bytes without copying them.
+ */
+public final class EncodedResponse {
+
+    private final byte[] body;
+    private final String etag;
+
+    /**
+     * @param body The serialized body; not copied, must not be modified afterwards.
+     */
+    public EncodedResponse(byte[] body) {
+        this.body = body;
+        this.etag = "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    /**
+     * @return A read-only view of the body for one response, sharing the encoded bytes.
+     */
+    public DataBuffer toDataBuffer() {
+        return DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(body).asReadOnlyBuffer());
+    }
+
+    public int size() {
+        return body.length;
+    }
+
+    /**
+     * @return The strong ETag of the body, quoted.
+     */
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,64 @@
+package com.directa24.main.challenge.api.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Response bodies serialized to JSON once per key and answered as bytes from then on, so a repeated
+ * query is written without building or serializing its response again. Keys must identify the
+ * catalog snapshot a body was answered from, so a refreshed catalog never serves a stale body.
+ */
+@Component
+public class EncodedResponseCache {
+
+    static final String RESPONSES_CACHE = "directorsResponseCache";
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    public EncodedResponseCache(CacheManager cacheManager, ObjectMapper objectMapper) {
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param key The key of the body, including the version of the snapshot it was answered from.
+     * @param cacheable Whether the body may be cached; a body of a partial catalog is encoded every time.
+     * @param body Builds the body on a miss.
+     * @return The encoded body.
+     */
+    public EncodedResponse get(Object key, boolean cacheable, Supplier<?> body) {
+        if (!cacheable) {
+            return encode(body.get());
+        }
+        return responsesCache().get(key, () -> encode(body.get()));
+    }
+
+    /**
+     * @param key The key of the body, including the version of the snapshot it was answered from.
+     * @return The body cached under the key, if it was already encoded.
+     */
+    public Optional<EncodedResponse> getIfPresent(Object key) {
+        return Optional.ofNullable(responsesCache().get(key, EncodedResponse.class));
+    }
+
+    private EncodedResponse encode(Object body) {
+        try {
+            return new EncodedResponse(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response " + body.getClass().getSimpleName(), e);
+        }
+    }
+
+    private Cache responsesCache() {
+        return Objects.requireNonNull(cacheManager.getCache(RESPONSES_CACHE),
+                "Cache " + RESPONSES_CACHE + " is not configured");
+    }
+}
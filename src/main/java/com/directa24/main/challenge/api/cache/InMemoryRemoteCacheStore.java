@@ -0,0 +1,120 @@
+package com.directa24.main.challenge.api.cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the remote cache tier. It is the default for a single instance and
+ * lets tests run several catalogs against one shared store without a Redis server. Values are
+ * copied on the way in and out, as they would be over the network.
+ */
+public class InMemoryRemoteCacheStore implements RemoteCacheStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final Map<String, Sinks.Many<byte[]>> channels = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public InMemoryRemoteCacheStore() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryRemoteCacheStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return Mono.fromSupplier(() -> {
+            Entry entry = entries.get(key);
+            if (entry == null || entry.isExpired(clock.instant())) {
+                return null;
+            }
+            return entry.value.clone();
+        });
+    }
+
+    @Override
+    public Mono<Void> set(String key, byte[] value, Duration ttl) {
+        return Mono.fromRunnable(() -> entries.put(key, new Entry(value.clone(), clock.instant().plus(ttl))));
+    }
+
+    @Override
+    public Mono<Boolean> setIfAbsent(String key, byte[] value, Duration ttl) {
+        return Mono.fromSupplier(() -> {
+            Instant now = clock.instant();
+            Entry candidate = new Entry(value.clone(), now.plus(ttl));
+            return entries.compute(key, (k, entry) -> entry == null || entry.isExpired(now) ? candidate : entry)
+                    == candidate;
+        });
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return Mono.fromRunnable(() -> entries.remove(key));
+    }
+
+    @Override
+    public Mono<Boolean> deleteIfEquals(String key, byte[] expected) {
+        return Mono.fromSupplier(() -> {
+            AtomicBoolean deleted = new AtomicBoolean();
+            Instant now = clock.instant();
+            entries.computeIfPresent(key, (k, entry) -> {
+                if (!entry.isExpired(now) && Arrays.equals(entry.value, expected)) {
+                    deleted.set(true);
+                    return null;
+                }
+                return entry;
+            });
+            return deleted.get();
+        });
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return Mono.fromSupplier(() -> counters.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet());
+    }
+
+    @Override
+    public Mono<Void> publish(String channel, byte[] message) {
+        return Mono.fromRunnable(() -> {
+            Sinks.Many<byte[]> sink = channel(channel);
+            synchronized (sink) {
+                sink.tryEmitNext(message.clone());
+            }
+        });
+    }
+
+    @Override
+    public Flux<byte[]> subscribe(String channel) {
+        return channel(channel).asFlux().map(byte[]::clone);
+    }
+
+    private Sinks.Many<byte[]> channel(String channel) {
+        return channels.computeIfAbsent(channel, c -> Sinks.many().multicast().directBestEffort());
+    }
+
+    private static final class Entry {
+        private final byte[] value;
+        private final Instant expiresAt;
+
+        private Entry(byte[] value, Instant expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.directa24.main.challenge.api.cache;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.reactive.RedisReactiveCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.lettuce.core.pubsub.api.reactive.ChannelMessage;
+import io.lettuce.core.pubsub.api.reactive.RedisPubSubReactiveCommands;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Remote cache tier backed by Redis through the reactive Lettuce client. One connection carries
+ * the commands and a second one the pub/sub subscriptions, as Redis requires.
+ */
+public class RedisRemoteCacheStore implements RemoteCacheStore, AutoCloseable {
+
+    private static final RedisCodec<String, byte[]> CODEC = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+    private static final String DELETE_IF_EQUALS =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    private final RedisClient client;
+    private final StatefulRedisConnection<String, byte[]> connection;
+    private final StatefulRedisPubSubConnection<String, byte[]> pubSubConnection;
+    private final RedisReactiveCommands<String, byte[]> commands;
+    private final RedisPubSubReactiveCommands<String, byte[]> pubSub;
+
+    public RedisRemoteCacheStore(String uri) {
+        this.client = RedisClient.create(uri);
+        this.connection = client.connect(CODEC);
+        this.pubSubConnection = client.connectPubSub(CODEC);
+        this.commands = connection.reactive();
+        this.pubSub = pubSubConnection.reactive();
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return commands.get(key);
+    }
+
+    @Override
+    public Mono<Void> set(String key, byte[] value, Duration ttl) {
+        return commands.set(key, value, SetArgs.Builder.px(ttl.toMillis())).then();
+    }
+
+    @Override
+    public Mono<Boolean> setIfAbsent(String key, byte[] value, Duration ttl) {
+        return commands.set(key, value, SetArgs.Builder.nx().px(ttl.toMillis()))
+                .map("OK"::equals)
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return commands.del(key).then();
+    }
+
+    @Override
+    public Mono<Boolean> deleteIfEquals(String key, byte[] expected) {
+        return commands.<Long>eval(DELETE_IF_EQUALS, ScriptOutputType.INTEGER, new String[]{key}, expected)
+                .next()
+                .map(deleted -> deleted == 1L)
+                .defaultIfEmpty(false);
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return commands.incr(key);
+    }
+
+    @Override
+    public Mono<Void> publish(String channel, byte[] message) {
+        return commands.publish(channel, message).then();
+    }
+
+    @Override
+    public Flux<byte[]> subscribe(String channel) {
+        return pubSub.subscribe(channel)
+                .thenMany(pubSub.observeChannels())
+                .filter(message -> channel.equals(message.getChannel()))
+                .map(ChannelMessage::getMessage);
+    }
+
+    @Override
+    public void close() {
+        pubSubConnection.close();
+        connection.close();
+        client.shutdown();
+    }
+}
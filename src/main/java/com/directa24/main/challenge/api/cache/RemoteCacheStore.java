@@ -0,0 +1,69 @@
+package com.directa24.main.challenge.api.cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Shared (L2) cache tier reachable by every replica, with the small subset of Redis semantics
+ * the application relies on: binary values with a TTL, conditional writes for leases, an atomic
+ * counter and publish/subscribe to announce published and invalidated catalog snapshots to every
+ * replica.
+ */
+public interface RemoteCacheStore {
+
+    /**
+     * @param key The key to read.
+     * @return A Mono emitting the value, or empty if the key is missing or expired.
+     */
+    Mono<byte[]> get(String key);
+
+    /**
+     * @param key The key to write.
+     * @param value The value to store.
+     * @param ttl How long the value is kept.
+     * @return A Mono completing once the value is stored.
+     */
+    Mono<Void> set(String key, byte[] value, Duration ttl);
+
+    /**
+     * @param key The key to write.
+     * @param value The value to store.
+     * @param ttl How long the value is kept.
+     * @return A Mono emitting true if the value was stored, false if the key already held a value.
+     */
+    Mono<Boolean> setIfAbsent(String key, byte[] value, Duration ttl);
+
+    /**
+     * @param key The key to delete.
+     * @return A Mono completing once the key is deleted.
+     */
+    Mono<Void> delete(String key);
+
+    /**
+     * @param key The key to delete.
+     * @param expected The value the key must hold to be deleted.
+     * @return A Mono emitting true if the key held the expected value and was deleted.
+     */
+    Mono<Boolean> deleteIfEquals(String key, byte[] expected);
+
+    /**
+     * @param key The counter to increment, starting from zero.
+     * @return A Mono emitting the incremented value.
+     */
+    Mono<Long> increment(String key);
+
+    /**
+     * @param channel The channel to publish on.
+     * @param message The message to deliver to every subscriber, including the publisher's own.
+     * @return A Mono completing once the message is published.
+     */
+    Mono<Void> publish(String channel, byte[] message);
+
+    /**
+     * @param channel The channel to listen to.
+     * @return A Flux of the messages published on the channel after subscription.
+     */
+    Flux<byte[]> subscribe(String channel);
+}
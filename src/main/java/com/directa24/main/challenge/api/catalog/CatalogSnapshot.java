@@ -0,0 +1,47 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.model.CrawlSummary;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Immutable view of the movie catalog produced by one complete refresh: the movies themselves, in
+ * columnar form, the director index aggregated from them, the secondary indexes built over them and
+ * the summary of the crawl. A partial snapshot is missing the movies of upstream pages that could not be fetched.
+ */
+@Getter
+public class CatalogSnapshot {
+    private final long version;
+    private final Instant loadedAt;
+    private final DirectorIndex directorIndex;
+    private final MovieColumns movies;
+    private final MovieIndexes indexes;
+    private final CrawlSummary crawl;
+
+    public CatalogSnapshot(long version, Instant loadedAt, DirectorIndex directorIndex, MovieColumns movies) {
+        this(version, loadedAt, directorIndex, movies, CrawlSummary.NONE);
+    }
+
+    /**
+     * @param crawl The summary of the crawl the snapshot was loaded with.
+     */
+    public CatalogSnapshot(long version, Instant loadedAt, DirectorIndex directorIndex, MovieColumns movies,
+                           CrawlSummary crawl) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.directorIndex = directorIndex;
+        this.movies = movies;
+        this.indexes = MovieIndexes.of(movies);
+        this.crawl = crawl;
+    }
+
+    public boolean isPartial() {
+        return crawl.isPartial();
+    }
+
+    public Duration age() {
+        return Duration.between(loadedAt, Instant.now());
+    }
+}
@@ -0,0 +1,142 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.model.CrawlSummary;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary encoding of a catalog snapshot, shared by the snapshot file and the remote cache:
+ * <pre>
+ * int magic | int format version | long snapshot version | long loadedAt (epoch millis)
+ * crawl: int pages attempted | int pages succeeded | int pages failed | int pages missing | int retries
+ *        | int hedges | long bytes | long movies | long duration (nanos)
+ * int entries
+ * entries x (int movie count | int name length | UTF-8 name bytes)
+ * movie columns, see {@link MovieColumns#encode}
+ * long CRC32 of everything above
+ * </pre>
+ * Entries are written in index order, so decoding does not sort again.
+ */
+final class CatalogSnapshotCodec {
+
+    static final int MAGIC = 0x44323443; // "D24C"
+    static final int FORMAT_VERSION = 5;
+
+    private static final int CRAWL_BYTES = 6 * 4 + 3 * 8;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + CRAWL_BYTES + 4;
+    private static final int CHECKSUM_BYTES = 8;
+
+    private CatalogSnapshotCodec() {
+    }
+
+    /**
+     * @param snapshot The snapshot to encode.
+     * @return The encoded snapshot.
+     */
+    static byte[] encode(CatalogSnapshot snapshot) {
+        DirectorIndex index = snapshot.getDirectorIndex();
+        byte[] movies = snapshot.getMovies().encode();
+        byte[][] names = new byte[index.size()][];
+        int[] size = {HEADER_BYTES + movies.length + CHECKSUM_BYTES};
+        int[] next = {0};
+        index.forEach((name, count) -> {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            names[next[0]++] = bytes;
+            size[0] += 8 + bytes.length;
+        });
+
+        ByteBuffer buffer = ByteBuffer.allocate(size[0])
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(snapshot.getVersion())
+                .putLong(snapshot.getLoadedAt().toEpochMilli());
+        putCrawl(buffer, snapshot.getCrawl());
+        buffer.putInt(names.length);
+        int[] entry = {0};
+        index.forEach((name, count) -> {
+            byte[] bytes = names[entry[0]++];
+            buffer.putInt(count).putInt(bytes.length).put(bytes);
+        });
+        buffer.put(movies);
+        buffer.putLong(checksum(buffer.array(), buffer.position()));
+        return buffer.array();
+    }
+
+    /**
+     * @param buffer The encoded snapshot, from its position to its limit.
+     * @return The decoded snapshot.
+     * @throws IllegalArgumentException if the bytes are not a valid snapshot of this format.
+     */
+    static CatalogSnapshot decode(ByteBuffer buffer) {
+        int bodyLength = buffer.remaining() - CHECKSUM_BYTES;
+        if (bodyLength < HEADER_BYTES) {
+            throw new IllegalArgumentException("File is too short");
+        }
+        ByteBuffer body = buffer.slice();
+        body.limit(bodyLength);
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        if (buffer.getLong(buffer.position() + bodyLength) != crc.getValue()) {
+            throw new IllegalArgumentException("Checksum mismatch");
+        }
+        if (body.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a catalog snapshot file");
+        }
+        int formatVersion = body.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported format version " + formatVersion);
+        }
+
+        long version = body.getLong();
+        Instant loadedAt = Instant.ofEpochMilli(body.getLong());
+        CrawlSummary crawl = getCrawl(body);
+        int entries = body.getInt();
+        if (entries < 0 || entries > body.remaining() / 8) {
+            throw new IllegalArgumentException("Invalid entry count " + entries);
+        }
+        String[] names = new String[entries];
+        int[] counts = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            counts[i] = body.getInt();
+            int length = body.getInt();
+            if (length < 0 || length > body.remaining()) {
+                throw new IllegalArgumentException("Invalid name length " + length);
+            }
+            byte[] name = new byte[length];
+            body.get(name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+        }
+        MovieColumns movies = MovieColumns.decode(body);
+        if (body.hasRemaining()) {
+            throw new IllegalArgumentException("Unexpected trailing bytes");
+        }
+        return new CatalogSnapshot(version, loadedAt, DirectorIndex.ofSorted(names, counts), movies, crawl);
+    }
+
+    private static void putCrawl(ByteBuffer buffer, CrawlSummary crawl) {
+        buffer.putInt(crawl.getPagesAttempted())
+                .putInt(crawl.getPagesSucceeded())
+                .putInt(crawl.getPagesFailed())
+                .putInt(crawl.getPagesMissing())
+                .putInt(crawl.getRetries())
+                .putInt(crawl.getHedges())
+                .putLong(crawl.getBytes())
+                .putLong(crawl.getMovies())
+                .putLong(crawl.getDuration().toNanos());
+    }
+
+    private static CrawlSummary getCrawl(ByteBuffer body) {
+        return new CrawlSummary(body.getInt(), body.getInt(), body.getInt(), body.getInt(), body.getInt(),
+                body.getInt(), body.getLong(), body.getLong(), Duration.ofNanos(body.getLong()));
+    }
+
+    private static long checksum(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,96 @@
+package com.directa24.main.challenge.api.catalog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Persists the catalog snapshot to a local file so that a restarted instance can serve
+ * /directors straight away instead of crawling every upstream page first.
+ * The file holds the {@link CatalogSnapshotCodec} encoding and is read through a memory-mapped
+ * {@link FileChannel}; files with another format, a bad checksum or a truncated body are ignored.
+ */
+@Component
+@Slf4j
+public class CatalogSnapshotStore {
+
+    private final boolean enabled;
+    private final Path path;
+
+    public CatalogSnapshotStore(@Value("${catalog.snapshot.enabled:true}") boolean enabled,
+                                @Value("${catalog.snapshot.path:${java.io.tmpdir}/directa24-catalog.snapshot}") Path path) {
+        this.enabled = enabled;
+        this.path = path;
+    }
+
+    /**
+     * Reads the snapshot file, if there is a valid one.
+     *
+     * @return The persisted snapshot, or empty if the store is disabled or the file is missing or invalid.
+     */
+    public Optional<CatalogSnapshot> load() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CatalogSnapshot snapshot = CatalogSnapshotCodec.decode(buffer);
+            log.info("Restored catalog snapshot {} with {} directors from {} in {} ms", snapshot.getVersion(),
+                    snapshot.getDirectorIndex().size(), path, (System.nanoTime() - start) / 1_000_000);
+            return Optional.of(snapshot);
+        } catch (NoSuchFileException e) {
+            log.info("No catalog snapshot file at {}", path);
+        } catch (IOException | IllegalArgumentException | BufferUnderflowException e) {
+            log.warn("Ignoring unreadable catalog snapshot file {}: {}", path, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Writes the snapshot to a temporary file and moves it over the previous one, so a crash
+     * mid-write never leaves a partial snapshot behind.
+     *
+     * @param snapshot The snapshot to persist.
+     */
+    public void save(CatalogSnapshot snapshot) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, CatalogSnapshotCodec.encode(snapshot));
+                move(temp);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            log.info("Saved catalog snapshot {} to {}", snapshot.getVersion(), path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to save catalog snapshot to " + path, e);
+        }
+    }
+
+    private void move(Path temp) throws IOException {
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.dedup.LongHashSet;
+import com.directa24.main.challenge.api.dedup.MovieFingerprint;
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MoviePage;
+import com.directa24.main.challenge.api.model.PageValidators;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Director counts of the catalog kept per page between incremental syncs. A page whose content
+ * hash is unchanged, or that upstream reported as not modified, costs nothing; a changed page
+ * subtracts its previous counts from the catalog totals and adds its new ones, and pages beyond
+ * the latest total_pages are subtracted and forgotten. The movie columns are rebuilt in page order
+ * from the rows of the unchanged pages and the movies of the changed ones.
+ * <p>
+ * Each page also keeps the {@link MovieFingerprint} of its movies. A movie found on more than one
+ * page, as when pagination shifts, is only counted on the first of them. The page counts and rows
+ * are kept whole, so the movie is still counted once after that first page changes.
+ * <p>
+ * Pages count their movies by director value, as upstream spells it. {@link #finish} folds the totals
+ * onto the directors every value credits, naming them the way {@link MovieColumns} does, so a director
+ * is reported under the same spelling whichever pages changed and in whatever order they were read.
+ * <p>
+ * Not thread-safe: a sync applies its pages one at a time, and syncs never overlap.
+ */
+final class CatalogSyncState {
+
+    private final Map<Integer, SyncedPage> pages = new TreeMap<>();
+    private StringIntHashMap totals = new StringIntHashMap();
+    private MovieColumns movies = MovieColumns.empty();
+    private MovieColumns distinctMovies = movies;
+
+    private int syncTotalPages;
+    private int changedPages;
+    private int unchangedPages;
+    private int duplicateMovies;
+
+    /**
+     * @param page The page number.
+     * @return The validators the previous sync saw for the page.
+     */
+    PageValidators validators(int page) {
+        SyncedPage synced = pages.get(page);
+        return synced == null ? PageValidators.NONE
+                : new PageValidators(synced.etag, synced.lastModified, synced.totalPages);
+    }
+
+    void begin() {
+        syncTotalPages = 0;
+        changedPages = 0;
+        unchangedPages = 0;
+    }
+
+    /**
+     * @param page A page of the current sync.
+     */
+    void apply(MoviePage page) {
+        syncTotalPages = Math.max(syncTotalPages, page.getTotalPages());
+        SyncedPage previous = pages.get(page.getPage());
+        if (!page.isModified()) {
+            unchangedPages++;
+            return;
+        }
+        if (previous != null && previous.contentHash == page.getContentHash()) {
+            pages.put(page.getPage(), previous.revalidated(page.getEtag(), page.getLastModified(), page.getTotalPages()));
+            unchangedPages++;
+            return;
+        }
+
+        StringIntHashMap counts = new StringIntHashMap();
+        long[] fingerprints = new long[page.getMovies().size()];
+        int next = 0;
+        for (Movie movie : page.getMovies()) {
+            fingerprints[next++] = MovieFingerprint.of(movie);
+            if (movie.getDirector() != null) {
+                counts.increment(movie.getDirector());
+            }
+        }
+        if (previous != null) {
+            previous.counts.forEach((director, count) -> totals.add(director, -count));
+        }
+        counts.forEach(totals::add);
+        pages.put(page.getPage(), new SyncedPage(page.getEtag(), page.getLastModified(), page.getTotalPages(),
+                page.getContentHash(), counts, fingerprints, page.getMovies()));
+        changedPages++;
+    }
+
+    /**
+     * Drops the pages past the total_pages of the sync, rebuilds the movie columns and builds the
+     * director index of the totals, leaving out the movies already found on an earlier page.
+     *
+     * @return The director index of the whole catalog.
+     */
+    DirectorIndex finish() {
+        if (syncTotalPages > 0) {
+            Iterator<Map.Entry<Integer, SyncedPage>> entries = pages.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Integer, SyncedPage> entry = entries.next();
+                if (entry.getKey() > syncTotalPages) {
+                    entry.getValue().counts.forEach((director, count) -> totals.add(director, -count));
+                    entries.remove();
+                    changedPages++;
+                }
+            }
+        }
+        compactTotals();
+        movies = buildMovies();
+        return DirectorIndex.of(DirectorCredits.countDirectors(distinctTotals()));
+    }
+
+    /**
+     * @return The movie columns built by the last {@link #finish}, each distinct movie once.
+     */
+    MovieColumns getMovies() {
+        return distinctMovies;
+    }
+
+    /**
+     * @param page The page number.
+     * @return Whether the catalog holds the movies of the page from this or an earlier sync.
+     */
+    boolean hasPage(int page) {
+        return pages.containsKey(page);
+    }
+
+    /**
+     * @return Whether no sync has applied a page yet, so the next sync reads every movie of the catalog.
+     */
+    boolean isEmpty() {
+        return pages.isEmpty();
+    }
+
+    int getChangedPages() {
+        return changedPages;
+    }
+
+    int getUnchangedPages() {
+        return unchangedPages;
+    }
+
+    /**
+     * @return The movies left out by the last {@link #finish} because an earlier page holds them.
+     */
+    int getDuplicateMovies() {
+        return duplicateMovies;
+    }
+
+    /**
+     * Director values whose movies all left the catalog keep a zero count in the totals; once they are
+     * the majority, the totals are rebuilt without them.
+     */
+    private void compactTotals() {
+        int[] zeros = {0};
+        totals.forEach((director, count) -> {
+            if (count == 0) {
+                zeros[0]++;
+            }
+        });
+        if (zeros[0] * 2 > totals.size()) {
+            StringIntHashMap compacted = new StringIntHashMap(totals.size() - zeros[0]);
+            totals.forEach((director, count) -> {
+                if (count != 0) {
+                    compacted.add(director, count);
+                }
+            });
+            totals = compacted;
+        }
+    }
+
+    /**
+     * Copies the rows of the pages that did not change from the previous columns and appends the
+     * movies of the pages that did, in page order.
+     */
+    private MovieColumns buildMovies() {
+        MovieColumns.Builder builder = MovieColumns.builder();
+        for (SyncedPage page : pages.values()) {
+            int firstRow = builder.size();
+            if (page.changedMovies != null) {
+                page.changedMovies.forEach(builder::add);
+                page.changedMovies = null;
+            } else {
+                for (int row = page.firstRow; row < page.firstRow + page.rows; row++) {
+                    builder.add(movies, row);
+                }
+            }
+            page.firstRow = firstRow;
+            page.rows = builder.size() - firstRow;
+        }
+        return builder.build();
+    }
+
+    /**
+     * Finds the rows whose movie is already on an earlier page, and takes them out of a copy of the
+     * columns and of the totals. Without duplicates, the columns and totals are used as they are.
+     *
+     * @return The totals by director value, counting each distinct movie once.
+     */
+    private StringIntHashMap distinctTotals() {
+        LongHashSet seen = new LongHashSet(movies.size());
+        BitSet duplicateRows = new BitSet();
+        StringIntHashMap duplicates = new StringIntHashMap();
+        for (SyncedPage page : pages.values()) {
+            for (int i = 0; i < page.rows; i++) {
+                if (!seen.add(page.fingerprints[i])) {
+                    int row = page.firstRow + i;
+                    duplicateRows.set(row);
+                    if (movies.director(row) != null) {
+                        duplicates.increment(movies.director(row));
+                    }
+                }
+            }
+        }
+        duplicateMovies = duplicateRows.cardinality();
+        if (duplicateMovies == 0) {
+            distinctMovies = movies;
+            return totals;
+        }
+
+        MovieColumns.Builder builder = MovieColumns.builder();
+        for (int row = 0; row < movies.size(); row++) {
+            if (!duplicateRows.get(row)) {
+                builder.add(movies, row);
+            }
+        }
+        distinctMovies = builder.build();
+        StringIntHashMap distinct = new StringIntHashMap(totals.size());
+        totals.forEach((director, count) -> distinct.add(director, count - duplicates.get(director)));
+        return distinct;
+    }
+
+    private static final class SyncedPage {
+        private final String etag;
+        private final String lastModified;
+        private final int totalPages; // As the page reported it
+        private final long contentHash;
+        private final StringIntHashMap counts;
+        private final long[] fingerprints; // Of the page's movies, in row order
+        private List<Movie> changedMovies; // Held from apply() until finish() adds them to the columns
+        private int firstRow;
+        private int rows;
+
+        private SyncedPage(String etag, String lastModified, int totalPages, long contentHash,
+                           StringIntHashMap counts, long[] fingerprints, List<Movie> changedMovies) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.totalPages = totalPages;
+            this.contentHash = contentHash;
+            this.counts = counts;
+            this.fingerprints = fingerprints;
+            this.changedMovies = changedMovies;
+        }
+
+        private SyncedPage revalidated(String etag, String lastModified, int totalPages) {
+            SyncedPage page = new SyncedPage(etag, lastModified, totalPages, contentHash, counts, fingerprints,
+                    changedMovies);
+            page.firstRow = firstRow;
+            page.rows = rows;
+            return page;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.directa24.main.challenge.api.catalog;
+
+import java.util.Arrays;
+
+/**
+ * The directors credited by every distinct value of a director column, named by the
+ * {@link DirectorNames} of the column's movies. Rows are counted by director value id in the scan, and
+ * the counts are then folded onto the credited directors once per distinct value, so the scan stays a
+ * plain int loop. Immutable.
+ */
+final class DirectorCredits {
+
+    private final String[] names; // By credit id, in first-seen order
+    private final int[] offsets; // Credits of director value id v are credits[offsets[v]..offsets[v + 1])
+    private final int[] credits;
+
+    private DirectorCredits(String[] names, int[] offsets, int[] credits) {
+        this.names = names;
+        this.offsets = offsets;
+        this.credits = credits;
+    }
+
+    /**
+     * @param directors The distinct values of a director column.
+     * @param moviesByDirectorId The number of movies of every value, by director value id.
+     * @return The credits of every value.
+     */
+    static DirectorCredits of(StringDictionary directors, int[] moviesByDirectorId) {
+        DirectorNames directorNames = new DirectorNames();
+        int[] offsets = new int[directors.size() + 1];
+        int[] credits = new int[directors.size()];
+        int creditCount = 0;
+        for (int id = 0; id < directors.size(); id++) {
+            for (int creditId : directorNames.credit(directors.get(id), moviesByDirectorId[id])) {
+                if (creditCount == credits.length) {
+                    credits = Arrays.copyOf(credits, Math.max(4, creditCount << 1));
+                }
+                credits[creditCount++] = creditId;
+            }
+            offsets[id + 1] = creditCount;
+        }
+        return new DirectorCredits(names(directorNames), offsets, Arrays.copyOf(credits, creditCount));
+    }
+
+    /**
+     * Counts the movies of every credited director straight from the movies of every director value,
+     * naming the directors the way {@link #of} does for a column holding the same movies.
+     *
+     * @param moviesByDirector The number of movies of every director value.
+     * @return The number of movies of each director, by name; directors without movies are left out.
+     */
+    static StringIntHashMap countDirectors(StringIntHashMap moviesByDirector) {
+        DirectorNames directorNames = new DirectorNames();
+        int[][] counts = {new int[Math.max(4, moviesByDirector.size())]};
+        moviesByDirector.forEach((director, movies) -> {
+            if (movies == 0) {
+                return;
+            }
+            for (int creditId : directorNames.credit(director, movies)) {
+                if (creditId == counts[0].length) {
+                    counts[0] = Arrays.copyOf(counts[0], creditId << 1);
+                }
+                counts[0][creditId] += movies;
+            }
+        });
+        StringIntHashMap directorCounts = new StringIntHashMap(directorNames.size());
+        for (int creditId = 0; creditId < directorNames.size(); creditId++) {
+            directorCounts.add(directorNames.name(creditId), counts[0][creditId]);
+        }
+        return directorCounts;
+    }
+
+    private static String[] names(DirectorNames directorNames) {
+        String[] names = new String[directorNames.size()];
+        for (int creditId = 0; creditId < names.length; creditId++) {
+            names[creditId] = directorNames.name(creditId);
+        }
+        return names;
+    }
+
+    /**
+     * @return The number of distinct credited directors, the exclusive upper bound of credit ids.
+     */
+    int size() {
+        return names.length;
+    }
+
+    String name(int creditId) {
+        return names[creditId];
+    }
+
+    /**
+     * @param countsByDirectorId Movie counts by director value id.
+     * @return Movie counts by credit id, a movie counting once for every director it credits.
+     */
+    int[] fold(int[] countsByDirectorId) {
+        int[] counts = new int[names.length];
+        for (int id = 0; id < countsByDirectorId.length; id++) {
+            if (countsByDirectorId[id] > 0) {
+                for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                    counts[credits[i]] += countsByDirectorId[id];
+                }
+            }
+        }
+        return counts;
+    }
+}
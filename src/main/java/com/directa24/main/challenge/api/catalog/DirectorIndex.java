@@ -0,0 +1,154 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.model.DirectorCount;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Immutable director → movie-count index built once per catalog refresh.
+ * Entries are kept ordered by movie count (descending, ties by name) so that any
+ * threshold query is answered with a binary search for the cutoff instead of a new crawl.
+ */
+public final class DirectorIndex {
+
+    private static final DirectorIndex EMPTY = new DirectorIndex(new String[0], new int[0]);
+    private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingInt(entry -> entry.count)
+            .reversed()
+            .thenComparing(entry -> entry.name);
+
+    private final String[] names;
+    private final int[] counts;
+
+    private DirectorIndex(String[] names, int[] counts) {
+        this.names = names;
+        this.counts = counts;
+    }
+
+    /**
+     * Builds an index from the per-director movie counts of an aggregation.
+     *
+     * @param directorCounts The number of movies directed by each director; directors with no movies are skipped.
+     * @return An immutable index over the given counts.
+     */
+    public static DirectorIndex of(StringIntHashMap directorCounts) {
+        if (directorCounts.size() == 0) {
+            return EMPTY;
+        }
+
+        Entry[] counted = new Entry[directorCounts.size()];
+        int[] next = {0};
+        directorCounts.forEach((name, count) -> {
+            if (count > 0) { // Directors left with no movies by an incremental sync are not indexed
+                counted[next[0]++] = new Entry(name, count);
+            }
+        });
+        Entry[] entries = next[0] == counted.length ? counted : Arrays.copyOf(counted, next[0]);
+        Arrays.sort(entries, ORDER);
+
+        String[] names = new String[entries.length];
+        int[] counts = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            names[i] = entries[i].name;
+            counts[i] = entries[i].count;
+        }
+        return new DirectorIndex(names, counts);
+    }
+
+    /**
+     * Rebuilds an index from entries that are already in index order, as written by {@link #forEach}.
+     *
+     * @param names The director names, ordered by movie count (descending, ties by name).
+     * @param counts The movie count of each director.
+     * @return An immutable index over the given entries.
+     * @throws IllegalArgumentException if the entries are not in index order.
+     */
+    static DirectorIndex ofSorted(String[] names, int[] counts) {
+        if (names.length != counts.length) {
+            throw new IllegalArgumentException("Director names and counts differ in length");
+        }
+        for (int i = 1; i < names.length; i++) {
+            if (counts[i - 1] < counts[i] || (counts[i - 1] == counts[i] && names[i - 1].compareTo(names[i]) >= 0)) {
+                throw new IllegalArgumentException("Director entries are not in index order at " + i);
+            }
+        }
+        return names.length == 0 ? EMPTY : new DirectorIndex(names, counts);
+    }
+
+    public static DirectorIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the directors with strictly more movies than the given threshold.
+     *
+     * @param threshold The number of movies a director must exceed.
+     * @return An alphabetically sorted, unmodifiable list of director names.
+     */
+    public List<String> directorsAbove(int threshold) {
+        String[] matches = Arrays.copyOf(names, cutoff(threshold));
+        Arrays.sort(matches);
+        return Collections.unmodifiableList(Arrays.asList(matches));
+    }
+
+    /**
+     * Returns the directors with the most movies. The index is already in count order, so this is
+     * a copy of its first entries rather than a sort or heap over all directors.
+     *
+     * @param limit The maximum number of directors to return.
+     * @return Up to {@code limit} directors, by movie count (descending, ties by name).
+     */
+    public List<DirectorCount> top(int limit) {
+        int size = Math.min(limit, names.length);
+        DirectorCount[] top = new DirectorCount[size];
+        for (int i = 0; i < size; i++) {
+            top[i] = new DirectorCount(names[i], counts[i]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(top));
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Visits every director with its movie count, in index order.
+     *
+     * @param consumer Receives each director name and movie count.
+     */
+    public void forEach(ObjIntConsumer<String> consumer) {
+        for (int i = 0; i < names.length; i++) {
+            consumer.accept(names[i], counts[i]);
+        }
+    }
+
+    /**
+     * Binary search over the descending counts for the first entry that does not exceed the threshold.
+     */
+    private int cutoff(int threshold) {
+        int low = 0;
+        int high = counts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (counts[mid] > threshold) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final int count;
+
+        private Entry(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+    }
+}
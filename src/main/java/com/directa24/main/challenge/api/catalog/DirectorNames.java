@@ -0,0 +1,337 @@
+package com.directa24.main.challenge.api.catalog;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Splits director fields into the directors they credit and names every director by one of its
+ * spellings. "Joel Coen, Ethan Coen" credits two directors, and " joel  COEN" is the same director as
+ * "Joel Coen". A field with non-ASCII characters is first brought to Unicode NFKC, so composed and
+ * decomposed accents, no-break spaces and fullwidth separators ("A，B") compare equal to their plain
+ * forms. Names are then split on {@code , ; & /}, trimmed, and compared ignoring case and the length
+ * of whitespace runs.
+ * <p>
+ * Every field is credited with the movies that use it, and a director is named by the spelling,
+ * whitespace runs collapsed, that the most movies credit; ties go to the lexicographically smallest
+ * spelling. The name only depends on the movies counted, never on the order they were read in, so
+ * every aggregation of the same movies reports the same spelling.
+ * <p>
+ * Names are matched against the directors straight from the field's characters, and the credits of
+ * every field are cached, so crediting a field seen before allocates nothing. Not thread-safe: each
+ * aggregation owns its own instance, and drops it with its counts.
+ */
+public final class DirectorNames {
+
+    private static final int[] NONE = new int[0];
+    private static final Credits NO_CREDITS = new Credits(NONE, NONE);
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final Map<String, Credits> credits = new HashMap<>();
+    private String[] keys; // First spelling of the director in the slot, matched folded
+    private int[] hashes;
+    private int[] ids;
+    private Director[] directors = new Director[DEFAULT_CAPACITY];
+    private int size;
+    private int resizeAt;
+
+    public DirectorNames() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Credits the spellings the field uses with the movies.
+     *
+     * @param field A director field, possibly null.
+     * @param movies The number of movies the field is the director of.
+     * @return The ids of the distinct directors the field credits, in field order; shared, must not be
+     * modified.
+     */
+    public int[] credit(String field, int movies) {
+        if (field == null) {
+            return NONE;
+        }
+        Credits credited = credits.get(field);
+        if (credited == null) {
+            credited = split(field);
+            credits.put(field, credited);
+        }
+        for (int i = 0; i < credited.ids.length; i++) {
+            directors[credited.ids[i]].movies[credited.spellings[i]] += movies;
+        }
+        return credited.ids;
+    }
+
+    /**
+     * @param id A director id returned by {@link #credit}.
+     * @return The spelling the most movies credited so far, the lexicographically smallest on ties.
+     */
+    public String name(int id) {
+        return directors[id].name();
+    }
+
+    /**
+     * @return The number of distinct directors seen so far, the exclusive upper bound of director ids.
+     */
+    public int size() {
+        return size;
+    }
+
+    private Credits split(String field) {
+        field = normalized(field);
+        int[] credited = NONE;
+        int[] spellings = NONE;
+        int count = 0;
+        int start = 0;
+        for (int i = 0; i <= field.length(); i++) {
+            if (i < field.length() && !isSeparator(field.charAt(i))) {
+                continue;
+            }
+            long credit = credit(field, start, i);
+            start = i + 1;
+            int id = (int) (credit >>> 32);
+            if (credit < 0 || contains(credited, count, id)) {
+                continue;
+            }
+            if (count == credited.length) {
+                credited = Arrays.copyOf(credited, Math.max(1, count << 1));
+                spellings = Arrays.copyOf(spellings, credited.length);
+            }
+            credited[count] = id;
+            spellings[count++] = (int) credit;
+        }
+        return count == 0 ? NO_CREDITS : new Credits(Arrays.copyOf(credited, count), Arrays.copyOf(spellings, count));
+    }
+
+    /**
+     * @return The director id in the high and the spelling index in the low half of the characters in
+     * [start, end) of the field, or -1 if they are blank.
+     */
+    private long credit(String field, int start, int end) {
+        start = trimStart(field, start, end);
+        end = trimEnd(field, start, end);
+        return start == end ? -1 : lookup(field, start, end);
+    }
+
+    /**
+     * @return The field in Unicode NFKC, or the field itself when it is plain ASCII.
+     */
+    private static String normalized(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            if (field.charAt(i) >= 0x80) {
+                return Normalizer.normalize(field, Normalizer.Form.NFKC);
+            }
+        }
+        return field;
+    }
+
+    private static int trimStart(String value, int start, int end) {
+        while (start < end && isSpace(value.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String value, int start, int end) {
+        while (end > start && isSpace(value.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Finds the director matching the trimmed characters in [start, end), adding a new director when
+     * none does, and the director's spelling of them.
+     */
+    private long lookup(String field, int start, int end) {
+        int hash = foldedHash(field, start, end);
+        int mask = keys.length - 1;
+        int slot = mix(hash) & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == hash && foldedEquals(keys[slot], field, start, end)) {
+                int id = ids[slot];
+                return (long) id << 32 | directors[id].spelling(collapsed(field, start, end));
+            }
+            slot = (slot + 1) & mask;
+        }
+        String spelling = collapsed(field, start, end);
+        int id = size;
+        keys[slot] = spelling;
+        hashes[slot] = hash;
+        ids[slot] = id;
+        if (id == directors.length) {
+            directors = Arrays.copyOf(directors, id << 1);
+        }
+        directors[id] = new Director(spelling);
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return (long) id << 32;
+    }
+
+    /**
+     * Hashes the characters lower-cased, with every whitespace run counted as a single space.
+     */
+    private static int foldedHash(String value, int start, int end) {
+        int hash = 0;
+        boolean space = false;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (isSpace(c)) {
+                space = true;
+                continue;
+            }
+            if (space) {
+                hash = 31 * hash + ' ';
+                space = false;
+            }
+            hash = 31 * hash + Character.toLowerCase(c);
+        }
+        return hash;
+    }
+
+    /**
+     * Compares a spelling, whose whitespace is already collapsed, to trimmed characters the way
+     * {@link #foldedHash} hashes them.
+     */
+    private static boolean foldedEquals(String name, String value, int start, int end) {
+        int n = 0;
+        int i = start;
+        while (i < end) {
+            char c = value.charAt(i);
+            if (isSpace(c)) {
+                while (isSpace(value.charAt(i))) {
+                    i++; // The characters are trimmed, so a run always ends before end
+                }
+                c = ' ';
+            } else {
+                i++;
+            }
+            if (n == name.length() || Character.toLowerCase(name.charAt(n++)) != Character.toLowerCase(c)) {
+                return false;
+            }
+        }
+        return n == name.length();
+    }
+
+    private static String collapsed(String value, int start, int end) {
+        StringBuilder name = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (!isSpace(c)) {
+                name.append(c);
+            } else if (!isSpace(value.charAt(i - 1))) {
+                name.append(' ');
+            }
+        }
+        return name.toString();
+    }
+
+    private static boolean contains(int[] ids, int count, int id) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == ';' || c == '&' || c == '/';
+    }
+
+    private static boolean isSpace(char c) {
+        return c <= ' ' || Character.isWhitespace(c) || Character.isSpaceChar(c);
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldIds = ids;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = mix(oldHashes[i]) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                ids[slot] = oldIds[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        ids = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Murmur3 finalizer, spreads hashes that differ only in their high bits.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * The ids of the directors a field credits, and the index of each one's spelling.
+     */
+    private static final class Credits {
+        private final int[] ids;
+        private final int[] spellings;
+
+        private Credits(int[] ids, int[] spellings) {
+            this.ids = ids;
+            this.spellings = spellings;
+        }
+    }
+
+    /**
+     * The spellings of a director and the movies crediting each of them.
+     */
+    private static final class Director {
+        private String[] spellings;
+        private int[] movies;
+
+        private Director(String spelling) {
+            spellings = new String[]{spelling};
+            movies = new int[1];
+        }
+
+        /**
+         * @return The index of the spelling, added with no movies when it is new.
+         */
+        private int spelling(String spelling) {
+            for (int i = 0; i < spellings.length; i++) {
+                if (spellings[i].equals(spelling)) {
+                    return i;
+                }
+            }
+            spellings = Arrays.copyOf(spellings, spellings.length + 1);
+            movies = Arrays.copyOf(movies, spellings.length);
+            spellings[spellings.length - 1] = spelling;
+            return spellings.length - 1;
+        }
+
+        private String name() {
+            int best = 0;
+            for (int i = 1; i < spellings.length; i++) {
+                if (movies[i] > movies[best]
+                        || movies[i] == movies[best] && spellings[i].compareTo(spellings[best]) < 0) {
+                    best = i;
+                }
+            }
+            return spellings[best];
+        }
+    }
+}
@@ -0,0 +1,613 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.concurrency.SingleFlight;
+import com.directa24.main.challenge.api.dedup.LongHashSet;
+import com.directa24.main.challenge.api.dedup.MovieFingerprint;
+import com.directa24.main.challenge.api.model.CrawlReport;
+import com.directa24.main.challenge.api.model.CrawlSummary;
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.repository.MovieRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+import reactor.util.function.Tuple3;
+import reactor.util.function.Tuples;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the last good catalog snapshot and rebuilds it in the background.
+ * Callers are always served the current snapshot; a refresh is started ahead of the
+ * refresh interval, and only snapshots older than the max staleness make callers wait.
+ * A partial snapshot, missing pages that could not be fetched, is refreshed after the shorter partial interval.
+ * Every refreshed snapshot is persisted, and restored on startup, through the {@link CatalogSnapshotStore},
+ * and shared with the other replicas through the {@link SharedCatalog} so that only one of them crawls upstream.
+ * A load started while the catalog cannot serve can be followed as it reads upstream, see {@link #followLoad}.
+ */
+@Component
+@Slf4j
+public class MovieCatalog {
+
+    private static final String CATALOG_KEY = "catalog";
+    private static final Duration SHARED_SNAPSHOT_POLL_INTERVAL = Duration.ofMillis(500);
+
+    private final MovieRepository movieRepository;
+    private final CatalogSnapshotStore snapshotStore;
+    private final SharedCatalog sharedCatalog;
+    private final Duration refreshInterval;
+    private final Duration refreshAhead;
+    private final Duration maxStaleness;
+    private final Duration partialRefreshInterval;
+    private final boolean refreshEnabled;
+    private final boolean incrementalSync;
+    private final MeterRegistry meterRegistry;
+    private final Timer indexBuildTimer;
+    private final Counter snapshotsCrawled;
+    private final Counter snapshotsAdopted;
+    private final Counter pagesChanged;
+    private final Counter pagesUnchanged;
+    private final Counter crawlsComplete;
+    private final Counter crawlsPartial;
+    private final DistributionSummary crawlBytes;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicLong invalidatedBefore = new AtomicLong(); // Snapshots below this version are invalidated
+    private final CatalogSyncState syncState = new CatalogSyncState();
+    private final SingleFlight<String, CatalogSnapshot> refreshFlight = new SingleFlight<>();
+    private volatile Disposable scheduledRefresh;
+    private volatile Disposable sharedSnapshots;
+    private final AtomicReference<Disposable> partialRefresh = new AtomicReference<>();
+    private final AtomicReference<LoadProgress> loadProgress = new AtomicReference<>();
+
+    public MovieCatalog(@Value("${catalog.refresh.interval:${cache.expiry.minutes:5}m}") Duration refreshInterval,
+                        @Value("${catalog.refresh.ahead:30s}") Duration refreshAhead,
+                        @Value("${catalog.refresh.max-staleness:30m}") Duration maxStaleness,
+                        @Value("${catalog.refresh.partial-interval:1m}") Duration partialRefreshInterval,
+                        @Value("${catalog.refresh.enabled:true}") boolean refreshEnabled,
+                        @Value("${catalog.sync.incremental:true}") boolean incrementalSync,
+                        MovieRepository movieRepository,
+                        CatalogSnapshotStore snapshotStore,
+                        SharedCatalog sharedCatalog,
+                        MeterRegistry meterRegistry) {
+        this.refreshInterval = refreshInterval;
+        this.refreshAhead = refreshAhead;
+        this.maxStaleness = maxStaleness;
+        this.partialRefreshInterval = partialRefreshInterval;
+        this.refreshEnabled = refreshEnabled;
+        this.incrementalSync = incrementalSync;
+        this.movieRepository = movieRepository;
+        this.snapshotStore = snapshotStore;
+        this.sharedCatalog = sharedCatalog;
+        this.meterRegistry = meterRegistry;
+        this.indexBuildTimer = Timer.builder("movies.directors.index.build")
+                .description("Time to build the director index from the aggregated counts")
+                .register(meterRegistry);
+        this.snapshotsCrawled = Counter.builder("movies.catalog.snapshots")
+                .description("Catalog snapshots taken in, by source")
+                .tag("source", "crawled")
+                .register(meterRegistry);
+        this.snapshotsAdopted = Counter.builder("movies.catalog.snapshots")
+                .description("Catalog snapshots taken in, by source")
+                .tag("source", "shared")
+                .register(meterRegistry);
+        this.pagesChanged = Counter.builder("movies.catalog.sync.pages")
+                .description("Pages seen by incremental syncs, by whether their director counts had to be updated")
+                .tag("result", "changed")
+                .register(meterRegistry);
+        this.pagesUnchanged = Counter.builder("movies.catalog.sync.pages")
+                .description("Pages seen by incremental syncs, by whether their director counts had to be updated")
+                .tag("result", "unchanged")
+                .register(meterRegistry);
+        this.crawlsComplete = Counter.builder("movies.catalog.crawls")
+                .description("Catalog crawls by this instance, by whether every page made it into the snapshot")
+                .tag("result", "complete")
+                .register(meterRegistry);
+        this.crawlsPartial = Counter.builder("movies.catalog.crawls")
+                .description("Catalog crawls by this instance, by whether every page made it into the snapshot")
+                .tag("result", "partial")
+                .register(meterRegistry);
+        this.crawlBytes = DistributionSummary.builder("movies.catalog.crawl.bytes")
+                .description("Response bytes read from upstream by one catalog crawl")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("movies.catalog.completeness", current,
+                        ref -> ref.get() == null ? Double.NaN : ref.get().getCrawl().completeness())
+                .description("Share of attempted upstream pages fetched by the crawl of the snapshot being served")
+                .register(meterRegistry);
+        Gauge.builder("movies.catalog.snapshot.age", current,
+                        ref -> ref.get() == null ? Double.NaN : ref.get().age().toMillis() / 1000.0)
+                .description("Age of the catalog snapshot being served")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("movies.catalog.directors", current,
+                        ref -> ref.get() == null ? 0 : ref.get().getDirectorIndex().size())
+                .description("Directors in the catalog snapshot being served")
+                .register(meterRegistry);
+        FunctionCounter.builder("movies.catalog.load.executions", refreshFlight, SingleFlight::getExecutions)
+                .description("Catalog loads actually executed")
+                .register(meterRegistry);
+        FunctionCounter.builder("movies.catalog.load.coalesced", refreshFlight, SingleFlight::getCoalesced)
+                .description("Catalog load requests that joined a load already in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restores the snapshot persisted by a previous run, so requests are served from it right
+     * after startup. Its age is kept, so an old snapshot is refreshed like any other.
+     */
+    @PostConstruct
+    public void restoreSnapshot() {
+        snapshotStore.load().ifPresent(snapshot -> current.compareAndSet(null, snapshot));
+    }
+
+    /**
+     * Adopts every newer snapshot announced by another replica as soon as it is published, and drops
+     * the current snapshot as soon as any replica invalidates it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void followSharedSnapshots() {
+        sharedSnapshots = Disposables.composite(
+                sharedCatalog.published()
+                        .filter(this::isNewerThanCurrent)
+                        .concatMap(version -> sharedCatalog.latest()
+                                .filter(snapshot -> isNewerThanCurrent(snapshot.getVersion())))
+                        .concatMap(snapshot -> adopt(snapshot).then())
+                        .subscribe(),
+                sharedCatalog.invalidated()
+                        .subscribe(this::dropSnapshotsBefore));
+    }
+
+    /**
+     * Starts the background refresh loop once the application is ready. The first tick loads the
+     * catalog immediately so the first request does not pay for the crawl, unless a restored
+     * snapshot is not yet due for a refresh.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startScheduledRefresh() {
+        if (!refreshEnabled) {
+            log.info("Scheduled catalog refresh is disabled");
+            return;
+        }
+        Duration period = refreshPeriod();
+        Duration initialDelay = untilRefreshDue();
+        log.info("Scheduling catalog refresh every {}, starting in {}", period, initialDelay);
+        scheduledRefresh = Flux.interval(initialDelay, period)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh().onErrorResume(e -> Mono.empty()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stopScheduledRefresh() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.dispose();
+        }
+        if (sharedSnapshots != null) {
+            sharedSnapshots.dispose();
+        }
+        Disposable pending = partialRefresh.getAndSet(null);
+        if (pending != null) {
+            pending.dispose();
+        }
+    }
+
+    /**
+     * Returns the snapshot to answer a request with, applying stale-while-revalidate:
+     * snapshots inside the refresh-ahead window start a background refresh and are served
+     * immediately, snapshots past the max staleness wait for the refresh (falling back to
+     * the stale snapshot if it fails), and the very first call waits for the initial load.
+     *
+     * @return A Mono emitting the catalog snapshot.
+     */
+    public Mono<CatalogSnapshot> snapshot() {
+        return Mono.defer(() -> {
+            CatalogSnapshot snapshot = current.get();
+            if (snapshot == null) {
+                return refresh();
+            }
+
+            Duration age = snapshot.age();
+            if (age.compareTo(maxStaleness) > 0) {
+                log.warn("Catalog snapshot {} is {} old, waiting for a refresh", snapshot.getVersion(), age);
+                return refresh().onErrorReturn(snapshot);
+            }
+            if (age.compareTo(refreshPeriod(snapshot)) >= 0) {
+                refreshInBackground();
+            }
+            return Mono.just(snapshot);
+        });
+    }
+
+    /**
+     * Returns the current snapshot without waiting for a load, for callers that have a faster
+     * answer than the initial crawl.
+     *
+     * @return A Mono emitting the current snapshot, or empty while the catalog is cold or past the max staleness.
+     */
+    public Mono<CatalogSnapshot> currentSnapshot() {
+        return Mono.defer(() -> Mono.justOrEmpty(current.get()))
+                .filter(snapshot -> snapshot.age().compareTo(maxStaleness) <= 0);
+    }
+
+    /**
+     * Rebuilds the snapshot, swaps it in atomically and then persists it. Concurrent callers,
+     * including cold requests and the scheduler, share the single load already in flight; on
+     * failure the previous snapshot is kept. A fresh snapshot published by another replica is
+     * adopted instead of crawling, and while another replica holds the refresh lease the current
+     * snapshot is kept until that replica publishes.
+     *
+     * @return A Mono emitting the new snapshot.
+     */
+    public Mono<CatalogSnapshot> refresh() {
+        return refreshFlight.execute(CATALOG_KEY, () -> followable(sharedCatalog.latest()
+                .filter(this::isFreshAndNewer)
+                .flatMap(this::adopt)
+                .switchIfEmpty(Mono.defer(() -> sharedCatalog.tryAcquireRefreshLease()
+                        .flatMap(acquired -> acquired ? crawlUnderLease() : awaitSharedSnapshot())))
+                .doOnError(e -> log.error("Catalog refresh failed, keeping the last good snapshot: {}",
+                        e.getMessage()))));
+    }
+
+    /**
+     * Starts or joins a catalog load and follows it as it reads upstream, for callers that can answer
+     * from the movies before the snapshot is built. Only a load started while the catalog cannot serve,
+     * cold or past the max staleness, that reads the whole catalog is followed, and its movies are
+     * replayed to followers that join late; any other load, such as one adopting a shared snapshot,
+     * emits nothing and the snapshot it leaves behind has the answer.
+     *
+     * @return A Flux of the distinct movies read by the load, completing once its snapshot is served.
+     */
+    public Flux<Movie> followLoad() {
+        return Flux.defer(() -> {
+            // A load this call starts takes its progress from the context, even if it completes at once
+            LoadProgress started = new LoadProgress();
+            return Flux.merge(
+                    refresh().thenMany(Flux.<Movie>empty()).contextWrite(Context.of(LoadProgress.class, started)),
+                    Flux.defer(() -> {
+                        LoadProgress progress = started.isStarted() ? started : loadProgress.get();
+                        return progress == null ? Flux.<Movie>empty() : progress.movies();
+                    }));
+        });
+    }
+
+    /**
+     * @return The single-flight guarding catalog loads, exposing how many loads were coalesced.
+     */
+    public SingleFlight<String, CatalogSnapshot> getRefreshFlight() {
+        return refreshFlight;
+    }
+
+    /**
+     * @param snapshot A snapshot served by this catalog.
+     * @return When the snapshot is due to be replaced by a refresh, sooner if it is partial.
+     */
+    public Instant refreshDueAt(CatalogSnapshot snapshot) {
+        return snapshot.getLoadedAt().plus(refreshPeriod(snapshot));
+    }
+
+    /**
+     * Drops the current and the shared snapshot so that the next call waits for a fresh crawl.
+     *
+     * @return A Mono completing once both snapshots are dropped.
+     */
+    public Mono<Void> invalidate() {
+        return sharedCatalog.invalidate().then(Mono.fromRunnable(() -> current.set(null)));
+    }
+
+    /**
+     * Crawls upstream while holding the refresh lease, then publishes the snapshot to the other replicas.
+     */
+    private Mono<CatalogSnapshot> crawlUnderLease() {
+        return Mono.usingWhen(Mono.just(CATALOG_KEY),
+                lease -> loadSnapshot()
+                        .doOnNext(current::set)
+                        .doOnNext(snapshot -> snapshotsCrawled.increment())
+                        .doOnNext(this::schedulePartialRefresh)
+                        .flatMap(snapshot -> sharedCatalog.publish(snapshot).thenReturn(snapshot))
+                        .flatMap(this::persist),
+                lease -> sharedCatalog.releaseRefreshLease());
+    }
+
+    /**
+     * Another replica is crawling. The current snapshot keeps being served and is replaced when
+     * that replica publishes; a cold instance polls for the shared snapshot and crawls on its own
+     * if none arrives within the wait timeout.
+     */
+    private Mono<CatalogSnapshot> awaitSharedSnapshot() {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            log.info("Another instance is refreshing the catalog, serving snapshot {}", snapshot.getVersion());
+            return Mono.just(snapshot);
+        }
+        return Flux.interval(Duration.ZERO, SHARED_SNAPSHOT_POLL_INTERVAL)
+                .concatMap(tick -> sharedCatalog.latest())
+                .next()
+                .flatMap(this::adopt)
+                .timeout(sharedCatalog.getWaitTimeout(), Mono.defer(() -> {
+                    log.warn("No shared catalog snapshot after {}, crawling locally", sharedCatalog.getWaitTimeout());
+                    return loadSnapshot()
+                            .doOnNext(current::set)
+                            .doOnNext(crawled -> snapshotsCrawled.increment())
+                            .doOnNext(this::schedulePartialRefresh)
+                            .flatMap(this::persist);
+                }));
+    }
+
+    /**
+     * Swaps in a snapshot published by another replica, unless a newer one is already served.
+     */
+    private Mono<CatalogSnapshot> adopt(CatalogSnapshot snapshot) {
+        CatalogSnapshot served = current.accumulateAndGet(snapshot,
+                (existing, candidate) -> existing == null || candidate.getVersion() > existing.getVersion()
+                        ? candidate : existing);
+        if (served != snapshot) {
+            return Mono.just(served);
+        }
+        snapshotsAdopted.increment();
+        log.info("Adopted catalog snapshot {} with {} directors from the shared cache", snapshot.getVersion(),
+                snapshot.getDirectorIndex().size());
+        return persist(snapshot);
+    }
+
+    /**
+     * Makes a load started while the catalog cannot serve followable, until it terminates.
+     */
+    private Mono<CatalogSnapshot> followable(Mono<CatalogSnapshot> load) {
+        return Mono.deferContextual(context -> {
+            CatalogSnapshot snapshot = current.get();
+            if (snapshot != null && snapshot.age().compareTo(maxStaleness) <= 0) {
+                return load;
+            }
+            LoadProgress progress = context.getOrDefault(LoadProgress.class, new LoadProgress());
+            progress.start();
+            loadProgress.set(progress);
+            return load.doFinally(signal -> {
+                loadProgress.compareAndSet(progress, null);
+                progress.complete();
+            });
+        });
+    }
+
+    private boolean isNewerThanCurrent(long version) {
+        CatalogSnapshot snapshot = current.get();
+        return version >= invalidatedBefore.get() && (snapshot == null || version > snapshot.getVersion());
+    }
+
+    /**
+     * Drops the current snapshot if an invalidation announced with the version covers it, so the
+     * next call waits for a fresh crawl, and keeps snapshots it covers from being adopted later.
+     */
+    private void dropSnapshotsBefore(long version) {
+        invalidatedBefore.accumulateAndGet(version, Math::max);
+        CatalogSnapshot dropped = current.getAndUpdate(
+                snapshot -> snapshot != null && snapshot.getVersion() < version ? null : snapshot);
+        if (dropped != null && dropped.getVersion() < version) {
+            log.info("Dropped catalog snapshot {}, invalidated by a replica", dropped.getVersion());
+        }
+    }
+
+    /**
+     * A shared snapshot replaces the current one if it is newer and not yet due for a refresh itself.
+     */
+    private boolean isFreshAndNewer(CatalogSnapshot snapshot) {
+        return isNewerThanCurrent(snapshot.getVersion()) && snapshot.age().compareTo(refreshPeriod(snapshot)) < 0;
+    }
+
+    private void refreshInBackground() {
+        refresh().subscribe(snapshot -> { }, e -> { });
+    }
+
+    /**
+     * Re-runs a partial crawl after the partial interval instead of waiting for the next scheduled refresh.
+     */
+    private void schedulePartialRefresh(CatalogSnapshot snapshot) {
+        if (!refreshEnabled || !snapshot.isPartial()) {
+            return;
+        }
+        log.info("Catalog snapshot {} is partial, refreshing it again in {}", snapshot.getVersion(),
+                partialRefreshInterval);
+        Disposable previous = partialRefresh.getAndSet(Mono.delay(partialRefreshInterval)
+                .filter(tick -> current.get() == snapshot)
+                .flatMap(tick -> refresh())
+                .subscribe(refreshed -> { }, e -> { }));
+        if (previous != null) {
+            previous.dispose();
+        }
+    }
+
+    /**
+     * Writes the snapshot file off the event loop. The snapshot is already being served, so a
+     * failed write is only logged.
+     */
+    private Mono<CatalogSnapshot> persist(CatalogSnapshot snapshot) {
+        return Mono.fromRunnable(() -> snapshotStore.save(snapshot))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(e -> log.warn("Catalog snapshot {} was not persisted: {}", snapshot.getVersion(),
+                        e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .thenReturn(snapshot);
+    }
+
+    /**
+     * Time left until the current snapshot is due for a refresh, zero if there is none.
+     */
+    private Duration untilRefreshDue() {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            return Duration.ZERO;
+        }
+        Duration remaining = refreshPeriod(snapshot).minus(snapshot.age());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    /**
+     * Snapshots are due for a refresh this long after they were loaded.
+     */
+    private Duration refreshPeriod() {
+        Duration period = refreshInterval.minus(refreshAhead);
+        return period.isNegative() || period.isZero() ? refreshInterval : period;
+    }
+
+    /**
+     * The snapshot is due for a refresh this long after it was loaded, sooner if it is partial.
+     */
+    private Duration refreshPeriod(CatalogSnapshot snapshot) {
+        Duration period = refreshPeriod();
+        return snapshot.isPartial() && partialRefreshInterval.compareTo(period) < 0 ? partialRefreshInterval : period;
+    }
+
+    /**
+     * Loads the catalog from upstream, incrementally or with a full crawl, into a new snapshot.
+     *
+     * @return A Mono emitting the new snapshot.
+     */
+    private Mono<CatalogSnapshot> loadSnapshot() {
+        return Mono.defer(() -> {
+            log.info("Loading catalog snapshot");
+            Timer.Sample sample = Timer.start(meterRegistry);
+
+            return (incrementalSync ? syncCatalog() : crawlCatalog())
+                    .flatMap(catalog -> sharedCatalog.nextVersion(nextLocalVersion())
+                            .map(version -> new CatalogSnapshot(version, Instant.now(), catalog.getT1(),
+                                    catalog.getT2(), catalog.getT3())))
+                    .doOnNext(snapshot -> {
+                        CrawlSummary crawl = snapshot.getCrawl();
+                        (crawl.isPartial() ? crawlsPartial : crawlsComplete).increment();
+                        crawlBytes.record(crawl.getBytes());
+                        if (crawl.isPartial()) {
+                            log.warn("Catalog snapshot {} loaded with {} directors, missing {} of {} pages",
+                                    snapshot.getVersion(), snapshot.getDirectorIndex().size(),
+                                    crawl.getPagesMissing(), crawl.getPagesAttempted());
+                        } else {
+                            log.info("Catalog snapshot {} loaded with {} directors from {} pages in {} ms",
+                                    snapshot.getVersion(), snapshot.getDirectorIndex().size(),
+                                    crawl.getPagesAttempted(), crawl.getDuration().toMillis());
+                        }
+                    })
+                    .doOnSuccess(snapshot -> sample.stop(loadTimer("success")))
+                    .doOnError(e -> sample.stop(loadTimer("error")));
+        });
+    }
+
+    /**
+     * Crawls the catalog into movie columns as it streams in, then counts the movies of every
+     * director with one scan of the director column. Pages that could not be fetched are missing.
+     */
+    private Mono<Tuple3<DirectorIndex, MovieColumns, CrawlSummary>> crawlCatalog() {
+        return Mono.defer(() -> {
+            CrawlReport report = new CrawlReport();
+            LoadProgress progress = loadProgress.get();
+            return movieRepository
+                    .fetchAllMovies()
+                    .doOnNext(movie -> {
+                        if (progress != null) {
+                            progress.read(movie);
+                        }
+                    })
+                    .collect(MovieColumns::builder, MovieColumns.Builder::add)
+                    .map(MovieColumns.Builder::build)
+                    .map(movies -> Tuples.of(
+                            indexBuildTimer.record(() -> DirectorIndex.of(movies.countDirectors())), movies,
+                            report.summarize(report.getFailedPages().size())))
+                    .contextWrite(CrawlReport.with(report));
+        });
+    }
+
+    /**
+     * Syncs the catalog page by page against the previous sync, updating the director counts only
+     * for pages that changed. A page that fails keeps its previous movies, and is only missing if
+     * no earlier sync fetched it.
+     */
+    private Mono<Tuple3<DirectorIndex, MovieColumns, CrawlSummary>> syncCatalog() {
+        return Mono.defer(() -> {
+            // Only a first sync reads every movie; later ones only read the pages that changed
+            LoadProgress progress = syncState.isEmpty() ? loadProgress.get() : null;
+            syncState.begin();
+            CrawlReport report = new CrawlReport();
+            return movieRepository
+                    .syncPages(syncState::validators)
+                    .doOnNext(page -> {
+                        if (progress != null) {
+                            page.getMovies().forEach(progress::read);
+                        }
+                    })
+                    .doOnNext(syncState::apply)
+                    .then(Mono.fromSupplier(() -> Tuples.of(indexBuildTimer.record(syncState::finish),
+                            syncState.getMovies(),
+                            report.summarize((int) report.getFailedPages().stream()
+                                    .filter(page -> !syncState.hasPage(page)).count()))))
+                    .contextWrite(CrawlReport.with(report))
+                    .doOnNext(catalog -> {
+                        pagesChanged.increment(syncState.getChangedPages());
+                        pagesUnchanged.increment(syncState.getUnchangedPages());
+                        log.info("Catalog sync found {} changed and {} unchanged pages, and {} duplicate movies",
+                                syncState.getChangedPages(), syncState.getUnchangedPages(),
+                                syncState.getDuplicateMovies());
+                    });
+        });
+    }
+
+    /**
+     * The distinct movies read by a followed load, replayed to every follower. A load reads its movies
+     * one at a time, so {@link #read} is never called concurrently.
+     */
+    private static final class LoadProgress {
+        private final Sinks.Many<Movie> movies = Sinks.many().replay().all();
+        private final LongHashSet seen = new LongHashSet();
+        private volatile boolean started;
+
+        void start() {
+            started = true;
+        }
+
+        boolean isStarted() {
+            return started;
+        }
+
+        void read(Movie movie) {
+            if (seen.add(MovieFingerprint.of(movie))) {
+                movies.tryEmitNext(movie);
+            }
+        }
+
+        void complete() {
+            movies.tryEmitComplete();
+        }
+
+        Flux<Movie> movies() {
+            return movies.asFlux();
+        }
+    }
+
+    private long nextLocalVersion() {
+        CatalogSnapshot snapshot = current.get();
+        return Math.max(snapshot == null ? 1 : snapshot.getVersion() + 1, invalidatedBefore.get());
+    }
+
+    private Timer loadTimer(String outcome) {
+        return Timer.builder("movies.catalog.load")
+                .description("Time to crawl the catalog and aggregate the director counts")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,439 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.model.Movie;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Immutable column-oriented copy of the movie catalog. Repeated text fields (rated, released, genre,
+ * director, writer, actors) are dictionary encoded into an int id per row, year and runtime are parsed
+ * into primitive ints, and only the titles are kept as one string per row. A catalog costs a few ints
+ * per movie instead of a {@link Movie} with nine strings, and scans walk flat arrays. Directors are
+ * counted by the {@link DirectorNames} each director value credits, named by the spelling most of the
+ * movies use.
+ */
+public final class MovieColumns {
+
+    /**
+     * Value of {@link #year} and {@link #runtimeMinutes} when upstream sent none that could be parsed.
+     */
+    public static final int UNKNOWN = 0;
+
+    private static final MovieColumns EMPTY = new Builder().build();
+
+    private final int size;
+    private final String[] titles;
+    private final int[] years;
+    private final int[] runtimes;
+    private final DictionaryColumn rated;
+    private final DictionaryColumn released;
+    private final DictionaryColumn genres;
+    private final DictionaryColumn directors;
+    private final DictionaryColumn writers;
+    private final DictionaryColumn actors;
+    private final DirectorCredits directorCredits;
+
+    private MovieColumns(int size, String[] titles, int[] years, int[] runtimes, DictionaryColumn rated,
+                         DictionaryColumn released, DictionaryColumn genres, DictionaryColumn directors,
+                         DictionaryColumn writers, DictionaryColumn actors) {
+        this.size = size;
+        this.titles = titles;
+        this.years = years;
+        this.runtimes = runtimes;
+        this.rated = rated;
+        this.released = released;
+        this.genres = genres;
+        this.directors = directors;
+        this.writers = writers;
+        this.actors = actors;
+        this.directorCredits = DirectorCredits.of(directors.dictionary, moviesByDirectorId());
+    }
+
+    public static MovieColumns empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String title(int row) {
+        return titles[row];
+    }
+
+    /**
+     * @param row The row of the movie.
+     * @return The release year, or {@link #UNKNOWN}.
+     */
+    public int year(int row) {
+        return years[row];
+    }
+
+    /**
+     * @param row The row of the movie.
+     * @return The runtime in minutes, or {@link #UNKNOWN}.
+     */
+    public int runtimeMinutes(int row) {
+        return runtimes[row];
+    }
+
+    public String rated(int row) {
+        return rated.get(row);
+    }
+
+    public String released(int row) {
+        return released.get(row);
+    }
+
+    public String genre(int row) {
+        return genres.get(row);
+    }
+
+    public String director(int row) {
+        return directors.get(row);
+    }
+
+    public String writer(int row) {
+        return writers.get(row);
+    }
+
+    public String actors(int row) {
+        return actors.get(row);
+    }
+
+    /**
+     * @param row The row of the movie.
+     * @return The id of the director in {@link #directorName}, or -1 when the movie has no director.
+     */
+    public int directorId(int row) {
+        return directors.ids[row];
+    }
+
+    public String directorName(int directorId) {
+        return directors.dictionary.get(directorId);
+    }
+
+    /**
+     * @return The number of distinct directors, the exclusive upper bound of director ids.
+     */
+    public int directorCount() {
+        return directors.dictionary.size();
+    }
+
+    /**
+     * Counts the movies of every credited director with a single scan of the director id column; a
+     * movie credited to several directors counts for each of them.
+     *
+     * @return The number of movies of each director, by canonical name.
+     */
+    public StringIntHashMap countDirectors() {
+        int[] credited = directorCredits.fold(moviesByDirectorId());
+        StringIntHashMap directorCounts = new StringIntHashMap(credited.length);
+        for (int creditId = 0; creditId < credited.length; creditId++) {
+            if (credited[creditId] > 0) {
+                directorCounts.add(directorCredits.name(creditId), credited[creditId]);
+            }
+        }
+        return directorCounts;
+    }
+
+    /**
+     * @return The number of movies of every director value, by director value id.
+     */
+    private int[] moviesByDirectorId() {
+        int[] counts = new int[directorCount()];
+        for (int row = 0; row < size; row++) {
+            int id = directors.ids[row];
+            if (id != StringDictionary.NULL_ID) {
+                counts[id]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return The directors credited by every value of the director column.
+     */
+    DirectorCredits directorCredits() {
+        return directorCredits;
+    }
+
+    /**
+     * Encodes the columns for {@link CatalogSnapshotCodec}:
+     * <pre>
+     * int rows | rows x title | rows x int year | rows x int runtime
+     * 6 x (int values | values x value | rows x int id)   rated, released, genre, director, writer, actors
+     * </pre>
+     * where strings are an int UTF-8 length (-1 for null) followed by the bytes.
+     */
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(size * 48 + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(size);
+            for (int row = 0; row < size; row++) {
+                writeString(out, titles[row]);
+            }
+            writeInts(out, years, size);
+            writeInts(out, runtimes, size);
+            for (DictionaryColumn column : columns()) {
+                out.writeInt(column.dictionary.size());
+                for (int id = 0; id < column.dictionary.size(); id++) {
+                    writeString(out, column.dictionary.get(id));
+                }
+                writeInts(out, column.ids, size);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param buffer The columns as written by {@link #encode}, read from its position.
+     * @return The decoded columns.
+     * @throws IllegalArgumentException if the bytes are not valid columns.
+     */
+    static MovieColumns decode(ByteBuffer buffer) {
+        int rows = readLength(buffer, 4, "row count");
+        String[] titles = new String[rows];
+        for (int row = 0; row < rows; row++) {
+            titles[row] = readString(buffer);
+        }
+        int[] years = readInts(buffer, rows);
+        int[] runtimes = readInts(buffer, rows);
+        DictionaryColumn[] columns = new DictionaryColumn[6];
+        for (int i = 0; i < columns.length; i++) {
+            String[] values = new String[readLength(buffer, 4, "dictionary size")];
+            for (int id = 0; id < values.length; id++) {
+                values[id] = readString(buffer);
+            }
+            int[] ids = readInts(buffer, rows);
+            for (int id : ids) {
+                if (id < StringDictionary.NULL_ID || id >= values.length) {
+                    throw new IllegalArgumentException("Invalid value id " + id);
+                }
+            }
+            columns[i] = new DictionaryColumn(ids, new StringDictionary(values));
+        }
+        return new MovieColumns(rows, titles, years, runtimes, columns[0], columns[1], columns[2], columns[3],
+                columns[4], columns[5]);
+    }
+
+    private DictionaryColumn[] columns() {
+        return new DictionaryColumn[]{rated, released, genres, directors, writers, actors};
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        if (count > buffer.remaining() / 4) {
+            throw new IllegalArgumentException("Column is truncated");
+        }
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * 4);
+        return values;
+    }
+
+    /**
+     * Reads a count and checks that at least {@code bytesPerItem} bytes per item are left.
+     */
+    private static int readLength(ByteBuffer buffer, int bytesPerItem, String what) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() / bytesPerItem) {
+            throw new IllegalArgumentException("Invalid " + what + " " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Parses the leading four-digit year of values such as "1999" or "2005–2010".
+     */
+    static int parseYear(String year) {
+        if (year == null || year.length() < 4) {
+            return UNKNOWN;
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            char c = year.charAt(i);
+            if (c < '0' || c > '9') {
+                return UNKNOWN;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Parses runtimes such as "136 min", "3 hrs" or "1 h 30 min" into minutes.
+     */
+    static int parseRuntime(String runtime) {
+        if (runtime == null) {
+            return UNKNOWN;
+        }
+        int minutes = 0;
+        int i = 0;
+        int length = runtime.length();
+        while (i < length) {
+            char c = runtime.charAt(i);
+            if (c < '0' || c > '9') {
+                i++;
+                continue;
+            }
+            int value = 0;
+            while (i < length && (c = runtime.charAt(i)) >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                i++;
+            }
+            while (i < length && runtime.charAt(i) == ' ') {
+                i++;
+            }
+            boolean hours = i < length && Character.toLowerCase(runtime.charAt(i)) == 'h';
+            minutes += hours ? value * 60 : value;
+        }
+        return minutes;
+    }
+
+    private static final class DictionaryColumn {
+        private final int[] ids;
+        private final StringDictionary dictionary;
+
+        private DictionaryColumn(int[] ids, StringDictionary dictionary) {
+            this.ids = ids;
+            this.dictionary = dictionary;
+        }
+
+        private String get(int row) {
+            return dictionary.get(ids[row]);
+        }
+    }
+
+    /**
+     * Appends movies row by row. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private int size;
+        private String[] titles = new String[64];
+        private int[] years = new int[64];
+        private int[] runtimes = new int[64];
+        private final ColumnBuilder rated = new ColumnBuilder();
+        private final ColumnBuilder released = new ColumnBuilder();
+        private final ColumnBuilder genres = new ColumnBuilder();
+        private final ColumnBuilder directors = new ColumnBuilder();
+        private final ColumnBuilder writers = new ColumnBuilder();
+        private final ColumnBuilder actors = new ColumnBuilder();
+
+        private Builder() {
+        }
+
+        public Builder add(Movie movie) {
+            ensureCapacity();
+            titles[size] = movie.getTitle();
+            years[size] = parseYear(movie.getYear());
+            runtimes[size] = parseRuntime(movie.getRuntime());
+            rated.add(size, movie.getRated());
+            released.add(size, movie.getReleased());
+            genres.add(size, movie.getGenre());
+            directors.add(size, movie.getDirector());
+            writers.add(size, movie.getWriter());
+            actors.add(size, movie.getActors());
+            size++;
+            return this;
+        }
+
+        /**
+         * Appends a row of other columns without materializing it as a {@link Movie}.
+         *
+         * @param columns The columns to copy from.
+         * @param row The row to copy.
+         * @return This builder.
+         */
+        public Builder add(MovieColumns columns, int row) {
+            ensureCapacity();
+            titles[size] = columns.titles[row];
+            years[size] = columns.years[row];
+            runtimes[size] = columns.runtimes[row];
+            rated.add(size, columns.rated(row));
+            released.add(size, columns.released(row));
+            genres.add(size, columns.genre(row));
+            directors.add(size, columns.director(row));
+            writers.add(size, columns.writer(row));
+            actors.add(size, columns.actors(row));
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public MovieColumns build() {
+            return new MovieColumns(size, Arrays.copyOf(titles, size), Arrays.copyOf(years, size),
+                    Arrays.copyOf(runtimes, size), rated.build(size), released.build(size), genres.build(size),
+                    directors.build(size), writers.build(size), actors.build(size));
+        }
+
+        private void ensureCapacity() {
+            if (size == titles.length) {
+                int capacity = size << 1;
+                titles = Arrays.copyOf(titles, capacity);
+                years = Arrays.copyOf(years, capacity);
+                runtimes = Arrays.copyOf(runtimes, capacity);
+            }
+        }
+    }
+
+    private static final class ColumnBuilder {
+        private final StringDictionary.Builder dictionary = new StringDictionary.Builder();
+        private int[] ids = new int[64];
+
+        private void add(int row, String value) {
+            if (row == ids.length) {
+                ids = Arrays.copyOf(ids, row << 1);
+            }
+            ids[row] = dictionary.idOf(value);
+        }
+
+        private DictionaryColumn build(int size) {
+            return new DictionaryColumn(Arrays.copyOf(ids, size), dictionary.build());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.model.MovieFilter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Secondary indexes over the movie columns of a snapshot: inverted indexes from genre, actor and writer
+ * tokens to the rows that mention them, and the rows sorted by year. A filter is answered by
+ * intersecting the row sets of its criteria, smallest first, instead of scanning every movie.
+ */
+public final class MovieIndexes {
+
+    private final MovieColumns movies;
+    private final Map<String, RowSet> genres;
+    private final Map<String, RowSet> actors;
+    private final Map<String, RowSet> writers;
+    private final int[] sortedYears;
+    private final int[] rowsByYear;
+
+    private MovieIndexes(MovieColumns movies, Map<String, RowSet> genres, Map<String, RowSet> actors,
+                         Map<String, RowSet> writers, int[] sortedYears, int[] rowsByYear) {
+        this.movies = movies;
+        this.genres = genres;
+        this.actors = actors;
+        this.writers = writers;
+        this.sortedYears = sortedYears;
+        this.rowsByYear = rowsByYear;
+    }
+
+    /**
+     * @param movies The columns to index.
+     * @return The indexes of the columns.
+     */
+    public static MovieIndexes of(MovieColumns movies) {
+        // (year, row) pairs packed into longs sort by year and then row without boxing
+        long[] dated = new long[movies.size()];
+        int count = 0;
+        for (int row = 0; row < movies.size(); row++) {
+            if (movies.year(row) != MovieColumns.UNKNOWN) {
+                dated[count++] = ((long) movies.year(row) << 32) | row;
+            }
+        }
+        Arrays.sort(dated, 0, count);
+        int[] sortedYears = new int[count];
+        int[] rowsByYear = new int[count];
+        for (int i = 0; i < count; i++) {
+            sortedYears[i] = (int) (dated[i] >> 32);
+            rowsByYear[i] = (int) dated[i];
+        }
+        return new MovieIndexes(movies, invert(movies, movies::genre), invert(movies, movies::actors),
+                invert(movies, movies::writer), sortedYears, rowsByYear);
+    }
+
+    /**
+     * @param filter The criteria to match.
+     * @return The rows matching every criterion, or null when the filter is empty and every row matches.
+     */
+    public RowSet select(MovieFilter filter) {
+        if (filter.isEmpty()) {
+            return null;
+        }
+        List<RowSet> sets = new ArrayList<>(4);
+        if (filter.getGenre() != null) {
+            sets.add(genres.getOrDefault(token(filter.getGenre()), RowSet.empty()));
+        }
+        if (filter.getActor() != null) {
+            sets.add(actors.getOrDefault(token(filter.getActor()), RowSet.empty()));
+        }
+        if (filter.getWriter() != null) {
+            sets.add(writers.getOrDefault(token(filter.getWriter()), RowSet.empty()));
+        }
+        if (filter.getYearFrom() != null || filter.getYearTo() != null) {
+            sets.add(years(filter.getYearFrom() == null ? Integer.MIN_VALUE : filter.getYearFrom(),
+                    filter.getYearTo() == null ? Integer.MAX_VALUE : filter.getYearTo()));
+        }
+        sets.sort(Comparator.comparingInt(RowSet::cardinality));
+        RowSet result = sets.get(0);
+        for (int i = 1; i < sets.size() && result.cardinality() > 0; i++) {
+            result = result.and(sets.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the directors with strictly more matching movies than the threshold, counting only the
+     * movies selected by the filter, and every director a movie credits.
+     *
+     * @param threshold The number of matching movies a director must exceed.
+     * @param filter The criteria the counted movies must match.
+     * @return An alphabetically sorted, unmodifiable list of director names.
+     */
+    public List<String> directorsAbove(int threshold, MovieFilter filter) {
+        int[] counts = new int[movies.directorCount()];
+        RowSet rows = select(filter);
+        if (rows == null) {
+            for (int row = 0; row < movies.size(); row++) {
+                count(counts, row);
+            }
+        } else {
+            rows.forEach(row -> count(counts, row));
+        }
+
+        DirectorCredits credits = movies.directorCredits();
+        int[] credited = credits.fold(counts);
+        List<String> directors = new ArrayList<>();
+        for (int creditId = 0; creditId < credited.length; creditId++) {
+            if (credited[creditId] > threshold) {
+                directors.add(credits.name(creditId));
+            }
+        }
+        Collections.sort(directors);
+        return Collections.unmodifiableList(directors);
+    }
+
+    /**
+     * @param from The first year, inclusive.
+     * @param to The last year, inclusive.
+     * @return The rows of the movies released in the range; movies with an unknown year never match.
+     */
+    public RowSet years(int from, int to) {
+        if (from > to) {
+            return RowSet.empty();
+        }
+        int start = lowerBound(from);
+        int end = to == Integer.MAX_VALUE ? sortedYears.length : lowerBound(to + 1);
+        int[] rows = Arrays.copyOfRange(rowsByYear, start, end);
+        Arrays.sort(rows);
+        return RowSet.of(rows, rows.length);
+    }
+
+    private void count(int[] counts, int row) {
+        int id = movies.directorId(row);
+        if (id != StringDictionary.NULL_ID) {
+            counts[id]++;
+        }
+    }
+
+    private int lowerBound(int year) {
+        int low = 0;
+        int high = sortedYears.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedYears[mid] < year) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Splits every value of a comma-separated column into tokens and collects the rows of each token,
+     * in ascending row order.
+     */
+    private static Map<String, RowSet> invert(MovieColumns movies, IntFunction<String> column) {
+        Map<String, RowList> rows = new HashMap<>();
+        for (int row = 0; row < movies.size(); row++) {
+            String value = column.apply(row);
+            if (value == null) {
+                continue;
+            }
+            for (String part : value.split(",")) {
+                String token = token(part);
+                if (!token.isEmpty()) {
+                    rows.computeIfAbsent(token, key -> new RowList()).add(row);
+                }
+            }
+        }
+        Map<String, RowSet> index = new HashMap<>(rows.size() * 2);
+        rows.forEach((token, tokenRows) -> index.put(token, RowSet.of(tokenRows.rows, tokenRows.size)));
+        return index;
+    }
+
+    private static String token(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class RowList {
+        private int[] rows = new int[4];
+        private int size;
+
+        /**
+         * Appends a row, ignoring a token repeated within one value.
+         */
+        private void add(int row) {
+            if (size > 0 && rows[size - 1] == row) {
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size << 1);
+            }
+            rows[size++] = row;
+        }
+    }
+}
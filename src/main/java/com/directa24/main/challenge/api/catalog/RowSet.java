@@ -0,0 +1,225 @@
+package com.directa24.main.challenge.api.catalog;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable compressed set of row ids in the layout of a roaring bitmap: rows are grouped into chunks
+ * of 65536 by their high 16 bits, and each chunk keeps its low 16 bits either as a sorted array (up to
+ * 4096 rows, 2 bytes per row) or as a 65536-bit bitmap (8 KiB, for denser chunks). Intersections work
+ * chunk by chunk on the cheapest pair of representations.
+ */
+public final class RowSet {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final RowSet EMPTY = new RowSet(new char[0], new Object[0], 0);
+
+    private final char[] keys;
+    private final Object[] containers; // char[] sorted low bits, or long[BITMAP_WORDS]
+    private final int cardinality;
+
+    private RowSet(char[] keys, Object[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    public static RowSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param rows Row ids in ascending order, without duplicates.
+     * @param count The number of leading entries of {@code rows} to use.
+     * @return The set of the given rows.
+     */
+    public static RowSet of(int[] rows, int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        char[] keys = new char[(rows[count - 1] >>> 16) - (rows[0] >>> 16) + 1];
+        Object[] containers = new Object[keys.length];
+        int chunks = 0;
+        int start = 0;
+        while (start < count) {
+            int key = rows[start] >>> 16;
+            int end = start;
+            while (end < count && rows[end] >>> 16 == key) {
+                end++;
+            }
+            keys[chunks] = (char) key;
+            containers[chunks++] = container(rows, start, end);
+            start = end;
+        }
+        return new RowSet(Arrays.copyOf(keys, chunks), Arrays.copyOf(containers, chunks), count);
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean contains(int row) {
+        int chunk = row < 0 ? -1 : Arrays.binarySearch(keys, (char) (row >>> 16));
+        if (chunk < 0) {
+            return false;
+        }
+        char low = (char) row;
+        Object container = containers[chunk];
+        return container instanceof char[]
+                ? Arrays.binarySearch((char[]) container, low) >= 0
+                : (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    /**
+     * Visits the rows in ascending order.
+     *
+     * @param consumer Receives each row id.
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int chunk = 0; chunk < keys.length; chunk++) {
+            int high = keys[chunk] << 16;
+            Object container = containers[chunk];
+            if (container instanceof char[]) {
+                for (char low : (char[]) container) {
+                    consumer.accept(high | low);
+                }
+            } else {
+                long[] words = (long[]) container;
+                for (int word = 0; word < words.length; word++) {
+                    long bits = words[word];
+                    while (bits != 0) {
+                        consumer.accept(high | (word << 6) | Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param other The set to intersect with.
+     * @return The rows in both sets.
+     */
+    public RowSet and(RowSet other) {
+        char[] resultKeys = new char[Math.min(keys.length, other.keys.length)];
+        Object[] resultContainers = new Object[resultKeys.length];
+        int chunks = 0;
+        int resultCardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Object container = and(containers[i++], other.containers[j++]);
+                int size = size(container);
+                if (size > 0) {
+                    resultKeys[chunks] = keys[i - 1];
+                    resultContainers[chunks++] = container;
+                    resultCardinality += size;
+                }
+            }
+        }
+        return resultCardinality == 0 ? EMPTY
+                : new RowSet(Arrays.copyOf(resultKeys, chunks), Arrays.copyOf(resultContainers, chunks),
+                resultCardinality);
+    }
+
+    private static Object container(int[] rows, int start, int end) {
+        if (end - start <= ARRAY_MAX) {
+            char[] lows = new char[end - start];
+            for (int i = start; i < end; i++) {
+                lows[i - start] = (char) rows[i];
+            }
+            return lows;
+        }
+        long[] words = new long[BITMAP_WORDS];
+        for (int i = start; i < end; i++) {
+            char low = (char) rows[i];
+            words[low >>> 6] |= 1L << low;
+        }
+        return words;
+    }
+
+    private static Object and(Object left, Object right) {
+        if (left instanceof char[] && right instanceof char[]) {
+            return and((char[]) left, (char[]) right);
+        }
+        if (left instanceof char[]) {
+            return and((char[]) left, (long[]) right);
+        }
+        if (right instanceof char[]) {
+            return and((char[]) right, (long[]) left);
+        }
+        return and((long[]) left, (long[]) right);
+    }
+
+    private static char[] and(char[] left, char[] right) {
+        char[] result = new char[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static char[] and(char[] array, long[] bitmap) {
+        char[] result = new char[array.length];
+        int size = 0;
+        for (char low : array) {
+            if ((bitmap[low >>> 6] & (1L << low)) != 0) {
+                result[size++] = low;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Intersects two bitmaps, falling back to an array when the result is sparse.
+     */
+    private static Object and(long[] left, long[] right) {
+        long[] words = new long[BITMAP_WORDS];
+        int size = 0;
+        for (int word = 0; word < BITMAP_WORDS; word++) {
+            words[word] = left[word] & right[word];
+            size += Long.bitCount(words[word]);
+        }
+        if (size > ARRAY_MAX) {
+            return words;
+        }
+        char[] lows = new char[size];
+        int next = 0;
+        for (int word = 0; word < BITMAP_WORDS; word++) {
+            long bits = words[word];
+            while (bits != 0) {
+                lows[next++] = (char) ((word << 6) | Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return lows;
+    }
+
+    private static int size(Object container) {
+        if (container instanceof char[]) {
+            return ((char[]) container).length;
+        }
+        int size = 0;
+        for (long word : (long[]) container) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,165 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.cache.RemoteCacheStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Catalog snapshots shared by all replicas through the remote cache tier. One replica at a time
+ * holds the refresh lease and crawls upstream; it publishes the snapshot under a globally
+ * increasing version and announces it, and the other replicas adopt it instead of crawling. An
+ * invalidation is announced the same way, so every replica drops the snapshots it invalidates.
+ * <p>
+ * The remote tier is an optimization: when it is unreachable every operation degrades to the
+ * single-instance behaviour (no shared snapshot, lease granted, local version) and the error is logged.
+ */
+@Component
+@Slf4j
+public class SharedCatalog {
+
+    static final String SNAPSHOT_KEY = "directa24:catalog:snapshot";
+    static final String VERSION_KEY = "directa24:catalog:version";
+    static final String LEASE_KEY = "directa24:catalog:refresh-lease";
+    static final String PUBLISHED_CHANNEL = "directa24:catalog:published";
+    static final String INVALIDATED_CHANNEL = "directa24:catalog:invalidated";
+
+    private final Duration snapshotTtl;
+    private final Duration leaseTtl;
+    private final Duration waitTimeout;
+    private final RemoteCacheStore remoteCacheStore;
+    private final byte[] instanceId = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+
+    public SharedCatalog(@Value("${catalog.shared.ttl:${catalog.refresh.max-staleness:30m}}") Duration snapshotTtl,
+                         @Value("${catalog.shared.lease:2m}") Duration leaseTtl,
+                         @Value("${catalog.shared.wait-timeout:30s}") Duration waitTimeout,
+                         RemoteCacheStore remoteCacheStore) {
+        this.snapshotTtl = snapshotTtl;
+        this.leaseTtl = leaseTtl;
+        this.waitTimeout = waitTimeout;
+        this.remoteCacheStore = remoteCacheStore;
+    }
+
+    /**
+     * @return A Mono emitting the last published snapshot, or empty if there is none.
+     */
+    public Mono<CatalogSnapshot> latest() {
+        return remoteCacheStore.get(SNAPSHOT_KEY)
+                .map(bytes -> CatalogSnapshotCodec.decode(ByteBuffer.wrap(bytes)))
+                .onErrorResume(e -> {
+                    log.warn("Unable to read the shared catalog snapshot: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Takes the refresh lease, which expires on its own if the holder dies mid-crawl.
+     *
+     * @return A Mono emitting true if this instance should crawl upstream.
+     */
+    public Mono<Boolean> tryAcquireRefreshLease() {
+        return remoteCacheStore.setIfAbsent(LEASE_KEY, instanceId, leaseTtl)
+                .onErrorResume(e -> {
+                    log.warn("Unable to take the catalog refresh lease, refreshing locally: {}", e.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    /**
+     * @return A Mono completing once the lease held by this instance, if any, is released.
+     */
+    public Mono<Void> releaseRefreshLease() {
+        return remoteCacheStore.deleteIfEquals(LEASE_KEY, instanceId)
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Unable to release the catalog refresh lease: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * @param floor The lowest acceptable version, above every version this instance has seen.
+     * @return A Mono emitting the version for a newly crawled snapshot.
+     */
+    public Mono<Long> nextVersion(long floor) {
+        return remoteCacheStore.increment(VERSION_KEY)
+                .map(version -> Math.max(version, floor))
+                .onErrorResume(e -> {
+                    log.warn("Unable to allocate a shared catalog version: {}", e.getMessage());
+                    return Mono.just(floor);
+                });
+    }
+
+    /**
+     * Stores the snapshot for the other replicas and announces its version.
+     *
+     * @param snapshot The snapshot to publish.
+     * @return A Mono completing once the snapshot is published.
+     */
+    public Mono<Void> publish(CatalogSnapshot snapshot) {
+        return remoteCacheStore.set(SNAPSHOT_KEY, CatalogSnapshotCodec.encode(snapshot), snapshotTtl)
+                .then(remoteCacheStore.publish(PUBLISHED_CHANNEL, encodeVersion(snapshot.getVersion())))
+                .onErrorResume(e -> {
+                    log.warn("Unable to publish catalog snapshot {}: {}", snapshot.getVersion(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Removes the shared snapshot and announces the invalidation under a newly allocated version:
+     * every snapshot published before has a lower version, and every snapshot crawled after a
+     * higher one, so replicas can tell the snapshots it invalidates whatever order they hear of them in.
+     *
+     * @return A Mono completing once the snapshot is removed and the invalidation announced.
+     */
+    public Mono<Void> invalidate() {
+        return remoteCacheStore.delete(SNAPSHOT_KEY)
+                .then(remoteCacheStore.increment(VERSION_KEY))
+                .flatMap(version -> remoteCacheStore.publish(INVALIDATED_CHANNEL, encodeVersion(version)))
+                .onErrorResume(e -> {
+                    log.warn("Unable to invalidate the shared catalog snapshot: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * @return A Flux of the versions published by any instance, resubscribing after connection failures.
+     */
+    public Flux<Long> published() {
+        return versions(PUBLISHED_CHANNEL, "publication");
+    }
+
+    /**
+     * @return A Flux of the versions of the invalidations announced by any instance, this one included;
+     * every snapshot with a lower version is invalidated. Resubscribes after connection failures.
+     */
+    public Flux<Long> invalidated() {
+        return versions(INVALIDATED_CHANNEL, "invalidation");
+    }
+
+    private Flux<Long> versions(String channel, String kind) {
+        return remoteCacheStore.subscribe(channel)
+                .map(message -> ByteBuffer.wrap(message).getLong())
+                .doOnError(e -> log.warn("Catalog {} channel failed, resubscribing: {}", kind, e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)));
+    }
+
+    private static byte[] encodeVersion(long version) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(version).array();
+    }
+
+    /**
+     * @return How long a cold instance waits for the lease holder's snapshot before crawling itself.
+     */
+    public Duration getWaitTimeout() {
+        return waitTimeout;
+    }
+}
@@ -0,0 +1,64 @@
+package com.directa24.main.challenge.api.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Immutable table of the distinct values of a column, addressed by dense int ids. Each distinct
+ * value is held once however many rows refer to it.
+ */
+final class StringDictionary {
+
+    static final int NULL_ID = -1;
+
+    private final String[] values;
+
+    StringDictionary(String[] values) {
+        this.values = values;
+    }
+
+    /**
+     * @param id A value id, or {@link #NULL_ID}.
+     * @return The value of the id, or null for {@link #NULL_ID}.
+     */
+    String get(int id) {
+        return id == NULL_ID ? null : values[id];
+    }
+
+    int size() {
+        return values.length;
+    }
+
+    /**
+     * Assigns ids in first-seen order, interning equal values into one instance.
+     */
+    static final class Builder {
+
+        private final StringIntHashMap ids = new StringIntHashMap(); // value -> id + 1, 0 when absent
+        private String[] values = new String[16];
+        private int size;
+
+        /**
+         * @param value A column value, possibly null.
+         * @return The id of the value, or {@link #NULL_ID} for null.
+         */
+        int idOf(String value) {
+            if (value == null) {
+                return NULL_ID;
+            }
+            int id = ids.get(value) - 1;
+            if (id != NULL_ID) {
+                return id;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size] = value;
+            ids.add(value, size + 1);
+            return size++;
+        }
+
+        StringDictionary build() {
+            return new StringDictionary(Arrays.copyOf(values, size));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.directa24.main.challenge.api.catalog;
+
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Open-addressing (linear probing) map from String keys to primitive int values.
+ * Used to count movies per director without boxing a counter for every increment.
+ * Not thread-safe: each aggregation owns its own instance.
+ */
+public final class StringIntHashMap {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private String[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+
+    public StringIntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public StringIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Adds one to the value of the given key, inserting it with 1 when absent.
+     *
+     * @param key The key to count.
+     * @return The value after the increment.
+     */
+    public int increment(String key) {
+        return add(key, 1);
+    }
+
+    /**
+     * Adds the given delta to the value of the key, inserting it when absent.
+     *
+     * @param key   The key to update.
+     * @param delta The amount to add.
+     * @return The value after the update.
+     */
+    public int add(String key, int delta) {
+        int slot = slotOf(Objects.requireNonNull(key, "key"));
+        if (keys[slot] == null) {
+            keys[slot] = key;
+            values[slot] = delta;
+            if (++size > resizeAt) {
+                rehash(keys.length << 1);
+            }
+            return delta;
+        }
+        return values[slot] += delta;
+    }
+
+    /**
+     * @param key The key to look up.
+     * @return The value of the key, or 0 when absent.
+     */
+    public int get(String key) {
+        int slot = slotOf(Objects.requireNonNull(key, "key"));
+        return keys[slot] == null ? 0 : values[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(ObjIntConsumer<String> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int slotOf(String key) {
+        int mask = keys.length - 1;
+        int slot = mix(key.hashCode()) & mask;
+        while (keys[slot] != null && !keys[slot].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        values = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Murmur3 finalizer, spreads String hash codes that differ only in their high bits.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,135 @@
+package com.directa24.main.challenge.api.concurrency;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * AIMD (additive increase, multiplicative decrease) concurrency limiter, modelled after
+ * Netflix concurrency-limits. Calls beyond the current limit wait for a permit; the limit
+ * grows by one after a fast success while the limiter is busy, and is cut by the backoff
+ * ratio whenever a call fails or takes longer than the latency threshold.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      Duration latencyThreshold, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Runs the call once a permit is available and feeds its latency and outcome back into the limit.
+     * A cancelled call releases its permit without changing the limit.
+     *
+     * @param call Supplies the publisher to run under the limit.
+     * @return Flux<T> The signals of the call.
+     */
+    public <T> Flux<T> run(Supplier<? extends Publisher<T>> call) {
+        return Flux.usingWhen(acquire(),
+                permit -> call.get(),
+                permit -> Mono.fromRunnable(() -> release(permit, Outcome.SUCCESS)),
+                (permit, error) -> Mono.fromRunnable(() -> release(permit, Outcome.DROPPED)),
+                permit -> Mono.fromRunnable(() -> release(permit, Outcome.IGNORED)));
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.<Permit>create(sink -> {
+                    Waiter waiter = new Waiter(sink);
+                    sink.onCancel(() -> waiter.cancelled.set(true));
+                    synchronized (this) {
+                        waiters.add(waiter);
+                    }
+                    grantAvailablePermits();
+                })
+                // A permit granted to a subscriber that cancelled in the meantime is given back
+                .doOnDiscard(Permit.class, permit -> release(permit, Outcome.IGNORED));
+    }
+
+    private void release(Permit permit, Outcome outcome) {
+        if (!permit.released.compareAndSet(false, true)) {
+            return;
+        }
+        long latency = System.nanoTime() - permit.startNanos;
+        synchronized (this) {
+            inFlight--;
+            if (outcome == Outcome.DROPPED || (outcome == Outcome.SUCCESS && latency > latencyThresholdNanos)) {
+                limit = Math.max(minLimit, Math.floor(limit * backoffRatio));
+            } else if (outcome == Outcome.SUCCESS && (inFlight + 1) * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+        grantAvailablePermits();
+    }
+
+    private void grantAvailablePermits() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                Waiter waiter = waiters.poll();
+                if (!waiter.cancelled.get()) {
+                    inFlight++;
+                    granted.add(waiter);
+                }
+            }
+        }
+        granted.forEach(waiter -> waiter.sink.success(new Permit()));
+    }
+
+    private enum Outcome {
+        SUCCESS, DROPPED, IGNORED
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private static final class Permit {
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+    }
+}
@@ -0,0 +1,171 @@
+package com.directa24.main.challenge.api.concurrency;
+
+import com.directa24.main.challenge.api.exception.CircuitBreakerOpenException;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failed calls in a row the breaker
+ * opens and rejects calls with {@link CircuitBreakerOpenException} for the open duration; it then lets a
+ * single trial call through (half-open), which closes it on success or opens it again on failure. Calls
+ * made while the trial is in flight are rejected with {@link CircuitBreakerOpenException#halfOpen}, so
+ * callers that fan out should wait for the trial, see {@link #getState}. Only the trial's outcome moves
+ * the breaker out of half-open: a call admitted before the breaker opened that finishes later counts
+ * as a failure or success while the breaker is closed, and is ignored otherwise.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Predicate<Throwable> isFailure;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private boolean trialInFlight;
+
+    /**
+     * @param name The name reported in logs and rejections.
+     * @param failureThreshold The number of consecutive failures that opens the breaker.
+     * @param openDuration How long the breaker rejects calls before a trial call.
+     * @param isFailure Which errors count as failures; other errors neither open nor close the breaker.
+     * @param clock The clock the open duration is measured with.
+     */
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, Predicate<Throwable> isFailure,
+                          Clock clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.isFailure = isFailure;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs the call unless the breaker is open, and records its outcome. A cancelled call records nothing.
+     *
+     * @param call Supplies the publisher to run.
+     * @return Flux<T> The signals of the call, or a {@link CircuitBreakerOpenException} while the breaker is open.
+     */
+    public <T> Flux<T> run(Supplier<? extends Publisher<T>> call) {
+        return Flux.defer(() -> {
+            Permit permit = tryAcquire();
+            if (permit.rejection != null) {
+                return Flux.error(permit.rejection);
+            }
+            boolean trial = permit.trial;
+            AtomicBoolean recorded = new AtomicBoolean();
+            return Flux.<T>from(call.get())
+                    .doOnComplete(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            onSuccess(trial);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            onError(trial, e);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            onCancel(trial);
+                        }
+                    });
+        });
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * @return Whether the call may proceed and is the half-open trial, or the rejection of the call.
+     */
+    private synchronized Permit tryAcquire() {
+        if (state == State.OPEN) {
+            Duration remaining = Duration.between(clock.instant(), openedAt.plus(openDuration));
+            if (!remaining.isNegative() && !remaining.isZero()) {
+                return new Permit(new CircuitBreakerOpenException(name, remaining), false);
+            }
+            state = State.HALF_OPEN;
+            log.info("Circuit breaker {} is half-open, letting a trial call through", name);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return new Permit(CircuitBreakerOpenException.halfOpen(name), false);
+            }
+            trialInFlight = true;
+            return Permit.TRIAL;
+        }
+        return Permit.CALL;
+    }
+
+    private synchronized void onSuccess(boolean trial) {
+        if (trial) {
+            state = State.CLOSED;
+            trialInFlight = false;
+            consecutiveFailures = 0;
+            log.info("Circuit breaker {} closed after a successful trial call", name);
+        } else if (state == State.CLOSED) {
+            consecutiveFailures = 0;
+        }
+    }
+
+    private synchronized void onError(boolean trial, Throwable error) {
+        if (!isFailure.test(error)) {
+            onCancel(trial);
+            return;
+        }
+        if (trial) {
+            trialInFlight = false;
+            open("the trial call failed");
+        } else if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+            open(consecutiveFailures + " consecutive calls failed");
+        }
+    }
+
+    private synchronized void onCancel(boolean trial) {
+        if (trial) {
+            trialInFlight = false;
+        }
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openedAt = clock.instant();
+        log.warn("Circuit breaker {} opened for {}: {}", name, openDuration, reason);
+    }
+
+    private static final class Permit {
+        private static final Permit CALL = new Permit(null, false);
+        private static final Permit TRIAL = new Permit(null, true);
+
+        private final CircuitBreakerOpenException rejection;
+        private final boolean trial;
+
+        private Permit(CircuitBreakerOpenException rejection, boolean trial) {
+            this.rejection = rejection;
+            this.trial = trial;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.directa24.main.challenge.api.concurrency;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Decides when a straggling call gets a hedged duplicate: once it has been in flight longer than the
+ * given percentile of the recent successful call latencies (and at least the minimum delay). Latencies
+ * are kept in a sliding window; until the window holds enough samples, calls are not hedged.
+ */
+public class HedgePolicy {
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int minSamples;
+    private final long[] window;
+
+    private int next;
+    private int samples;
+    private long delayNanos = -1; // Cached percentile, -1 when it must be recomputed
+
+    /**
+     * @param enabled Whether calls are hedged at all.
+     * @param percentile The latency percentile past which a call is hedged, between 0 and 1.
+     * @param minDelay The minimum time a call is in flight before it is hedged.
+     * @param minSamples The number of latencies needed before the percentile is trusted.
+     * @param windowSize The number of recent latencies the percentile is computed over.
+     */
+    public HedgePolicy(boolean enabled, double percentile, Duration minDelay, int minSamples, int windowSize) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("Hedge percentile must be in (0, 1]");
+        }
+        if (minSamples < 1 || windowSize < minSamples) {
+            throw new IllegalArgumentException("Hedge samples must satisfy 1 <= min-samples <= window");
+        }
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.minSamples = minSamples;
+        this.window = new long[windowSize];
+    }
+
+    /**
+     * @param latencyNanos The latency of a successful call.
+     */
+    public synchronized void record(long latencyNanos) {
+        window[next] = latencyNanos;
+        next = (next + 1) % window.length;
+        samples = Math.min(samples + 1, window.length);
+        delayNanos = -1;
+    }
+
+    /**
+     * @return How long to wait before hedging a call, or empty if calls are not hedged yet.
+     */
+    public synchronized Optional<Duration> delay() {
+        if (!enabled || samples < minSamples) {
+            return Optional.empty();
+        }
+        if (delayNanos < 0) {
+            long[] sorted = Arrays.copyOf(window, samples);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile * samples) - 1;
+            delayNanos = Math.max(minDelayNanos, sorted[Math.max(0, rank)]);
+        }
+        return Optional.of(Duration.ofNanos(delayNanos));
+    }
+}
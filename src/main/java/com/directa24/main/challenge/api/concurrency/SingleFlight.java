@@ -0,0 +1,79 @@
+package com.directa24.main.challenge.api.concurrency;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Reactive single-flight: while a computation for a key is in flight, every other
+ * subscriber for the same key joins it instead of starting its own execution.
+ * The shared Mono is forgotten as soon as it terminates, so the next call executes again.
+ *
+ * @param <K> The key identifying a computation.
+ * @param <V> The type of the computed value.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Executes the call for the given key, or joins the execution already in flight.
+     *
+     * @param key  The key identifying the computation.
+     * @param call Supplies the computation; only invoked when no execution is in flight.
+     * @return A Mono emitting the shared result of the computation.
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            AtomicBoolean leader = new AtomicBoolean();
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                leader.set(true);
+                return share(k, call);
+            });
+
+            if (leader.get()) {
+                executions.increment();
+            } else {
+                coalesced.increment();
+            }
+            return shared;
+        });
+    }
+
+    private Mono<V> share(K key, Supplier<Mono<V>> call) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> shared = Mono.defer(call)
+                .doOnTerminate(() -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+
+    /**
+     * @return The number of computations that were actually executed.
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * @return The number of calls that joined a computation already in flight.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return The number of computations currently in flight.
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
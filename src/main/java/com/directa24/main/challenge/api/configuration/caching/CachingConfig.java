@@ -19,12 +19,13 @@ public class CachingConfig {
     public Caffeine<Object, Object> caffeineConfig() {
         return Caffeine.newBuilder()
                 .expireAfterWrite(Duration.ofMinutes(cacheExpiryMinutes))
-                .maximumSize(1000);
+                .maximumSize(1000)
+                .recordStats(); // Hit, miss, eviction and load stats are bound to Micrometer by the actuator
     }
 
     @Bean
     public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("directorsCache");
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("directorsCache", "directorsResponseCache");
         cacheManager.setCaffeine(caffeine);
         return cacheManager;
     }
@@ -0,0 +1,29 @@
+package com.directa24.main.challenge.api.configuration.caching;
+
+import com.directa24.main.challenge.api.cache.InMemoryRemoteCacheStore;
+import com.directa24.main.challenge.api.cache.RedisRemoteCacheStore;
+import com.directa24.main.challenge.api.cache.RemoteCacheStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the shared (L2) cache tier with cache.remote.type: "in-memory" (default) keeps it
+ * inside this instance, "redis" shares it with every replica pointing at the same Redis.
+ */
+@Configuration
+public class RemoteCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.remote.type", havingValue = "in-memory", matchIfMissing = true)
+    public RemoteCacheStore inMemoryRemoteCacheStore() {
+        return new InMemoryRemoteCacheStore();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "cache.remote.type", havingValue = "redis")
+    public RemoteCacheStore redisRemoteCacheStore(@Value("${cache.remote.redis.uri:redis://localhost:6379}") String uri) {
+        return new RedisRemoteCacheStore(uri);
+    }
+}
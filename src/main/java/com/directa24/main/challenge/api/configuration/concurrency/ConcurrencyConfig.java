@@ -0,0 +1,39 @@
+package com.directa24.main.challenge.api.configuration.concurrency;
+
+import com.directa24.main.challenge.api.concurrency.AdaptiveConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration latencyThreshold;
+    private final double backoffRatio;
+
+    public ConcurrencyConfig(@Value("${api.concurrency.limit}") int initialLimit,
+                             @Value("${api.concurrency.min-limit:1}") int minLimit,
+                             @Value("${api.concurrency.max-limit:${api.concurrency.limit}}") int maxLimit,
+                             @Value("${api.concurrency.latency-threshold:2s}") Duration latencyThreshold,
+                             @Value("${api.concurrency.backoff-ratio:0.9}") double backoffRatio) {
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThreshold = latencyThreshold;
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Limits concurrent upstream page fetches. It starts at api.concurrency.limit and adapts between
+     * the min and max limits; setting all three to the same value gives a fixed limit.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter pageFetchLimiter() {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio);
+    }
+}
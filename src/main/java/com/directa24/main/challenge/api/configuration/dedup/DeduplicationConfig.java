@@ -0,0 +1,23 @@
+package com.directa24.main.challenge.api.configuration.dedup;
+
+import com.directa24.main.challenge.api.dedup.MovieDeduplicator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DeduplicationConfig {
+
+    /**
+     * Drops movies seen twice in one crawl, as when upstream pagination shifts mid-crawl.
+     * api.dedup.mode "exact" (default) counts every distinct movie once. "bloom" holds the seen
+     * movies in a Bloom filter sized by api.dedup.bloom.*, for catalogs too large for an exact set.
+     */
+    @Bean
+    public MovieDeduplicator movieDeduplicator(
+            @Value("${api.dedup.mode:exact}") MovieDeduplicator.Mode mode,
+            @Value("${api.dedup.bloom.expected-movies:10000000}") long expectedMovies,
+            @Value("${api.dedup.bloom.false-positive-rate:0.001}") double falsePositiveRate) {
+        return new MovieDeduplicator(mode, expectedMovies, falsePositiveRate);
+    }
+}
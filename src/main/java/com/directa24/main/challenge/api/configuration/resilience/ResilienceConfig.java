@@ -0,0 +1,58 @@
+package com.directa24.main.challenge.api.configuration.resilience;
+
+import com.directa24.main.challenge.api.concurrency.CircuitBreaker;
+import com.directa24.main.challenge.api.concurrency.HedgePolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class ResilienceConfig {
+
+    /**
+     * Retries a failed upstream page fetch with exponential backoff and jitter. The repository decides
+     * which errors are worth retrying; setting max-attempts to 0 disables retries.
+     */
+    @Bean
+    public RetryBackoffSpec pageFetchRetry(@Value("${api.resilience.retry.max-attempts:2}") long maxAttempts,
+                                           @Value("${api.resilience.retry.min-backoff:200ms}") Duration minBackoff,
+                                           @Value("${api.resilience.retry.max-backoff:2s}") Duration maxBackoff,
+                                           @Value("${api.resilience.retry.jitter:0.5}") double jitter) {
+        return Retry.backoff(maxAttempts, minBackoff)
+                .maxBackoff(maxBackoff)
+                .jitter(jitter);
+    }
+
+    /**
+     * Hedges an upstream page fetch that is slower than the given percentile of recent page fetches.
+     */
+    @Bean
+    public HedgePolicy pageFetchHedging(@Value("${api.resilience.hedge.enabled:true}") boolean enabled,
+                                        @Value("${api.resilience.hedge.percentile:0.95}") double percentile,
+                                        @Value("${api.resilience.hedge.min-delay:200ms}") Duration minDelay,
+                                        @Value("${api.resilience.hedge.min-samples:20}") int minSamples,
+                                        @Value("${api.resilience.hedge.window:128}") int window) {
+        return new HedgePolicy(enabled, percentile, minDelay, minSamples, window);
+    }
+
+    /**
+     * Stops calling upstream after consecutive page fetch failures. Client errors other than
+     * 429 Too Many Requests say nothing about upstream health and are not counted.
+     */
+    @Bean
+    public CircuitBreaker pageFetchCircuitBreaker(
+            @Value("${api.resilience.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${api.resilience.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        return new CircuitBreaker("movies-upstream", failureThreshold, openDuration, error ->
+                !(error instanceof WebClientResponseException)
+                        || ((WebClientResponseException) error).getStatusCode().is5xxServerError()
+                        || ((WebClientResponseException) error).getRawStatusCode() == 429,
+                Clock.systemUTC());
+    }
+}
@@ -0,0 +1,56 @@
+package com.directa24.main.challenge.api.configuration.source;
+
+import com.directa24.main.challenge.api.dedup.MovieDeduplicator;
+import com.directa24.main.challenge.api.repository.MovieRepository;
+import com.directa24.main.challenge.api.repository.impl.CompositeMovieRepository;
+import com.directa24.main.challenge.api.repository.impl.FileMovieRepository;
+import com.directa24.main.challenge.api.repository.impl.MovieRepositoryImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Selects where the catalog is read from with api.source.type: "http" (default) pages over the movies
+ * API, "file" bulk loads the local files listed in api.source.file.paths, and "composite" merges both,
+ * dropping the movies found in more than one of them.
+ */
+@Configuration
+public class MovieSourceConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "api.source.type", havingValue = "file")
+    public MovieRepository fileMovieRepository(@Value("${api.source.file.paths}") List<String> paths,
+                                               @Value("${api.source.file.chunk-size:1000}") int chunkSize,
+                                               ObjectMapper objectMapper,
+                                               MeterRegistry meterRegistry) {
+        return new FileMovieRepository(toPaths(paths), objectMapper, chunkSize, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "api.source.type", havingValue = "composite")
+    public MovieRepository compositeMovieRepository(MovieRepositoryImpl httpMovieRepository,
+                                                    @Value("${api.source.file.paths}") List<String> paths,
+                                                    @Value("${api.source.file.chunk-size:1000}") int chunkSize,
+                                                    ObjectMapper objectMapper,
+                                                    MovieDeduplicator movieDeduplicator,
+                                                    MeterRegistry meterRegistry) {
+        return new CompositeMovieRepository(List.of(httpMovieRepository,
+                new FileMovieRepository(toPaths(paths), objectMapper, chunkSize, meterRegistry)),
+                movieDeduplicator, meterRegistry);
+    }
+
+    private static List<Path> toPaths(List<String> paths) {
+        return paths.stream().map(String::trim).map(Paths::get).collect(Collectors.toList());
+    }
+}
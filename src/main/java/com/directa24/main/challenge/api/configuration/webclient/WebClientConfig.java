@@ -1,24 +1,96 @@
 package com.directa24.main.challenge.api.configuration.webclient;
 
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebClientConfig {
 
     private final String BASE_URL_API_ERON_MOVIES;
+    private final int maxConnections;
+    private final int pendingAcquireMaxCount;
+    private final Duration pendingAcquireTimeout;
+    private final Duration maxIdleTime;
+    private final Duration maxLifeTime;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Duration responseTimeout;
+    private final boolean compression;
+    private final boolean http2;
 
-    public WebClientConfig(@Value("${movie.endpoint.url}") String baseUrl) {
+    public WebClientConfig(@Value("${movie.endpoint.url}") String baseUrl,
+                           @Value("${movie.client.pool.max-connections:${api.concurrency.max-limit:${api.concurrency.limit}}}") int maxConnections,
+                           @Value("${movie.client.pool.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+                           @Value("${movie.client.pool.pending-acquire-timeout:10s}") Duration pendingAcquireTimeout,
+                           @Value("${movie.client.pool.max-idle-time:30s}") Duration maxIdleTime,
+                           @Value("${movie.client.pool.max-life-time:5m}") Duration maxLifeTime,
+                           @Value("${movie.client.connect-timeout:5s}") Duration connectTimeout,
+                           @Value("${movie.client.read-timeout:10s}") Duration readTimeout,
+                           @Value("${movie.client.response-timeout:10s}") Duration responseTimeout,
+                           @Value("${movie.client.compression:true}") boolean compression,
+                           @Value("${movie.client.http2:false}") boolean http2) {
         this.BASE_URL_API_ERON_MOVIES = baseUrl;
+        this.maxConnections = maxConnections;
+        this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        this.pendingAcquireTimeout = pendingAcquireTimeout;
+        this.maxIdleTime = maxIdleTime;
+        this.maxLifeTime = maxLifeTime;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.responseTimeout = responseTimeout;
+        this.compression = compression;
+        this.http2 = http2;
+    }
+
+    /**
+     * Connection pool dedicated to the movies API. It is sized after the maximum page fetch concurrency,
+     * so a full catalog crawl reuses warm (already TLS-negotiated) connections instead of opening
+     * a new one per burst, and idle connections are evicted before the server closes them.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider movieConnectionProvider() {
+        return ConnectionProvider.builder("movie-api")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(true)
+                .build();
     }
 
     @Bean
-    public WebClient movieWebClient() {
+    public WebClient movieWebClient(ConnectionProvider movieConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(movieConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(connectTimeout.toMillis()))
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new ReadTimeoutHandler(readTimeout.toMillis(), TimeUnit.MILLISECONDS)))
+                .responseTimeout(responseTimeout)
+                .compress(compression) // Sends Accept-Encoding: gzip and inflates compressed pages
+                .keepAlive(true);
+
+        if (http2) {
+            // Multiplexes page fetches over a few connections when the API negotiates h2 via ALPN
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+
         return WebClient.builder()
-                .baseUrl(BASE_URL_API_ERON_MOVIES)
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024)) // Configurable size
-                .build();    }
+                .baseUrl(BASE_URL_API_ERON_MOVIES) // Pages are streamed as DataBuffers, no in-memory aggregation needed
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
 
 }
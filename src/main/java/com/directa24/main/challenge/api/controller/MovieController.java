@@ -1,48 +1,225 @@
 package com.directa24.main.challenge.api.controller;
 
+import com.directa24.main.challenge.api.cache.EncodedResponse;
+import com.directa24.main.challenge.api.cache.EncodedResponseCache;
+import com.directa24.main.challenge.api.dto.DirectorStreamEvent;
+import com.directa24.main.challenge.api.dto.DirectorsBatchResponse;
+import com.directa24.main.challenge.api.dto.TopDirectorsResponse;
+import com.directa24.main.challenge.api.model.CatalogResult;
+import com.directa24.main.challenge.api.model.CrawlSummary;
+import com.directa24.main.challenge.api.model.MovieFilter;
 import com.directa24.main.challenge.api.dto.DirectorsResponse;
 import com.directa24.main.challenge.api.service.MovieInfoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/movies")
 @Tag(name = "Movie Controller", description = "Endpoints related to Movies and Directors")
 @Slf4j
 public class MovieController {
 
+    static final int MAX_BATCH_THRESHOLDS = 50;
+    static final int MAX_TOP_DIRECTORS = 1000;
+    static final String PARTIAL_RESULT_HEADER = "X-Partial-Result";
+    static final String CRAWL_SUMMARY_HEADER = "X-Crawl-Summary";
+
     private final MovieInfoService movieInfoService;
+    private final EncodedResponseCache encodedResponseCache;
 
-    public MovieController(MovieInfoService movieInfoService) {
+    public MovieController(MovieInfoService movieInfoService, EncodedResponseCache encodedResponseCache) {
         this.movieInfoService = movieInfoService;
+        this.encodedResponseCache = encodedResponseCache;
     }
 
     @GetMapping("/directors")
-    @Operation(summary = "Fetch Directors", description = "Fetch directors with movies exceeding the given threshold")
-    public Mono<ResponseEntity<DirectorsResponse>> getDirectors(
+    @Operation(summary = "Fetch Directors", description = "Fetch directors with movies exceeding the given threshold, "
+            + "optionally counting only the movies of a genre, actor, writer or year range. The response carries an "
+            + "ETag and the Last-Modified time of the catalog, and may be cached until the catalog is due for a "
+            + "refresh; a request whose If-None-Match or If-Modified-Since matches is answered with 304 Not Modified")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = DirectorsResponse.class)))
+    public Mono<ResponseEntity<DataBuffer>> getDirectors(
             @Parameter(description = "Threshold for filtering directors by movie count")
-            @RequestParam int threshold) {
+            @RequestParam int threshold,
+            @Parameter(description = "Count only movies of this genre")
+            @RequestParam(required = false) String genre,
+            @Parameter(description = "Count only movies with this actor")
+            @RequestParam(required = false) String actor,
+            @Parameter(description = "Count only movies by this writer")
+            @RequestParam(required = false) String writer,
+            @Parameter(description = "Count only movies released in or after this year")
+            @RequestParam(required = false) Integer yearFrom,
+            @Parameter(description = "Count only movies released in or before this year")
+            @RequestParam(required = false) Integer yearTo) {
 
         if (threshold <= 0) {
             return Mono.error(new IllegalArgumentException("Threshold must be greater than zero"));
         }
+        if (yearFrom != null && yearTo != null && yearFrom > yearTo) {
+            return Mono.error(new IllegalArgumentException("yearFrom must not be after yearTo"));
+        }
 
+        MovieFilter filter = new MovieFilter(textOrNull(genre), textOrNull(actor), textOrNull(writer), yearFrom,
+                yearTo);
+        // A body already encoded for the current snapshot is answered without running the query
         return movieInfoService
-                .getDirectors(threshold)
-                .map(directors -> ResponseEntity.ok().body(new DirectorsResponse(directors)))
+                .getCatalogVersion()
+                .flatMap(catalog -> Mono.justOrEmpty(encodedResponseCache
+                        .getIfPresent(new SimpleKey(catalog.getVersion(), threshold, filter))
+                        .map(body -> encoded(catalog, body))))
+                .switchIfEmpty(Mono.defer(() -> (filter.isEmpty() ? movieInfoService.getDirectors(threshold)
+                        : movieInfoService.getDirectors(threshold, filter))
+                        .map(result -> {
+                            EncodedResponse body = encodedResponseCache.get(
+                                    new SimpleKey(result.getVersion(), threshold, filter), !result.isPartial(),
+                                    () -> new DirectorsResponse(result.getValue()));
+                            log.debug("Answering threshold {} with {} directors ({} bytes)", threshold,
+                                    result.getValue().size(), body.size());
+                            return encoded(result, body);
+                        })))
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
                 .doOnSubscribe(subscription ->
-                        log.info("Fetching directors with threshold: {}", threshold))
-                .doOnSuccess(response ->
-                        log.info("Response: {}", response.getBody()));
+                        log.info("Fetching directors with threshold: {} and filter: {}", threshold, filter));
+    }
+
+    @GetMapping("/directors/batch")
+    @Operation(summary = "Fetch Directors for several thresholds",
+            description = "Fetch directors with movies exceeding each of the given thresholds in a single response")
+    public Mono<ResponseEntity<DirectorsBatchResponse>> getDirectorsBatch(
+            @Parameter(description = "Thresholds for filtering directors by movie count, e.g. thresholds=1,2,5")
+            @RequestParam List<Integer> thresholds) {
+
+        if (thresholds.isEmpty() || thresholds.size() > MAX_BATCH_THRESHOLDS) {
+            return Mono.error(new IllegalArgumentException(
+                    "Between 1 and " + MAX_BATCH_THRESHOLDS + " thresholds must be given"));
+        }
+        if (thresholds.stream().anyMatch(threshold -> threshold == null || threshold <= 0)) {
+            return Mono.error(new IllegalArgumentException("Threshold must be greater than zero"));
+        }
+
+        return movieInfoService
+                .getDirectors(thresholds)
+                .map(result -> ok(result).body(new DirectorsBatchResponse(result.getValue())))
+                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
+                .doOnSubscribe(subscription ->
+                        log.info("Fetching directors with thresholds: {}", thresholds));
+    }
+
+    @GetMapping("/directors/top")
+    @Operation(summary = "Fetch Top Directors",
+            description = "Fetch the directors with the most movies, with their movie counts; ties are ordered by name")
+    public Mono<ResponseEntity<TopDirectorsResponse>> getTopDirectors(
+            @Parameter(description = "Number of directors to return")
+            @RequestParam int limit) {
+
+        if (limit <= 0 || limit > MAX_TOP_DIRECTORS) {
+            return Mono.error(new IllegalArgumentException(
+                    "Limit must be between 1 and " + MAX_TOP_DIRECTORS));
+        }
+
+        return movieInfoService
+                .getTopDirectors(limit)
+                .map(result -> ok(result).body(new TopDirectorsResponse(result.getValue())))
+                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
+                .doOnSubscribe(subscription ->
+                        log.info("Fetching top {} directors", limit));
+    }
+
+    @GetMapping(value = "/directors/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream Directors",
+            description = "Stream directors with movies exceeding the given threshold as newline-delimited JSON, "
+                    + "as soon as they are found, followed by a summary")
+    public Flux<DirectorStreamEvent> streamDirectors(
+            @Parameter(description = "Threshold for filtering directors by movie count")
+            @RequestParam int threshold) {
+
+        return directorEvents(threshold);
+    }
+
+    @GetMapping(value = "/directors/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream Directors as Server-Sent Events",
+            description = "Stream directors with movies exceeding the given threshold as Server-Sent Events, "
+                    + "as soon as they are found, followed by a summary")
+    public Flux<ServerSentEvent<DirectorStreamEvent>> streamDirectorEvents(
+            @Parameter(description = "Threshold for filtering directors by movie count")
+            @RequestParam int threshold) {
+
+        return directorEvents(threshold)
+                .map(event -> ServerSentEvent.builder(event).event(event.getType()).build());
+    }
+
+    /**
+     * Starts an OK response flagging whether the result was answered from a partial catalog, and
+     * summarizing the crawl that loaded it.
+     *
+     * @param result The result to be returned.
+     * @return The response builder.
+     */
+    private static ResponseEntity.BodyBuilder ok(CatalogResult<?> result) {
+        CrawlSummary crawl = result.getCrawl();
+        return ResponseEntity.ok()
+                .header(PARTIAL_RESULT_HEADER, String.valueOf(result.isPartial()))
+                .header(CRAWL_SUMMARY_HEADER, "pages-attempted=" + crawl.getPagesAttempted()
+                        + ", pages-succeeded=" + crawl.getPagesSucceeded()
+                        + ", pages-failed=" + crawl.getPagesFailed()
+                        + ", pages-missing=" + crawl.getPagesMissing()
+                        + ", movies=" + crawl.getMovies()
+                        + ", bytes=" + crawl.getBytes()
+                        + ", duration-ms=" + crawl.getDuration().toMillis());
+    }
+
+    /**
+     * Answers an encoded body with the validators and freshness of the snapshot it was answered from.
+     * A matching If-None-Match, or else If-Modified-Since, is answered with 304 before the body is written.
+     *
+     * @param result The result the body was encoded from.
+     * @param body The encoded body.
+     * @return The response.
+     */
+    private static ResponseEntity<DataBuffer> encoded(CatalogResult<?> result, EncodedResponse body) {
+        return ok(result)
+                .eTag(body.getEtag())
+                .lastModified(result.getLoadedAt())
+                .cacheControl(CacheControl.maxAge(result.freshFor()).cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.toDataBuffer());
+    }
+
+    private static String textOrNull(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
+
+    private Flux<DirectorStreamEvent> directorEvents(int threshold) {
+        if (threshold <= 0) {
+            return Flux.error(new IllegalArgumentException("Threshold must be greater than zero"));
+        }
+
+        return movieInfoService
+                .streamDirectors(threshold)
+                .doOnSubscribe(subscription ->
+                        log.info("Streaming directors with threshold: {}", threshold))
+                .doOnComplete(() -> log.info("Streamed directors with threshold: {}", threshold));
     }
 
 }
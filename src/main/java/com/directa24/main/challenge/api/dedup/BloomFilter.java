@@ -0,0 +1,106 @@
+package com.directa24.main.challenge.api.dedup;
+
+/**
+ * Bloom filter over 64-bit fingerprints, sized for an expected number of insertions and a false
+ * positive rate. It takes a fraction of the memory of a {@link LongHashSet} (about 1.8 bytes per
+ * fingerprint at a 0.1% false positive rate against 13 to 27), at the cost of exactness: a
+ * fingerprint that was never added is reported as seen with the configured probability, more once
+ * the expected number of insertions is exceeded. Not thread-safe.
+ */
+public final class BloomFilter implements FingerprintSet {
+
+    private static final double LN2 = Math.log(2);
+    private static final long MAX_BITS = (long) Integer.MAX_VALUE * Long.SIZE;
+
+    private final long[] words;
+    private final long bits;
+    private final int hashes;
+    private long size;
+
+    /**
+     * @param expectedInsertions The number of fingerprints the filter is sized for.
+     * @param falsePositiveRate The probability that a new fingerprint is reported as seen, between 0 and 1.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be greater than zero");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        this.bits = Math.min(MAX_BITS, Math.max(Long.SIZE, (optimalBits + Long.SIZE - 1) / Long.SIZE * Long.SIZE));
+        this.words = new long[(int) (bits / Long.SIZE)];
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * LN2));
+    }
+
+    /**
+     * Sets the bits of the fingerprint.
+     *
+     * @return true if any of its bits was clear, so the fingerprint was certainly not added before.
+     */
+    @Override
+    public boolean add(long fingerprint) {
+        boolean added = false;
+        long stride = stride(fingerprint);
+        long combined = fingerprint;
+        for (int i = 0; i < hashes; i++, combined += stride) {
+            long bit = Long.remainderUnsigned(combined, bits);
+            long mask = 1L << bit;
+            if ((words[(int) (bit >>> 6)] & mask) == 0) {
+                words[(int) (bit >>> 6)] |= mask;
+                added = true;
+            }
+        }
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    /**
+     * @param fingerprint The fingerprint to look up.
+     * @return false if the fingerprint was certainly not added, true if it probably was.
+     */
+    public boolean mightContain(long fingerprint) {
+        long stride = stride(fingerprint);
+        long combined = fingerprint;
+        for (int i = 0; i < hashes; i++, combined += stride) {
+            long bit = Long.remainderUnsigned(combined, bits);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The number of fingerprints reported as new, a lower bound of the distinct fingerprints added.
+     */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return The size of the bit array.
+     */
+    public long bitSize() {
+        return bits;
+    }
+
+    /**
+     * @return The number of bits set and tested per fingerprint.
+     */
+    public int hashCount() {
+        return hashes;
+    }
+
+    /**
+     * The bit positions of a fingerprint are derived by double hashing, with the fingerprint itself
+     * and its halves swapped as the two hashes. The stride is odd, so it never sticks to one bit.
+     */
+    private static long stride(long fingerprint) {
+        return Long.rotateLeft(fingerprint, 32) | 1;
+    }
+}
@@ -0,0 +1,21 @@
+package com.directa24.main.challenge.api.dedup;
+
+/**
+ * Set of 64-bit fingerprints a de-duplication pass has already seen. Not thread-safe: each pass
+ * owns its own instance.
+ */
+public interface FingerprintSet {
+
+    /**
+     * Adds a fingerprint to the set.
+     *
+     * @param fingerprint The fingerprint to add.
+     * @return true if the fingerprint was not in the set yet.
+     */
+    boolean add(long fingerprint);
+
+    /**
+     * @return The number of fingerprints added, or an estimate of it for probabilistic sets.
+     */
+    long size();
+}
@@ -0,0 +1,94 @@
+package com.directa24.main.challenge.api.dedup;
+
+/**
+ * Open-addressing (linear probing) set of primitive longs, eight bytes per slot and no boxing.
+ * Slot value 0 marks an empty slot, so the fingerprint 0 is tracked by a flag of its own.
+ * Not thread-safe: each de-duplication pass owns its own instance.
+ */
+public final class LongHashSet implements FingerprintSet {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] slots;
+    private boolean containsZero;
+    private int size;
+    private int resizeAt;
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    @Override
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int slot = slotOf(value);
+        if (slots[slot] == value) {
+            return false;
+        }
+        slots[slot] = value;
+        if (++size > resizeAt) {
+            rehash(slots.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * @param value The value to look up.
+     * @return Whether the value was added to the set.
+     */
+    public boolean contains(long value) {
+        return value == 0 ? containsZero : slots[slotOf(value)] == value;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    private int slotOf(long value) {
+        int mask = slots.length - 1;
+        int slot = mix(value) & mask;
+        while (slots[slot] != 0 && slots[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldSlots = slots;
+        allocate(capacity);
+        for (long value : oldSlots) {
+            if (value != 0) {
+                slots[slotOf(value)] = value;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Folds the high bits into the low bits the slot is taken from, so values that only differ in
+     * their high bits do not pile up in one probe run.
+     */
+    private static int mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        return (int) (value ^ (value >>> 33));
+    }
+}
@@ -0,0 +1,80 @@
+package com.directa24.main.challenge.api.dedup;
+
+import com.directa24.main.challenge.api.model.Movie;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Consumer;
+
+/**
+ * Drops the movies of a stream whose {@link MovieFingerprint} was already seen in the same stream.
+ * Only fingerprints are kept, never the movies. In {@link Mode#EXACT} mode they are held in a
+ * {@link LongHashSet}. In {@link Mode#BLOOM} mode they are held in a {@link BloomFilter} sized for
+ * huge catalogs, which may also drop a movie that was not seen yet at the configured false positive
+ * rate.
+ */
+public final class MovieDeduplicator {
+
+    public enum Mode {
+        EXACT, BLOOM
+    }
+
+    private final Mode mode;
+    private final long expectedMovies;
+    private final double falsePositiveRate;
+
+    /**
+     * @param mode How seen fingerprints are held.
+     * @param expectedMovies The number of movies a Bloom filter is sized for.
+     * @param falsePositiveRate The false positive rate a Bloom filter is sized for.
+     */
+    public MovieDeduplicator(Mode mode, long expectedMovies, double falsePositiveRate) {
+        if (mode == Mode.BLOOM && expectedMovies <= 0) {
+            throw new IllegalArgumentException("Expected movies must be greater than zero");
+        }
+        if (mode == Mode.BLOOM && !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        this.mode = mode;
+        this.expectedMovies = expectedMovies;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * @return A deduplicator holding fingerprints in an exact {@link LongHashSet}.
+     */
+    public static MovieDeduplicator exact() {
+        return new MovieDeduplicator(Mode.EXACT, 0, 0);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return An empty set for one de-duplication pass.
+     */
+    public FingerprintSet newFingerprintSet() {
+        return mode == Mode.BLOOM ? new BloomFilter(expectedMovies, falsePositiveRate) : new LongHashSet();
+    }
+
+    /**
+     * Emits each movie the first time its fingerprint is seen. Every subscription starts a pass of
+     * its own. The source must signal serially, as a merged Flux does.
+     *
+     * @param movies The movies to de-duplicate.
+     * @param onDuplicate Called with every movie that is dropped.
+     * @return Flux<Movie> The distinct movies, in the order they were first seen.
+     */
+    public Flux<Movie> distinct(Flux<Movie> movies, Consumer<Movie> onDuplicate) {
+        return Flux.defer(() -> {
+            FingerprintSet seen = newFingerprintSet();
+            return movies.filter(movie -> {
+                if (seen.add(MovieFingerprint.of(movie))) {
+                    return true;
+                }
+                onDuplicate.accept(movie);
+                return false;
+            });
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.directa24.main.challenge.api.dedup;
+
+import com.directa24.main.challenge.api.model.Movie;
+
+/**
+ * 64-bit fingerprint of the identity of a movie: its title, year and director, trimmed and
+ * compared ignoring case. Hashed straight from the strings, without building a key for every
+ * movie. Among a million distinct movies the chance that any two share a fingerprint is about
+ * 3 in 100 million.
+ */
+public final class MovieFingerprint {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private MovieFingerprint() {
+    }
+
+    /**
+     * @param movie The movie to fingerprint.
+     * @return The fingerprint of its title, year and director.
+     */
+    public static long of(Movie movie) {
+        return of(movie.getTitle(), movie.getYear(), movie.getDirector());
+    }
+
+    /**
+     * @param title The title, or null.
+     * @param year The year, or null.
+     * @param director The director, or null.
+     * @return The fingerprint of the three fields; a null field is fingerprinted as an empty one.
+     */
+    public static long of(String title, String year, String director) {
+        long hash = OFFSET_BASIS;
+        hash = update(hash, title);
+        hash = update(hash, year);
+        hash = update(hash, director);
+        return finish(hash);
+    }
+
+    /**
+     * FNV-1a over the trimmed, lower-cased characters of the field, followed by their count, so the
+     * boundary between fields cannot shift.
+     */
+    private static long update(long hash, String field) {
+        int start = 0;
+        int end = field == null ? 0 : field.length();
+        while (start < end && field.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && field.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ Character.toLowerCase(field.charAt(i))) * PRIME;
+        }
+        return (hash ^ (end - start)) * PRIME;
+    }
+
+    /**
+     * Murmur3 64-bit finalizer, so every bit of the fingerprint depends on every character.
+     */
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
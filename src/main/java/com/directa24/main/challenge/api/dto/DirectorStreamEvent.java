@@ -0,0 +1,43 @@
+package com.directa24.main.challenge.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One event of the streamed directors response: a director that exceeds the threshold, or the
+ * summary that closes the stream.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DirectorStreamEvent {
+
+    public static final String DIRECTOR = "director";
+    public static final String SUMMARY = "summary";
+
+    private String type;
+    private String director;
+    private Integer directors;
+    private String source;
+    private Long version;
+    private Long movies;
+    private Boolean partial;
+
+    public static DirectorStreamEvent director(String director) {
+        return new DirectorStreamEvent(DIRECTOR, director, null, null, null, null, null);
+    }
+
+    /**
+     * @param directors The number of directors emitted before the summary.
+     * @param source {@code snapshot} when answered from the catalog snapshot, {@code crawl} when counted live.
+     * @param version The catalog snapshot version, or null for a live crawl.
+     * @param movies The number of movies scanned by a live crawl, or null for a snapshot.
+     * @param partial Whether upstream pages were missing from the catalog the directors were counted in.
+     * @return The summary event.
+     */
+    public static DirectorStreamEvent summary(int directors, String source, Long version, Long movies,
+                                              boolean partial) {
+        return new DirectorStreamEvent(SUMMARY, null, directors, source, version, movies, partial);
+    }
+}
@@ -0,0 +1,13 @@
+package com.directa24.main.challenge.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class DirectorsBatchResponse {
+    private Map<Integer, List<String>> directors;
+}
@@ -0,0 +1,13 @@
+package com.directa24.main.challenge.api.dto;
+
+import com.directa24.main.challenge.api.model.DirectorCount;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TopDirectorsResponse {
+    private List<DirectorCount> directors;
+}
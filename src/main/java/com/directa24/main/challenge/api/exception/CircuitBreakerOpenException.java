@@ -0,0 +1,35 @@
+package com.directa24.main.challenge.api.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    private final Duration retryAfter;
+    private final boolean halfOpen;
+
+    public CircuitBreakerOpenException(String name, Duration retryAfter) {
+        this("Circuit breaker " + name + " is open, calls are rejected for another " + retryAfter.toMillis() + " ms",
+                retryAfter, false);
+    }
+
+    private CircuitBreakerOpenException(String message, Duration retryAfter, boolean halfOpen) {
+        super(message);
+        this.retryAfter = retryAfter;
+        this.halfOpen = halfOpen;
+    }
+
+    /**
+     * A call rejected because the breaker is half-open and its single trial call is still in flight.
+     * The trial may close the breaker any moment, so there is no open duration to wait for.
+     *
+     * @param name The name of the breaker.
+     * @return The rejection.
+     */
+    public static CircuitBreakerOpenException halfOpen(String name) {
+        return new CircuitBreakerOpenException("Circuit breaker " + name
+                + " is half-open, calls are rejected while its trial call is in flight", Duration.ZERO, true);
+    }
+}
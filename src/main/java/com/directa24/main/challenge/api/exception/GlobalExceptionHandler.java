@@ -2,6 +2,7 @@ package com.directa24.main.challenge.api.exception;
 
 import com.directa24.main.challenge.api.dto.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -40,6 +41,22 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse("Parsing Error", ex.getMessage()));
     }
 
+    /**
+     * Handles calls rejected while the upstream circuit breaker is open and no catalog could be served.
+     *
+     * @param ex The exception object.
+     * @return A ResponseEntity with a descriptive error message, a Retry-After header and HTTP 503 status.
+     */
+    @ExceptionHandler(CircuitBreakerOpenException.class)
+    public ResponseEntity<ErrorResponse> handleCircuitBreakerOpenException(CircuitBreakerOpenException ex) {
+        log.error("Circuit breaker open exception: {}", ex.getMessage());
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(new ErrorResponse("Service Unavailable", "The movies API is unavailable, try again later."));
+    }
+
     /**
      * Handles generic exceptions for any unanticipated errors in the application.
      *
@@ -4,4 +4,8 @@ public class ResponseParsingException extends RuntimeException {
     public ResponseParsingException(String message) {
         super(message);
     }
+
+    public ResponseParsingException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,38 @@
+package com.directa24.main.challenge.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A query result together with the catalog snapshot it was answered from, the crawl that loaded it and
+ * when that snapshot is due to be replaced by a refresh.
+ *
+ * @param <T> The type of the result.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogResult<T> {
+    private final T value;
+    private final long version;
+    private final Instant loadedAt;
+    private final CrawlSummary crawl;
+    private final Instant refreshDueAt;
+
+    /**
+     * @return Whether the snapshot is missing the movies of upstream pages that could not be fetched.
+     */
+    public boolean isPartial() {
+        return crawl.isPartial();
+    }
+
+    /**
+     * @return How long the result stays current, zero once its snapshot is due for a refresh.
+     */
+    public Duration freshFor() {
+        Duration remaining = Duration.between(Instant.now(), refreshDueAt);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+}
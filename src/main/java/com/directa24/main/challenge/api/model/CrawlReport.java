@@ -0,0 +1,109 @@
+package com.directa24.main.challenge.api.model;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What happened during one crawl of the upstream catalog, filled in while it runs: the pages attempted,
+ * fetched and left out after retries, how many retries and hedged requests it took, and the bytes and
+ * movies read. A report travels to the repository in the Reactor context of the crawl, see {@link #with},
+ * and is frozen into a {@link CrawlSummary} once the crawl is done.
+ */
+public class CrawlReport {
+
+    private static final String CONTEXT_KEY = CrawlReport.class.getName();
+
+    private final long startedAt = System.nanoTime();
+    private final Set<Integer> failedPages = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pagesAttempted = new AtomicInteger();
+    private final AtomicInteger pagesSucceeded = new AtomicInteger();
+    private final AtomicInteger retries = new AtomicInteger();
+    private final AtomicInteger hedges = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong movies = new AtomicLong();
+
+    /**
+     * @param report The report a crawl subscribed with this context should fill.
+     * @return A context carrying the report.
+     */
+    public static Context with(CrawlReport report) {
+        return Context.of(CONTEXT_KEY, report);
+    }
+
+    /**
+     * @param context The context of a crawl.
+     * @return The report of the crawl, or empty if the caller did not ask for one.
+     */
+    public static Optional<CrawlReport> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    public void pageAttempted() {
+        pagesAttempted.incrementAndGet();
+    }
+
+    public void pageSucceeded() {
+        pagesSucceeded.incrementAndGet();
+    }
+
+    public void pageFailed(int page) {
+        failedPages.add(page);
+    }
+
+    public void retried() {
+        retries.incrementAndGet();
+    }
+
+    public void hedged() {
+        hedges.incrementAndGet();
+    }
+
+    public void bytesRead(long count) {
+        bytes.addAndGet(count);
+    }
+
+    public void moviesParsed(long count) {
+        movies.addAndGet(count);
+    }
+
+    /**
+     * @return The pages left out of the crawl, in ascending order.
+     */
+    public SortedSet<Integer> getFailedPages() {
+        return Collections.unmodifiableSortedSet(new TreeSet<>(failedPages));
+    }
+
+    public int getRetries() {
+        return retries.get();
+    }
+
+    public int getHedges() {
+        return hedges.get();
+    }
+
+    public boolean isPartial() {
+        return !failedPages.isEmpty();
+    }
+
+    /**
+     * Freezes the report, timing the crawl up to now.
+     *
+     * @param pagesMissing How many of the failed pages have no movies in the resulting catalog.
+     * @return The summary of the crawl.
+     */
+    public CrawlSummary summarize(int pagesMissing) {
+        return new CrawlSummary(pagesAttempted.get(), pagesSucceeded.get(), failedPages.size(), pagesMissing,
+                retries.get(), hedges.get(), bytes.get(), movies.get(),
+                Duration.ofNanos(System.nanoTime() - startedAt));
+    }
+}
@@ -0,0 +1,43 @@
+package com.directa24.main.challenge.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Immutable outcome of one crawl of the upstream catalog, kept with the snapshot it produced.
+ * Failed pages could not be fetched even after retries; missing pages are the failed pages whose
+ * movies are not in the snapshot at all, which is what makes a snapshot partial.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class CrawlSummary {
+
+    public static final CrawlSummary NONE = new CrawlSummary(0, 0, 0, 0, 0, 0, 0, 0, Duration.ZERO);
+
+    private final int pagesAttempted;
+    private final int pagesSucceeded;
+    private final int pagesFailed;
+    private final int pagesMissing;
+    private final int retries;
+    private final int hedges;
+    private final long bytes;
+    private final long movies;
+    private final Duration duration;
+
+    public boolean isPartial() {
+        return pagesMissing > 0;
+    }
+
+    /**
+     * @return The share of attempted pages that were fetched, 1 when no page was attempted.
+     */
+    public double completeness() {
+        return pagesAttempted == 0 ? 1.0 : (double) pagesSucceeded / pagesAttempted;
+    }
+}
@@ -0,0 +1,14 @@
+package com.directa24.main.challenge.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A director with the number of movies they directed.
+ */
+@Getter
+@AllArgsConstructor
+public class DirectorCount {
+    private final String director;
+    private final int movies;
+}
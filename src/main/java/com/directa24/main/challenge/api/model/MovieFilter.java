@@ -0,0 +1,29 @@
+package com.directa24.main.challenge.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Restricts a query to the movies matching every given criterion; null criteria match every movie.
+ * Genre, actor and writer match one entry of the comma-separated field, ignoring case.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class MovieFilter {
+
+    public static final MovieFilter NONE = new MovieFilter(null, null, null, null, null);
+
+    private final String genre;
+    private final String actor;
+    private final String writer;
+    private final Integer yearFrom;
+    private final Integer yearTo;
+
+    public boolean isEmpty() {
+        return genre == null && actor == null && writer == null && yearFrom == null && yearTo == null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.directa24.main.challenge.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One /search page as seen by an incremental sync. A page upstream answered with 304 Not Modified
+ * carries no movies; otherwise the movies come with a hash of the raw body and the validators to
+ * send on the next sync.
+ */
+@Getter
+@AllArgsConstructor
+public class MoviePage {
+    private final int page;
+    private final int perPage;
+    private final int totalPages;
+    private final boolean modified;
+    private final long contentHash;
+    private final String etag;
+    private final String lastModified;
+    private final List<Movie> movies;
+
+    public static MoviePage notModified(int page, PageValidators validators) {
+        return new MoviePage(page, 0, validators.getTotalPages(), false, 0, validators.getEtag(),
+                validators.getLastModified(), Collections.emptyList());
+    }
+
+    /**
+     * @param pages The number of pages ahead of this page's source in a catalog merged from several sources.
+     * @return The page numbered after those pages.
+     */
+    public MoviePage shifted(int pages) {
+        return pages == 0 ? this
+                : new MoviePage(page + pages, perPage, totalPages + pages, modified, contentHash, etag, lastModified,
+                movies);
+    }
+}
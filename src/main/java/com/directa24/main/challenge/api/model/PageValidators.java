@@ -0,0 +1,19 @@
+package com.directa24.main.challenge.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What the previous sync learned about a page: the validators to send back as conditional request
+ * headers, and the total_pages it reported, which stands in for the header of a 304 response.
+ */
+@Getter
+@AllArgsConstructor
+public class PageValidators {
+
+    public static final PageValidators NONE = new PageValidators(null, null, 0);
+
+    private final String etag;
+    private final String lastModified;
+    private final int totalPages;
+}
@@ -1,10 +1,23 @@
 package com.directa24.main.challenge.api.repository;
 
 import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MoviePage;
+import com.directa24.main.challenge.api.model.PageValidators;
 import reactor.core.publisher.Flux;
 
+import java.util.function.IntFunction;
+
 public interface MovieRepository {
 
     public Flux<Movie> fetchAllMovies();
 
+    /**
+     * Fetches every page of the catalog, conditionally when the previous sync left validators for it.
+     * A source without upstream pages splits its movies into pages of its own, hashed from their movies.
+     *
+     * @param validators The validators of each page number from the previous sync.
+     * @return Flux<MoviePage> Every page of the catalog, page 1 first.
+     */
+    public Flux<MoviePage> syncPages(IntFunction<PageValidators> validators);
+
 }
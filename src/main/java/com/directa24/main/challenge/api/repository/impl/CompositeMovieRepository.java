@@ -0,0 +1,110 @@
+package com.directa24.main.challenge.api.repository.impl;
+
+import com.directa24.main.challenge.api.dedup.MovieDeduplicator;
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MoviePage;
+import com.directa24.main.challenge.api.model.PageValidators;
+import com.directa24.main.challenge.api.repository.MovieRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Merges the movies of several sources into one catalog. The sources are read concurrently, and a
+ * movie already emitted by any source, by the {@link com.directa24.main.challenge.api.dedup.MovieFingerprint}
+ * of its title, year and director, is dropped, so the same movie exported to a file and served over
+ * HTTP is only counted once.
+ * <p>
+ * A sync reads the sources one after the other and numbers the pages of each after the last page of
+ * the sources before it, so the first source keeps its own page numbers and every source still sees
+ * the validators of its own pages.
+ */
+@Slf4j
+public class CompositeMovieRepository implements MovieRepository {
+
+    private final List<MovieRepository> sources;
+    private final MovieDeduplicator movieDeduplicator;
+    private final Counter duplicates;
+    private final SourceThroughput throughput;
+
+    /**
+     * @param sources The sources to merge.
+     * @param movieDeduplicator Drops the movies already emitted by another source.
+     * @param meterRegistry The registry the duplicates and the throughput of the merged source are reported to.
+     */
+    public CompositeMovieRepository(List<MovieRepository> sources, MovieDeduplicator movieDeduplicator,
+                                    MeterRegistry meterRegistry) {
+        if (sources.isEmpty()) {
+            throw new IllegalArgumentException("At least one movie source is required");
+        }
+        this.sources = List.copyOf(sources);
+        this.movieDeduplicator = movieDeduplicator;
+        this.duplicates = Counter.builder("movies.source.duplicates")
+                .description("Movies dropped by the composite source because another source already emitted them")
+                .register(meterRegistry);
+        this.throughput = new SourceThroughput("composite", meterRegistry);
+    }
+
+    /**
+     * Reads every source at once and emits each distinct movie the first time it is seen.
+     *
+     * @return Flux<Movie> The distinct movies of every source.
+     */
+    @Override
+    public Flux<Movie> fetchAllMovies() {
+        return Flux.defer(() -> {
+            AtomicLong distinct = new AtomicLong();
+            return Flux.merge(Flux.fromIterable(sources).map(MovieRepository::fetchAllMovies))
+                    .as(movies -> movieDeduplicator.distinct(movies, duplicate -> duplicates.increment()))
+                    .doOnNext(movie -> distinct.incrementAndGet())
+                    .doOnComplete(() -> log.info("Merged {} distinct movies from {} sources", distinct.get(),
+                            sources.size()));
+        }).as(throughput::measure);
+    }
+
+    /**
+     * Syncs the pages of every source in order, each numbered after the total_pages of the sources
+     * before it. A source that returns no page at all, such as the HTTP API when page 1 cannot be
+     * fetched, keeps the page numbers of its previous sync, so the pages of the sources after it do not move.
+     *
+     * @param validators The validators of each page number from the previous sync.
+     * @return Flux<MoviePage> The pages of every source, numbered after the pages of the sources before it.
+     */
+    @Override
+    public Flux<MoviePage> syncPages(IntFunction<PageValidators> validators) {
+        return Flux.defer(() -> {
+            AtomicInteger offset = new AtomicInteger();
+            return Flux.fromIterable(sources)
+                    .concatMap(source -> Flux.defer(() -> {
+                        int first = offset.get();
+                        return syncSource(source, first, validators)
+                                .doOnNext(page -> offset.accumulateAndGet(page.getTotalPages(), Math::max))
+                                .doOnComplete(() -> {
+                                    if (offset.get() == first) {
+                                        // No page: page 1 of the previous sync still knows the source's total_pages
+                                        offset.set(Math.max(first, validators.apply(first + 1).getTotalPages()));
+                                    }
+                                });
+                    }));
+        }).as(pages -> throughput.measure(pages, page -> page.getMovies().size()));
+    }
+
+    /**
+     * @param offset The number of pages of the sources before this one.
+     */
+    private Flux<MoviePage> syncSource(MovieRepository source, int offset, IntFunction<PageValidators> validators) {
+        return source
+                .syncPages(page -> {
+                    PageValidators synced = validators.apply(offset + page);
+                    return synced == PageValidators.NONE ? synced : new PageValidators(synced.getEtag(),
+                            synced.getLastModified(), Math.max(0, synced.getTotalPages() - offset));
+                })
+                .map(page -> page.shifted(offset));
+    }
+}
@@ -0,0 +1,53 @@
+package com.directa24.main.challenge.api.repository.impl;
+
+import com.directa24.main.challenge.api.model.Movie;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 64-bit FNV-1a hash of the content of a page, updated chunk by chunk without copying: the raw body
+ * of a /search response, or the movies of a page read from a file.
+ */
+final class ContentHash {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long value = OFFSET_BASIS;
+
+    void update(DataBuffer buffer) {
+        ByteBuffer bytes = buffer.asByteBuffer(); // Independent position, the buffer is left unread
+        while (bytes.hasRemaining()) {
+            value = (value ^ (bytes.get() & 0xff)) * PRIME;
+        }
+    }
+
+    void update(Movie movie) {
+        update(movie.getTitle());
+        update(movie.getYear());
+        update(movie.getRated());
+        update(movie.getReleased());
+        update(movie.getRuntime());
+        update(movie.getGenre());
+        update(movie.getDirector());
+        update(movie.getWriter());
+        update(movie.getActors());
+    }
+
+    /**
+     * Hashes the characters of the field followed by their count, -1 for null, so the boundary
+     * between fields cannot shift.
+     */
+    private void update(String field) {
+        if (field != null) {
+            for (int i = 0; i < field.length(); i++) {
+                value = (value ^ field.charAt(i)) * PRIME;
+            }
+        }
+        value = (value ^ (field == null ? -1 : field.length())) * PRIME;
+    }
+
+    long getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,282 @@
+package com.directa24.main.challenge.api.repository.impl;
+
+import com.directa24.main.challenge.api.exception.ResponseParsingException;
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MoviePage;
+import com.directa24.main.challenge.api.model.PageValidators;
+import com.directa24.main.challenge.api.repository.MovieRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bulk movie source reading local files, for reprocessing and load tests without calling the HTTP API.
+ * Supported files, optionally gzip compressed with a trailing {@code .gz}:
+ * <ul>
+ *     <li>{@code .json}: a JSON array of movies, or a saved /search page whose movies are in {@code data}</li>
+ *     <li>{@code .ndjson} or {@code .jsonl}: one movie object per line</li>
+ * </ul>
+ * A directory stands for the supported files directly inside it, in name order. Uncompressed files are
+ * memory mapped, compressed ones are read through their file channel; either way movies are parsed
+ * with a streaming parser and emitted in chunks, so a file is never held in memory as a whole. A sync
+ * reads the chunks as pages of the catalog, see {@link #syncPages}.
+ */
+@Slf4j
+public class FileMovieRepository implements MovieRepository {
+
+    private static final String DATA_FIELD = "data";
+    private static final int GZIP_BUFFER_BYTES = 64 * 1024;
+
+    private final List<Path> paths;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final SourceThroughput throughput;
+
+    /**
+     * @param paths The files and directories to read, in order.
+     * @param objectMapper The mapper movies are parsed with.
+     * @param chunkSize How many movies are parsed before they are emitted downstream.
+     * @param meterRegistry The registry the throughput of the source is reported to.
+     */
+    public FileMovieRepository(List<Path> paths, ObjectMapper objectMapper, int chunkSize,
+                               MeterRegistry meterRegistry) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.paths = List.copyOf(paths);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.throughput = new SourceThroughput("file", meterRegistry);
+    }
+
+    /**
+     * Reads the movies of every file in order. Files are read on the bounded elastic scheduler, so
+     * the blocking reads never run on an event loop.
+     *
+     * @return Flux<Movie> The movies of every file.
+     */
+    @Override
+    public Flux<Movie> fetchAllMovies() {
+        return Flux.defer(() -> Flux.fromIterable(files()))
+                .concatMap(this::readFile)
+                .as(throughput::measure)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Reads every file as pages of up to chunk-size movies, numbered from 1 across the files in order.
+     * Files have no validators, so every page is read, but a page is hashed from its movies, and one
+     * whose movies did not change is not counted again. A catalog without movies is a single empty page.
+     *
+     * @param validators Unused, files are always read whole.
+     * @return Flux<MoviePage> The pages of every file, in order.
+     */
+    @Override
+    public Flux<MoviePage> syncPages(IntFunction<PageValidators> validators) {
+        return Flux.defer(() -> {
+                    AtomicInteger pages = new AtomicInteger();
+                    return Flux.fromIterable(files())
+                            .concatMap(this::readChunks)
+                            .map(chunk -> page(pages.incrementAndGet(), chunk))
+                            .switchIfEmpty(Mono.fromSupplier(() -> page(1, Collections.emptyList())));
+                })
+                .as(pages -> throughput.measure(pages, page -> page.getMovies().size()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * @return The page of the movies; the pages read so far stand in for total_pages, which is only
+     * known once every file is read.
+     */
+    private MoviePage page(int page, List<Movie> movies) {
+        ContentHash contentHash = new ContentHash();
+        movies.forEach(contentHash::update);
+        return new MoviePage(page, chunkSize, page, true, contentHash.getValue(), null, null, movies);
+    }
+
+    private List<Path> files() {
+        List<Path> files = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> children = Files.list(path)) {
+                    files.addAll(children
+                            .filter(Files::isRegularFile)
+                            .filter(FileMovieRepository::isSupported)
+                            .sorted()
+                            .collect(Collectors.toList()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to list " + path, e);
+                }
+            } else if (isSupported(path)) {
+                files.add(path);
+            } else {
+                throw new IllegalArgumentException("Unsupported movie file " + path);
+            }
+        }
+        return files;
+    }
+
+    private Flux<Movie> readFile(Path file) {
+        return readChunks(file).concatMapIterable(chunk -> chunk);
+    }
+
+    private Flux<List<Movie>> readChunks(Path file) {
+        return Flux.<List<Movie>, MovieFileReader>generate(() -> new MovieFileReader(file), (reader, sink) -> {
+                    List<Movie> chunk = reader.next(chunkSize);
+                    if (chunk.isEmpty()) {
+                        sink.complete();
+                    } else {
+                        sink.next(chunk);
+                    }
+                    return reader;
+                }, MovieFileReader::close)
+                .doOnSubscribe(subscription -> log.info("Reading movies from {}", file));
+    }
+
+    private static boolean isSupported(Path file) {
+        String name = baseName(file);
+        return name.endsWith(".json") || isLineDelimited(file);
+    }
+
+    private static boolean isLineDelimited(Path file) {
+        String name = baseName(file);
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl");
+    }
+
+    private static boolean isGzip(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    /**
+     * The lower-case file name without a trailing .gz.
+     */
+    private static String baseName(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+    }
+
+    /**
+     * Streaming reader of the movies of one file.
+     */
+    private class MovieFileReader implements Closeable {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final JsonParser parser;
+        private boolean started;
+        private boolean finished;
+
+        MovieFileReader(Path file) {
+            this.file = file;
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to open " + file, e);
+            }
+            try {
+                this.parser = objectMapper.getFactory().createParser(open());
+            } catch (IOException e) {
+                closeQuietly(channel);
+                throw new UncheckedIOException("Unable to read " + file, e);
+            }
+        }
+
+        private InputStream open() throws IOException {
+            if (isGzip(file)) {
+                return new GZIPInputStream(Channels.newInputStream(channel), GZIP_BUFFER_BYTES);
+            }
+            if (channel.size() <= Integer.MAX_VALUE) {
+                return new ByteBufferBackedInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+            return Channels.newInputStream(channel); // Too large for a single mapping
+        }
+
+        /**
+         * @param max The maximum number of movies to read.
+         * @return The next movies of the file, empty once it is exhausted.
+         */
+        List<Movie> next(int max) {
+            List<Movie> movies = new ArrayList<>(Math.min(max, 1024));
+            if (finished) {
+                return movies;
+            }
+            try {
+                JsonToken token = started ? parser.nextToken() : start();
+                while (token == JsonToken.START_OBJECT) {
+                    movies.add(objectMapper.readValue(parser, Movie.class));
+                    if (movies.size() == max) {
+                        return movies;
+                    }
+                    token = parser.nextToken();
+                }
+                finished = true; // End of the array or of the file
+                return movies;
+            } catch (IOException e) {
+                throw new ResponseParsingException("Invalid movie file " + file + ": " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Positions the parser on the first movie: the first line of a line-delimited file, the first
+         * element of a root array, or the first element of the data array of a saved page.
+         */
+        private JsonToken start() throws IOException {
+            started = true;
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                return parser.nextToken();
+            }
+            if (token != JsonToken.START_OBJECT || isLineDelimited(file)) {
+                return token;
+            }
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                boolean data = DATA_FIELD.equals(parser.getCurrentName());
+                token = parser.nextToken();
+                if (data && token == JsonToken.START_ARRAY) {
+                    return parser.nextToken();
+                }
+                parser.skipChildren();
+            }
+            return null; // A page without data
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(parser);
+            closeQuietly(channel);
+        }
+
+        private void closeQuietly(Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                log.warn("Unable to close {}: {}", file, e.getMessage());
+            }
+        }
+    }
+}
@@ -1,86 +1,503 @@
 package com.directa24.main.challenge.api.repository.impl;
 
+import com.directa24.main.challenge.api.concurrency.AdaptiveConcurrencyLimiter;
+import com.directa24.main.challenge.api.concurrency.CircuitBreaker;
+import com.directa24.main.challenge.api.concurrency.HedgePolicy;
+import com.directa24.main.challenge.api.dedup.MovieDeduplicator;
+import com.directa24.main.challenge.api.exception.CircuitBreakerOpenException;
+import com.directa24.main.challenge.api.exception.ResponseParsingException;
+import com.directa24.main.challenge.api.model.CrawlReport;
 import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MoviePage;
 import com.directa24.main.challenge.api.model.MoviesResponse;
+import com.directa24.main.challenge.api.model.PageValidators;
 import com.directa24.main.challenge.api.repository.MovieRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 @Repository
 @Slf4j
 public class MovieRepositoryImpl implements MovieRepository {
     private final WebClient webClient;
-    private final int concurrencyLimit;
+    private final MoviesPageDecoder moviesPageDecoder;
+    private final AdaptiveConcurrencyLimiter pageFetchLimiter;
+    private final CircuitBreaker pageFetchCircuitBreaker;
+    private final RetryBackoffSpec pageFetchRetry;
+    private final HedgePolicy pageFetchHedging;
+    private final MovieDeduplicator movieDeduplicator;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter pagesFetched;
+    private final Counter pagesFailed;
+    private final Counter moviesParsed;
+    private final Counter moviesDuplicated;
+    private final Counter pagesNotModified;
+    private final Counter paginationChanges;
+    private final Counter pageRetries;
+    private final Counter pageHedges;
+    private final AtomicInteger pagesInFlight = new AtomicInteger();
+    private final SourceThroughput throughput;
 
-    public MovieRepositoryImpl(@Value("${api.concurrency.limit}") int concurrencyLimit,
-                               @Qualifier("movieWebClient") WebClient webClient) {
+    public MovieRepositoryImpl(@Qualifier("movieWebClient") WebClient webClient,
+                               MoviesPageDecoder moviesPageDecoder,
+                               AdaptiveConcurrencyLimiter pageFetchLimiter,
+                               CircuitBreaker pageFetchCircuitBreaker,
+                               RetryBackoffSpec pageFetchRetry,
+                               HedgePolicy pageFetchHedging,
+                               MovieDeduplicator movieDeduplicator,
+                               MeterRegistry meterRegistry) {
         this.webClient = webClient;
-        this.concurrencyLimit = concurrencyLimit;
+        this.moviesPageDecoder = moviesPageDecoder;
+        this.pageFetchLimiter = pageFetchLimiter;
+        this.pageFetchCircuitBreaker = pageFetchCircuitBreaker;
+        this.pageFetchRetry = pageFetchRetry;
+        this.pageFetchHedging = pageFetchHedging;
+        this.movieDeduplicator = movieDeduplicator;
+        this.meterRegistry = meterRegistry;
+        this.throughput = new SourceThroughput("http", meterRegistry);
+        this.pagesFetched = Counter.builder("movies.upstream.pages")
+                .description("Upstream pages fetched, by result")
+                .tag("result", "fetched")
+                .register(meterRegistry);
+        this.pagesFailed = Counter.builder("movies.upstream.pages")
+                .description("Upstream pages fetched, by result")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.moviesParsed = Counter.builder("movies.upstream.movies.parsed")
+                .description("Movies decoded from upstream pages")
+                .register(meterRegistry);
+        this.moviesDuplicated = Counter.builder("movies.upstream.movies.duplicate")
+                .description("Movies dropped from a crawl because an earlier page already emitted them")
+                .register(meterRegistry);
+        this.pagesNotModified = Counter.builder("movies.upstream.pages.not.modified")
+                .description("Upstream pages answered with 304 Not Modified during an incremental sync")
+                .register(meterRegistry);
+        this.paginationChanges = Counter.builder("movies.upstream.pagination.changes")
+                .description("Page headers whose per_page or total_pages differ from the crawl so far")
+                .register(meterRegistry);
+        this.pageRetries = Counter.builder("movies.upstream.page.retries")
+                .description("Upstream page fetches retried after a failed attempt")
+                .register(meterRegistry);
+        this.pageHedges = Counter.builder("movies.upstream.page.hedges")
+                .description("Hedged duplicate requests sent for straggling upstream page fetches")
+                .register(meterRegistry);
+        Gauge.builder("movies.upstream.circuit.state", pageFetchCircuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("State of the upstream circuit breaker: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+        Gauge.builder("movies.upstream.pages.in.flight", pagesInFlight, AtomicInteger::get)
+                .description("Upstream page fetches currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("movies.upstream.concurrency.limit", pageFetchLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit of concurrent upstream page fetches")
+                .register(meterRegistry);
     }
 
     /**
-     * Fetches all movies by retrieving the initial page to determine total pages,
-     * then fetching each page concurrently up to the configured concurrency limit.
+     * Fetches all movies. Page 1 is fetched once: its movies are emitted as they are decoded, and
+     * pages 2..N are requested as soon as its header reveals total_pages. Every page fetch runs
+     * under the adaptive page fetch limiter and the circuit breaker, and is retried and hedged.
+     * A page that still fails is left out and recorded in the {@link CrawlReport} of the subscriber
+     * context, if any; a failure of page 1 or an open circuit breaker fails the crawl. While the breaker
+     * is not closed, page 1 is its trial call, and pages 2..N are only requested once page 1 is complete
+     * and the trial has closed the breaker. A movie seen on an earlier page, as when pagination shifts
+     * mid-crawl, is dropped.
      *
      * @return Flux<Movie> A reactive stream of Movie objects.
      */
     @Override
     public Flux<Movie> fetchAllMovies() {
-        log.info("Starting to fetch all movies");
+        return Flux.deferContextual(context -> {
+            log.info("Starting to fetch all movies");
+            CrawlReport report = CrawlReport.from(context).orElseGet(CrawlReport::new);
+            AtomicLong duplicates = new AtomicLong();
+            boolean trial = pageFetchCircuitBreaker.getState() != CircuitBreaker.State.CLOSED;
+            if (trial) {
+                log.info("Upstream circuit breaker is not closed, fetching page 1 alone as its trial call");
+            }
 
-        return fetchPage(1)
-                .flatMapMany(initialPage -> {
-                    int totalPages = initialPage.getTotalPages();
-                    return Flux.range(1, totalPages)
-                            .flatMap(this::fetchPageMovies, concurrencyLimit);
-                })
-                .doOnError(e -> log.error("Error fetching all movies: {}", e.getMessage()))
-                .onErrorResume(e -> Flux.empty()); // Fail gracefully with an empty result
+            return resilientFetch(1, report, () -> fetchPage(1, report))
+                    .publish(firstPage -> {
+                        // The header of page 1, only once the whole page is in if it is the trial call
+                        Mono<MoviesResponse> firstHeader = trial ? firstPage.reduce((header, chunk) -> header)
+                                : firstPage.next();
+                        return Flux.merge(
+                                firstPage.concatMapIterable(MoviesResponse::getData),
+                                firstHeader.flatMapMany(header -> {
+                                    Pagination pagination = new Pagination(header.getPerPage(),
+                                            header.getTotalPages());
+                                    return fetchPages(2, header.getTotalPages(), pagination,
+                                            page -> fetchPageMovies(page, pagination, report));
+                                }));
+                    })
+                    .as(movies -> movieDeduplicator.distinct(movies, duplicate -> {
+                        moviesDuplicated.increment();
+                        duplicates.incrementAndGet();
+                        log.debug("Dropping duplicate movie {} ({})", duplicate.getTitle(), duplicate.getYear());
+                    }))
+                    .doOnComplete(() -> {
+                        if (duplicates.get() > 0) {
+                            log.warn("Dropped {} duplicate movies seen on more than one page", duplicates.get());
+                        }
+                    })
+                    .doOnError(e -> log.error("Error fetching all movies: {}", e.getMessage()));
+        }).as(throughput::measure);
     }
 
     /**
-     * Fetches a specific page of movies from the API.
+     * Syncs every page of the catalog. Each page is requested with the ETag and Last-Modified the
+     * previous sync saw for it, so upstream can answer 304 Not Modified; changed pages are decoded
+     * and hashed as they stream in. Page 1 is fetched first for total_pages, and a failure there
+     * fails the sync, while a later page that fails even after retries is left out so its previous
+     * state is kept, and recorded in the {@link CrawlReport} of the subscriber context, if any.
+     *
+     * @param validators The validators of each page number from the previous sync.
+     * @return Flux<MoviePage> Every page of the catalog, page 1 first.
+     */
+    @Override
+    public Flux<MoviePage> syncPages(IntFunction<PageValidators> validators) {
+        return Flux.deferContextual(context -> {
+            log.info("Starting to sync movie pages");
+            CrawlReport report = CrawlReport.from(context).orElseGet(CrawlReport::new);
+
+            // Page 1 is a single page, taken once its fetch completes so the circuit breaker records it
+            return resilientFetch(1, report, () -> fetchPageIfModified(1, validators.apply(1), report))
+                    .singleOrEmpty()
+                    .flatMapMany(first -> {
+                        Pagination pagination = new Pagination(first.getPerPage(), first.getTotalPages());
+                        return Flux.just(first).concatWith(fetchPages(2, first.getTotalPages(), pagination,
+                                page -> syncPage(page, validators.apply(page), pagination, report)));
+                    })
+                    .doOnError(e -> log.error("Error syncing movie pages: {}", e.getMessage()));
+        }).as(pages -> throughput.measure(pages, page -> page.getMovies().size()));
+    }
+
+    /**
+     * Fetches a range of pages concurrently. Once the range is done, any pages added by a larger
+     * total_pages reported in the meantime are fetched as a further range, so a catalog that grows
+     * mid-crawl is still read to the end.
+     *
+     * @param from the first page to fetch.
+     * @param to the last page to fetch.
+     * @param pagination the pagination state shared by the whole crawl.
+     * @param fetch fetches a single page.
+     * @return Flux<T> The results of every page in the range.
+     */
+    private <T> Flux<T> fetchPages(int from, int to, Pagination pagination, IntFunction<Flux<T>> fetch) {
+        if (from > to) {
+            return Flux.empty();
+        }
+        return Flux.range(from, to - from + 1)
+                .flatMap(fetch::apply, pageFetchLimiter.getMaxLimit())
+                .concatWith(Flux.defer(() -> fetchPages(to + 1, pagination.getTotalPages(), pagination, fetch)));
+    }
+
+    /**
+     * Fetches a specific page of movies from the API, decoding the body as it streams in.
      *
      * @param page the page number to fetch.
-     * @return Mono<MoviesResponse> A reactive Mono containing the page's MoviesResponse.
+     * @param report the report the bytes and movies read are counted in.
+     * @return Flux<MoviesResponse> The page header followed by batches of the page's movies.
      */
-    private Mono<MoviesResponse> fetchPage(int page) {
-        log.info("Fetching page {}", page);
-        return webClient.get()
+    private Flux<MoviesResponse> fetchPage(int page, CrawlReport report) {
+        return instrumentPageFetch(page, () -> webClient.get()
                 .uri(uriBuilder -> uriBuilder.path("/search").queryParam("page", page).build())
                 .header("Accept", "application/json") // Force JSON response
                 .retrieve()
-                .bodyToMono(String.class) // Fetch raw response as String
-                .flatMap(rawResponse -> {
-                    try {
-                        MoviesResponse moviesResponse =
-                                new ObjectMapper().readValue(rawResponse, MoviesResponse.class);
-                        return Mono.just(moviesResponse);
-                    } catch (Exception e) {
-                        log.error("Error deserializing response for page {}: {}", page, e.getMessage());
-                        return Mono.error(e);
+                .bodyToFlux(DataBuffer.class) // Stream the raw body chunks
+                .doOnNext(buffer -> report.bytesRead(buffer.readableByteCount()))
+                .as(moviesPageDecoder::decode)
+                .doOnNext(chunk -> countParsed(chunk, report)));
+    }
+
+    /**
+     * Fetches a page conditionally. A 304 Not Modified answer is reported as an unmodified page;
+     * otherwise the body is hashed while it is decoded, and the new validators are kept.
+     *
+     * @param page the page number to fetch.
+     * @param validators the validators from the previous sync of this page.
+     * @param report the report the bytes and movies read are counted in.
+     * @return Flux<MoviePage> The page, as a single element.
+     */
+    private Flux<MoviePage> fetchPageIfModified(int page, PageValidators validators, CrawlReport report) {
+        return instrumentPageFetch(page, () -> webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/search").queryParam("page", page).build())
+                .header("Accept", "application/json") // Force JSON response
+                .headers(headers -> {
+                    if (validators.getEtag() != null) {
+                        headers.setIfNoneMatch(validators.getEtag());
                     }
-                });
+                    if (validators.getLastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, validators.getLastModified());
+                    }
+                })
+                .exchangeToFlux(response -> {
+                    if (response.statusCode() == HttpStatus.NOT_MODIFIED) {
+                        pagesNotModified.increment();
+                        return response.releaseBody().thenReturn(MoviePage.notModified(page, validators)).flux();
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createException().flatMapMany(Flux::error);
+                    }
+
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    ContentHash contentHash = new ContentHash();
+                    return response.bodyToFlux(DataBuffer.class)
+                            .doOnNext(buffer -> {
+                                report.bytesRead(buffer.readableByteCount());
+                                contentHash.update(buffer); // Hashed before the decoder consumes the buffer
+                            })
+                            .as(moviesPageDecoder::decode)
+                            .doOnNext(chunk -> countParsed(chunk, report))
+                            .collectList()
+                            .map(chunks -> toMoviePage(chunks, contentHash.getValue(), headers.getETag(),
+                                    headers.getFirst(HttpHeaders.LAST_MODIFIED)))
+                            .flux();
+                }));
+    }
+
+    private void countParsed(MoviesResponse chunk, CrawlReport report) {
+        moviesParsed.increment(chunk.getData().size());
+        report.moviesParsed(chunk.getData().size());
+    }
+
+    private MoviePage toMoviePage(List<MoviesResponse> chunks, long contentHash, String etag, String lastModified) {
+        MoviesResponse header = chunks.get(0);
+        List<Movie> movies = new ArrayList<>();
+        chunks.forEach(chunk -> movies.addAll(chunk.getData()));
+        return new MoviePage(header.getPage(), header.getPerPage(), header.getTotalPages(), true, contentHash,
+                etag, lastModified, movies);
+    }
+
+    /**
+     * Times a page fetch and tracks it as in flight until it terminates.
+     */
+    private <T> Flux<T> instrumentPageFetch(int page, Supplier<Flux<T>> fetch) {
+        return Flux.defer(() -> {
+            log.info("Fetching page {}", page);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            pagesInFlight.incrementAndGet();
+
+            return fetch.get()
+                    .doOnError(e -> logFetchError(page, e))
+                    .doFinally(signal -> {
+                        pagesInFlight.decrementAndGet();
+                        recordPageFetch(sample, signal);
+                    });
+        });
+    }
+
+    /**
+     * Logs a failed attempt to fetch a page. Errors that will be retried are only warned about, the
+     * caller logs the page as failed once it gives up on it.
+     */
+    private static void logFetchError(int page, Throwable error) {
+        String reason = error instanceof ResponseParsingException ? "deserializing response for" : "fetching";
+        if (isRetryable(error)) {
+            log.warn("Error {} page {}: {}", reason, page, error.getMessage());
+        } else {
+            log.error("Error {} page {}: {}", reason, page, error.getMessage());
+        }
+    }
+
+    /**
+     * Records the latency of a page fetch. A fetch cancelled by the subscriber is not counted as a fetched page.
+     */
+    private void recordPageFetch(Timer.Sample sample, SignalType signal) {
+        String outcome = signal == SignalType.ON_COMPLETE ? "success"
+                : signal == SignalType.ON_ERROR ? "error" : "cancelled";
+        long latencyNanos = sample.stop(Timer.builder("movies.upstream.page.fetch")
+                .description("Latency of a single upstream /search page fetch")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+
+        if (signal == SignalType.ON_COMPLETE) {
+            pageFetchHedging.record(latencyNanos);
+            pagesFetched.increment();
+        } else if (signal == SignalType.ON_ERROR) {
+            pagesFailed.increment();
+        }
     }
 
     /**
      * Fetches movies for a specific page by transforming the MoviesResponse into a Flux of movies.
      *
      * @param page the page number to fetch movies from.
+     * @param pagination the pagination state the page header is checked against.
+     * @param report the report the page is recorded in if it fails.
      * @return Flux<Movie> A reactive stream of Movie objects from the specified page.
      */
-    private Flux<Movie> fetchPageMovies(int page) {
-        return fetchPage(page)
-                .flatMapMany(response -> Flux.fromIterable(response.getData()))
-                .onErrorResume(e -> {
-                    log.error("Failed to fetch movies from page {}: {}", page, e.getMessage());
+    private Flux<Movie> fetchPageMovies(int page, Pagination pagination, CrawlReport report) {
+        return resilientFetch(page, report, () -> fetchPage(page, report))
+                .switchOnFirst((header, chunks) -> {
+                    if (header.hasValue()) {
+                        pagination.observe(page, header.get().getPerPage(), header.get().getTotalPages());
+                    }
+                    return chunks;
+                })
+                .concatMapIterable(MoviesResponse::getData)
+                .onErrorResume(e -> !failsTheCrawl(e), e -> {
+                    log.error("Failed to fetch movies from page {}, the crawl will be partial: {}", page, e.getMessage());
+                    report.pageFailed(page);
                     return Flux.empty();
                 });
     }
+
+    /**
+     * Syncs a page after page 1, checking its header against the pagination of the sync.
+     *
+     * @param page the page number to sync.
+     * @param validators the validators from the previous sync of this page.
+     * @param pagination the pagination state the page header is checked against.
+     * @param report the report the page is recorded in if it fails.
+     * @return Flux<MoviePage> The page, or nothing if it could not be fetched.
+     */
+    private Flux<MoviePage> syncPage(int page, PageValidators validators, Pagination pagination, CrawlReport report) {
+        return resilientFetch(page, report, () -> fetchPageIfModified(page, validators, report))
+                .doOnNext(result -> {
+                    if (result.isModified()) {
+                        pagination.observe(page, result.getPerPage(), result.getTotalPages());
+                    }
+                })
+                .onErrorResume(e -> !failsTheCrawl(e), e -> {
+                    log.error("Failed to sync page {}, keeping its previous state: {}", page, e.getMessage());
+                    report.pageFailed(page);
+                    return Flux.empty();
+                });
+    }
+
+    /**
+     * Runs a page fetch under the circuit breaker and the limiter, hedging it when it straggles and
+     * retrying it with jittered backoff when it fails before emitting anything. A fetch that already
+     * emitted part of its page is not retried, so no movie is emitted twice.
+     *
+     * @param page the page number, for logging.
+     * @param report the report the page, its retries and its hedges are counted in.
+     * @param fetch fetches the page once.
+     * @return Flux<T> The signals of the first attempt that succeeds, or the error of the last attempt.
+     */
+    private <T> Flux<T> resilientFetch(int page, CrawlReport report, Supplier<Flux<T>> fetch) {
+        return Flux.defer(() -> {
+            report.pageAttempted();
+            AtomicBoolean emitted = new AtomicBoolean();
+            Supplier<Flux<T>> attempt = () -> pageFetchCircuitBreaker.run(() -> pageFetchLimiter.run(fetch));
+
+            return hedged(page, report, attempt)
+                    .doOnNext(item -> emitted.set(true))
+                    .retryWhen(pageFetchRetry
+                            .filter(e -> !emitted.get() && isRetryable(e))
+                            .doBeforeRetry(signal -> {
+                                pageRetries.increment();
+                                report.retried();
+                                log.warn("Retrying page {} after attempt {} failed: {}", page,
+                                        signal.totalRetries() + 1, signal.failure().getMessage());
+                            })
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .doOnComplete(report::pageSucceeded);
+        });
+    }
+
+    /**
+     * Sends a duplicate of an attempt that has not answered within the hedge delay; whichever
+     * attempt signals first is used and the other is cancelled.
+     */
+    private <T> Flux<T> hedged(int page, CrawlReport report, Supplier<Flux<T>> attempt) {
+        return pageFetchHedging.delay()
+                .map(delay -> Flux.firstWithSignal(attempt.get(), Mono.delay(delay)
+                        .doOnNext(tick -> {
+                            pageHedges.increment();
+                            report.hedged();
+                            log.info("Page {} is slower than {} ms, sending a hedged request", page, delay.toMillis());
+                        })
+                        .thenMany(Flux.defer(attempt))
+                        // A hedge the breaker rejects must not win over the attempt it was sent for
+                        .onErrorResume(CircuitBreakerOpenException.class, e -> {
+                            log.debug("Hedged request for page {} was rejected: {}", page, e.getMessage());
+                            return Flux.never();
+                        })))
+                .orElseGet(attempt);
+    }
+
+    /**
+     * An open circuit breaker fails the whole crawl, so that the last good snapshot keeps being served.
+     * A page rejected while the breaker is half-open only misses that page.
+     */
+    private static boolean failsTheCrawl(Throwable error) {
+        return error instanceof CircuitBreakerOpenException && !((CircuitBreakerOpenException) error).isHalfOpen();
+    }
+
+    /**
+     * Client errors other than 429 Too Many Requests would fail again, and an open circuit breaker
+     * must not be hammered; anything else (I/O errors, timeouts, 5xx, truncated bodies) is retried.
+     */
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof CircuitBreakerOpenException) {
+            return false;
+        }
+        if (error instanceof WebClientResponseException) {
+            WebClientResponseException response = (WebClientResponseException) error;
+            return response.getStatusCode().is5xxServerError() || response.getRawStatusCode() == 429;
+        }
+        return true;
+    }
+
+    /**
+     * Pagination of one crawl, as announced by page 1 and revised by the headers of later pages.
+     */
+    private class Pagination {
+        private final AtomicInteger perPage;
+        private final AtomicInteger totalPages;
+
+        /**
+         * @param perPage the per_page of page 1, or 0 if page 1 was not modified and carried no header.
+         * @param totalPages the total_pages of page 1.
+         */
+        Pagination(int perPage, int totalPages) {
+            this.perPage = new AtomicInteger(perPage);
+            this.totalPages = new AtomicInteger(totalPages);
+        }
+
+        int getTotalPages() {
+            return totalPages.get();
+        }
+
+        void observe(int page, int pagePerPage, int pageTotalPages) {
+            perPage.compareAndSet(0, pagePerPage);
+            if (pagePerPage != perPage.get()) {
+                // Page boundaries moved: pages fetched before and after the change may overlap or leave gaps
+                paginationChanges.increment();
+                log.warn("Page {} reports per_page {} but the crawl started with {}", page, pagePerPage, perPage.get());
+            }
+            int previous = totalPages.getAndAccumulate(pageTotalPages, Math::max);
+            if (pageTotalPages > previous) {
+                paginationChanges.increment();
+                log.info("Page {} reports total_pages {}, up from {}; the extra pages will be fetched",
+                        page, pageTotalPages, previous);
+            } else if (pageTotalPages < previous) {
+                paginationChanges.increment();
+                log.info("Page {} reports total_pages {}, down from {}", page, pageTotalPages, previous);
+            }
+        }
+    }
 }
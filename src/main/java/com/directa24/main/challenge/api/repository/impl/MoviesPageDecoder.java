@@ -0,0 +1,202 @@
+package com.directa24.main.challenge.api.repository.impl;
+
+import com.directa24.main.challenge.api.exception.ResponseParsingException;
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MoviesResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streaming decoder for /search pages. Body chunks are fed into a non-blocking Jackson parser
+ * created from the shared application ObjectMapper, so movies are emitted as soon as they are
+ * parsed and the page body is never buffered as a whole.
+ */
+@Component
+public class MoviesPageDecoder {
+
+    private static final String DATA_FIELD = "data";
+
+    private final ObjectMapper objectMapper;
+
+    public MoviesPageDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Decodes a page from its body chunks. The first element is always the page header
+     * (page, per_page, total and total_pages with no data), emitted as soon as it is known;
+     * every following element carries the same header and the movies parsed from one chunk.
+     *
+     * @param body The raw body of a /search response.
+     * @return Flux<MoviesResponse> The page header followed by batches of parsed movies.
+     */
+    public Flux<MoviesResponse> decode(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            PageParser pageParser = new PageParser();
+            return body
+                    .concatMapIterable(pageParser::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(pageParser.endOfInput())))
+                    .doFinally(signal -> pageParser.close());
+        });
+    }
+
+    /**
+     * Parser state for a single page body.
+     */
+    private class PageParser {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final MoviesResponse header = new MoviesResponse(0, 0, 0, 0, Collections.emptyList());
+        private final List<Movie> pendingMovies = new ArrayList<>();
+
+        private boolean totalPagesSeen;
+        private boolean headerEmitted;
+        private boolean rootClosed;
+        private boolean inData;
+        private int depth;
+        private String field;
+        private TokenBuffer movieTokens;
+        private int movieDepth;
+
+        PageParser() {
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+                this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            } catch (IOException e) {
+                throw new ResponseParsingException("Unable to create JSON parser: " + e.getMessage(), e);
+            }
+        }
+
+        List<MoviesResponse> feed(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                feeder.feedInput(bytes, 0, bytes.length);
+                return parseAvailable();
+            } catch (IOException e) {
+                throw new ResponseParsingException("Invalid movies page: " + e.getMessage(), e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<MoviesResponse> endOfInput() {
+            try {
+                feeder.endOfInput();
+                List<MoviesResponse> chunks = parseAvailable();
+                if (!rootClosed) {
+                    throw new ResponseParsingException("Truncated movies page");
+                }
+                if (!headerEmitted) {
+                    // total_pages came after the data, or not at all: the header is only known now
+                    chunks.add(chunk(Collections.emptyList()));
+                    chunks.add(chunk(new ArrayList<>(pendingMovies)));
+                    headerEmitted = true;
+                }
+                return chunks;
+            } catch (IOException e) {
+                throw new ResponseParsingException("Invalid movies page: " + e.getMessage(), e);
+            }
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // Nothing left to release
+            }
+        }
+
+        private List<MoviesResponse> parseAvailable() throws IOException {
+            List<MoviesResponse> chunks = new ArrayList<>(2);
+            List<Movie> movies = headerEmitted ? new ArrayList<>() : pendingMovies;
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (movieTokens != null) {
+                    copyMovieToken(token, movies);
+                } else if (inData && depth == 2 && token == JsonToken.START_OBJECT) {
+                    movieTokens = new TokenBuffer(parser);
+                    movieTokens.copyCurrentEvent(parser);
+                    movieDepth = 1;
+                } else if (token.isStructStart()) {
+                    if (depth == 0 && token != JsonToken.START_OBJECT) {
+                        throw new ResponseParsingException("Movies page must be a JSON object");
+                    }
+                    depth++;
+                    if (depth == 2 && token == JsonToken.START_ARRAY && DATA_FIELD.equals(field)) {
+                        inData = true;
+                        if (totalPagesSeen && !headerEmitted) {
+                            chunks.add(chunk(Collections.emptyList()));
+                            headerEmitted = true;
+                            movies = new ArrayList<>();
+                        }
+                    }
+                } else if (token.isStructEnd()) {
+                    depth--;
+                    inData = inData && depth > 1;
+                    rootClosed = depth == 0;
+                } else if (token == JsonToken.FIELD_NAME) {
+                    if (depth == 1) {
+                        field = parser.getCurrentName();
+                    }
+                } else if (depth == 1 && token == JsonToken.VALUE_NUMBER_INT) {
+                    readHeaderField();
+                }
+            }
+
+            if (headerEmitted && !movies.isEmpty()) {
+                chunks.add(chunk(movies));
+            }
+            return chunks;
+        }
+
+        private void copyMovieToken(JsonToken token, List<Movie> movies) throws IOException {
+            movieTokens.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                movieDepth++;
+            } else if (token.isStructEnd() && --movieDepth == 0) {
+                movies.add(objectMapper.readValue(movieTokens.asParser(objectMapper), Movie.class));
+                movieTokens = null;
+            }
+        }
+
+        private void readHeaderField() throws IOException {
+            switch (field) {
+                case "page":
+                    header.setPage(parser.getIntValue());
+                    break;
+                case "per_page":
+                    header.setPerPage(parser.getIntValue());
+                    break;
+                case "total":
+                    header.setTotal(parser.getIntValue());
+                    break;
+                case "total_pages":
+                    header.setTotalPages(parser.getIntValue());
+                    totalPagesSeen = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private MoviesResponse chunk(List<Movie> movies) {
+            return new MoviesResponse(header.getPage(), header.getPerPage(), header.getTotal(),
+                    header.getTotalPages(), movies);
+        }
+    }
+}
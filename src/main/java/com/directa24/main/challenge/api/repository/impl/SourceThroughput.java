@@ -0,0 +1,71 @@
+package com.directa24.main.challenge.api.repository.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * Measures how fast a movie source delivers records: every record is counted, and the records/s
+ * of each complete read is logged and kept as a gauge, tagged with the name of the source.
+ */
+@Slf4j
+final class SourceThroughput {
+
+    private final String source;
+    private final Counter records;
+    private volatile double lastRecordsPerSecond = Double.NaN;
+
+    SourceThroughput(String source, MeterRegistry meterRegistry) {
+        this.source = source;
+        this.records = Counter.builder("movies.source.records")
+                .description("Movie records read from a source")
+                .tag("source", source)
+                .register(meterRegistry);
+        Gauge.builder("movies.source.throughput", this, SourceThroughput::getLastRecordsPerSecond)
+                .description("Records per second of the last complete read of a source")
+                .tag("source", source)
+                .baseUnit("records/s")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param read A read of the source, one record per element.
+     * @return The same read, measured from subscription to completion.
+     */
+    <T> Flux<T> measure(Flux<T> read) {
+        return measure(read, element -> 1);
+    }
+
+    /**
+     * @param read A read of the source.
+     * @param recordCount The number of records an element of the read carries.
+     * @return The same read, measured from subscription to completion.
+     */
+    <T> Flux<T> measure(Flux<T> read, ToIntFunction<T> recordCount) {
+        return Flux.defer(() -> {
+            long startedAt = System.nanoTime();
+            AtomicLong count = new AtomicLong();
+            return read
+                    .doOnNext(element -> {
+                        int elementRecords = recordCount.applyAsInt(element);
+                        count.addAndGet(elementRecords);
+                        records.increment(elementRecords);
+                    })
+                    .doOnComplete(() -> {
+                        double seconds = Math.max(System.nanoTime() - startedAt, 1) / 1e9;
+                        lastRecordsPerSecond = count.get() / seconds;
+                        log.info("Read {} records from the {} source in {} ms ({} records/s)", count.get(), source,
+                                Math.round(seconds * 1000), Math.round(lastRecordsPerSecond));
+                    });
+        });
+    }
+
+    double getLastRecordsPerSecond() {
+        return lastRecordsPerSecond;
+    }
+}
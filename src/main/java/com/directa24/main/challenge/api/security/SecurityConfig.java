@@ -1,15 +1,58 @@
 package com.directa24.main.challenge.api.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
 
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
+    private static final String PROMETHEUS_PATH = "/actuator/prometheus";
+    private static final String SCRAPE_ROLE = "METRICS";
+
+    /**
+     * The Prometheus scrape endpoint exposes upstream URLs, cache and crawl metrics, so it is closed
+     * unless api.metrics.scrape.password is set; scrapers then authenticate with HTTP Basic as
+     * api.metrics.scrape.username. The password may be given plain or as a {id}-prefixed hash.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityWebFilterChain prometheusSecurityWebFilterChain(
+            ServerHttpSecurity http,
+            @Value("${api.metrics.scrape.username:prometheus}") String username,
+            @Value("${api.metrics.scrape.password:}") String password) {
+        http.securityMatcher(ServerWebExchangeMatchers.pathMatchers(PROMETHEUS_PATH))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .cors(ServerHttpSecurity.CorsSpec::disable);
+        if (password.isEmpty()) {
+            http.authorizeExchange(exchanges -> exchanges.anyExchange().denyAll())
+                    .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable);
+            return http.build();
+        }
+
+        PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        MapReactiveUserDetailsService scrapers = new MapReactiveUserDetailsService(User.withUsername(username)
+                .password(password.startsWith("{") ? password : encoder.encode(password))
+                .roles(SCRAPE_ROLE)
+                .build());
+        http.authorizeExchange(exchanges -> exchanges.anyExchange().hasRole(SCRAPE_ROLE))
+                .httpBasic(basic -> basic.authenticationManager(
+                        new UserDetailsRepositoryReactiveAuthenticationManager(scrapers)));
+        return http.build();
+    }
+
     @Bean
     public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
         http.csrf(ServerHttpSecurity.CsrfSpec::disable)
@@ -18,7 +61,8 @@ public class SecurityConfig {
                                 "/v3/api-docs/**",
                                 "/swagger-ui.html",
                                 "/swagger-ui/**",
-                                "/webjars/swagger-ui/**").permitAll()
+                                "/webjars/swagger-ui/**",
+                                "/actuator/health").permitAll()
                         .anyExchange().authenticated()
 
                 )
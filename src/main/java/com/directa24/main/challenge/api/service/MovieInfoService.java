@@ -1,11 +1,27 @@
 package com.directa24.main.challenge.api.service;
 
+import com.directa24.main.challenge.api.dto.DirectorStreamEvent;
+import com.directa24.main.challenge.api.model.CatalogResult;
+import com.directa24.main.challenge.api.model.DirectorCount;
+import com.directa24.main.challenge.api.model.MovieFilter;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 
 public interface MovieInfoService {
 
-    public Mono<List<String>> getDirectors(int threshold);
+    public Mono<CatalogResult<Long>> getCatalogVersion();
+
+    public Mono<CatalogResult<List<String>>> getDirectors(int threshold);
+
+    public Mono<CatalogResult<List<String>>> getDirectors(int threshold, MovieFilter filter);
+
+    public Mono<CatalogResult<Map<Integer, List<String>>>> getDirectors(List<Integer> thresholds);
+
+    public Mono<CatalogResult<List<DirectorCount>>> getTopDirectors(int limit);
+
+    public Flux<DirectorStreamEvent> streamDirectors(int threshold);
 
 }
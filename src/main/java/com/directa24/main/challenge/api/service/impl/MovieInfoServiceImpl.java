@@ -1,52 +1,209 @@
 package com.directa24.main.challenge.api.service.impl;
 
-import com.directa24.main.challenge.api.model.Movie;
-import com.directa24.main.challenge.api.repository.MovieRepository;
+import com.directa24.main.challenge.api.catalog.CatalogSnapshot;
+import com.directa24.main.challenge.api.catalog.DirectorNames;
+import com.directa24.main.challenge.api.catalog.MovieCatalog;
+import com.directa24.main.challenge.api.dto.DirectorStreamEvent;
+import com.directa24.main.challenge.api.model.CatalogResult;
+import com.directa24.main.challenge.api.model.DirectorCount;
+import com.directa24.main.challenge.api.model.MovieFilter;
 import com.directa24.main.challenge.api.service.MovieInfoService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
 public class MovieInfoServiceImpl implements MovieInfoService {
 
-    private final MovieRepository movieRepository;
-    private final int PROCESSING_THRESHOLD;
+    static final String DIRECTORS_CACHE = "directorsCache";
 
-    public MovieInfoServiceImpl(@Value("${configuration.process.movies}") int processingThreshold,
-                                MovieRepository movieRepository) {
-        this.PROCESSING_THRESHOLD = processingThreshold;
-        this.movieRepository = movieRepository;
+    private final MovieCatalog movieCatalog;
+    private final CacheManager cacheManager;
+
+    public MovieInfoServiceImpl(MovieCatalog movieCatalog, CacheManager cacheManager) {
+        this.movieCatalog = movieCatalog;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Looks up the catalog snapshot requests are answered from right now, without answering a query, so
+     * a caller holding a response of that snapshot can serve it again without running the query.
+     *
+     * @return A Mono emitting the version of the current catalog snapshot.
+     */
+    @Override
+    public Mono<CatalogResult<Long>> getCatalogVersion() {
+        return movieCatalog
+                .snapshot()
+                .map(snapshot -> result(snapshot, snapshot.getVersion()));
     }
 
     /**
      * Fetches a list of distinct directors who have directed more movies than the specified threshold.
-     * Results are cached for performance improvement.
+     * Every threshold is answered from the director index of the current catalog snapshot, and the
+     * result is cached per snapshot version so a refresh never serves results of an older catalog;
+     * results of a partial snapshot are not cached.
      *
      * @param threshold The minimum number of movies directed by a director to be included in the result.
      * @return A Mono emitting a list of director names satisfying the threshold condition.
      */
     @Override
-    @Cacheable(value = "directorsCache", key = "#threshold")
-    public Mono<List<String>> getDirectors(int threshold) {
-        return movieRepository
-                .fetchAllMovies()
-                .filter(movie -> movie.getDirector() != null)
-                .window(PROCESSING_THRESHOLD) // Process movies in batches to reduce memory pressure
-                .flatMap(batch -> batch
-                        .groupBy(Movie::getDirector)
-                        .flatMap(group -> group.count()
-                                .filter(count -> count > threshold) // Log directors passing the threshold
-                                .map(count -> group.key()))
-                )
-                .distinct() // Ensure distinct directors
-                .sort() // Sort the directors alphabetically
-                .collectList();
+    public Mono<CatalogResult<List<String>>> getDirectors(int threshold) {
+        return movieCatalog
+                .snapshot()
+                .map(snapshot -> result(snapshot, getDirectorsFrom(snapshot, threshold)));
+    }
+
+    /**
+     * Fetches the directors who have directed more movies matching the filter than the specified threshold.
+     * The matching movies are selected by intersecting the secondary indexes of the current catalog snapshot,
+     * and the result is cached per snapshot version, threshold and filter.
+     *
+     * @param threshold The minimum number of matching movies directed by a director to be included in the result.
+     * @param filter The criteria the counted movies must match.
+     * @return A Mono emitting a list of director names satisfying the threshold condition.
+     */
+    @Override
+    public Mono<CatalogResult<List<String>>> getDirectors(int threshold, MovieFilter filter) {
+        if (filter.isEmpty()) {
+            return getDirectors(threshold);
+        }
+        return movieCatalog
+                .snapshot()
+                .map(snapshot -> result(snapshot, cached(snapshot,
+                        new SimpleKey(snapshot.getVersion(), threshold, filter),
+                        () -> snapshot.getIndexes().directorsAbove(threshold, filter))));
+    }
+
+    /**
+     * Fetches the directors above each of the given thresholds. Every threshold is answered from the
+     * same catalog snapshot, so the results are consistent with each other and a batch costs a single
+     * snapshot lookup instead of one request per threshold.
+     *
+     * @param thresholds The thresholds to answer; duplicates are answered once.
+     * @return A Mono emitting the director names for each threshold, in the order the thresholds were given.
+     */
+    @Override
+    public Mono<CatalogResult<Map<Integer, List<String>>>> getDirectors(List<Integer> thresholds) {
+        return movieCatalog
+                .snapshot()
+                .map(snapshot -> {
+                    Map<Integer, List<String>> directors = new LinkedHashMap<>();
+                    thresholds.forEach(threshold -> directors.computeIfAbsent(threshold,
+                            key -> getDirectorsFrom(snapshot, key)));
+                    return result(snapshot, directors);
+                });
+    }
+
+    /**
+     * Fetches the directors with the most movies from the director index of the current catalog snapshot.
+     *
+     * @param limit The maximum number of directors to return.
+     * @return A Mono emitting up to {@code limit} directors with their movie counts, by movie count
+     * (descending) and then by name.
+     */
+    @Override
+    public Mono<CatalogResult<List<DirectorCount>>> getTopDirectors(int limit) {
+        return movieCatalog
+                .snapshot()
+                .map(snapshot -> result(snapshot, snapshot.getDirectorIndex().top(limit)));
+    }
+
+    /**
+     * Streams the directors who have directed more movies than the specified threshold, followed by a
+     * summary event. A loaded snapshot answers at once in alphabetical order; while the catalog is cold,
+     * the movies are counted as the catalog load crawls them and each director is emitted as soon as their
+     * running count crosses the threshold, instead of after the whole crawl.
+     *
+     * @param threshold The minimum number of movies directed by a director to be included in the result.
+     * @return A Flux emitting one event per matching director and a final summary event.
+     */
+    @Override
+    public Flux<DirectorStreamEvent> streamDirectors(int threshold) {
+        return movieCatalog
+                .currentSnapshot()
+                .flatMapMany(snapshot -> snapshotEvents(snapshot, threshold))
+                .switchIfEmpty(Flux.defer(() -> crawlEvents(threshold)));
+    }
+
+    private Flux<DirectorStreamEvent> snapshotEvents(CatalogSnapshot snapshot, int threshold) {
+        List<String> directors = getDirectorsFrom(snapshot, threshold);
+        return Flux.fromIterable(directors)
+                .map(DirectorStreamEvent::director)
+                .concatWithValues(DirectorStreamEvent.summary(directors.size(), "snapshot",
+                        snapshot.getVersion(), null, snapshot.isPartial()));
+    }
+
+    /**
+     * Follows the catalog load the cold catalog is waiting for, so a stream costs no crawl of its own.
+     * A load that read no movies, such as one adopting the snapshot of another replica, is answered
+     * from the snapshot it loaded. A director is emitted as soon as it passes the threshold, under the
+     * spelling most of the movies read so far use.
+     */
+    private Flux<DirectorStreamEvent> crawlEvents(int threshold) {
+        DirectorNames directorNames = new DirectorNames();
+        int[][] counts = {new int[16]};
+        long[] movies = {0};
+        int[] directors = {0};
+        return movieCatalog
+                .followLoad()
+                .doOnNext(movie -> movies[0]++)
+                .concatMapIterable(movie -> {
+                    List<DirectorStreamEvent> passed = new ArrayList<>(0);
+                    for (int id : directorNames.credit(movie.getDirector(), 1)) {
+                        if (id >= counts[0].length) {
+                            counts[0] = Arrays.copyOf(counts[0], Math.max(id + 1, counts[0].length << 1));
+                        }
+                        if (++counts[0][id] == threshold + 1) {
+                            directors[0]++;
+                            passed.add(DirectorStreamEvent.director(directorNames.name(id)));
+                        }
+                    }
+                    return passed;
+                })
+                .concatWith(movieCatalog.snapshot().flatMapMany(snapshot -> movies[0] == 0
+                        ? snapshotEvents(snapshot, threshold)
+                        : Flux.just(DirectorStreamEvent.summary(directors[0], "crawl", snapshot.getVersion(),
+                                movies[0], snapshot.isPartial()))));
+    }
+
+    private <T> CatalogResult<T> result(CatalogSnapshot snapshot, T value) {
+        return new CatalogResult<>(value, snapshot.getVersion(), snapshot.getLoadedAt(), snapshot.getCrawl(),
+                movieCatalog.refreshDueAt(snapshot));
+    }
+
+    private List<String> getDirectorsFrom(CatalogSnapshot snapshot, int threshold) {
+        return cached(snapshot, new SimpleKey(snapshot.getVersion(), threshold),
+                () -> snapshot.getDirectorIndex().directorsAbove(threshold));
+    }
+
+    /**
+     * Only results of complete snapshots are cached: a partial snapshot is refreshed soon, and its
+     * results would otherwise crowd out those of the complete snapshot that replaces it.
+     */
+    private List<String> cached(CatalogSnapshot snapshot, SimpleKey key, Supplier<List<String>> directors) {
+        if (snapshot.isPartial()) {
+            return directors.get();
+        }
+        return directorsCache().get(key, directors::get);
+    }
+
+    private Cache directorsCache() {
+        return Objects.requireNonNull(cacheManager.getCache(DIRECTORS_CACHE),
+                "Cache " + DIRECTORS_CACHE + " is not configured");
     }
 
 }
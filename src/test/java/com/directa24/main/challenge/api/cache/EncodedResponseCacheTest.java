@@ -0,0 +1,66 @@
+package com.directa24.main.challenge.api.cache;
+
+import com.directa24.main.challenge.api.dto.DirectorsResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EncodedResponseCacheTest {
+
+    private final EncodedResponseCache cache = new EncodedResponseCache(
+            new CaffeineCacheManager(EncodedResponseCache.RESPONSES_CACHE), new ObjectMapper());
+    private final AtomicInteger builds = new AtomicInteger();
+
+    private DirectorsResponse build(String... directors) {
+        builds.incrementAndGet();
+        return new DirectorsResponse(List.of(directors));
+    }
+
+    private static String text(EncodedResponse response) {
+        DataBuffer buffer = response.toDataBuffer();
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testBodyIsSerializedOncePerKey() {
+        EncodedResponse first = cache.get(new SimpleKey(1L, 3), true, () -> build("Woody Allen"));
+        EncodedResponse second = cache.get(new SimpleKey(1L, 3), true, () -> build("Woody Allen"));
+
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+        assertEquals("{\"directors\":[\"Woody Allen\"]}", text(first));
+        assertEquals(text(first), text(second)); // Each response reads its own view of the bytes
+    }
+
+    @Test
+    void testUncacheableBodyIsSerializedEveryTime() {
+        cache.get(new SimpleKey(1L, 3), false, () -> build("Woody Allen"));
+        cache.get(new SimpleKey(1L, 3), false, () -> build("Woody Allen"));
+
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void testETagIsStrongAndFollowsTheBytes() {
+        EncodedResponse woody = cache.get(new SimpleKey(1L, 3), true, () -> build("Woody Allen"));
+        EncodedResponse sameBytes = cache.get(new SimpleKey(2L, 3), true, () -> build("Woody Allen"));
+        EncodedResponse other = cache.get(new SimpleKey(2L, 4), true, () -> build("Martin Scorsese"));
+
+        assertEquals(woody.getEtag(), sameBytes.getEtag());
+        assertNotEquals(woody.getEtag(), other.getEtag());
+        assertEquals('"', woody.getEtag().charAt(0));
+        assertEquals(woody.size(), woody.toDataBuffer().readableByteCount());
+    }
+}
@@ -0,0 +1,85 @@
+package com.directa24.main.challenge.api.cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class InMemoryRemoteCacheStoreTest {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-01-01T00:00:00Z"));
+    private final InMemoryRemoteCacheStore store = new InMemoryRemoteCacheStore(new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    });
+
+    @Test
+    void testValuesExpireAfterTheirTtl() {
+        store.set("key", new byte[]{1, 2}, Duration.ofSeconds(10)).block();
+
+        StepVerifier.create(store.get("key"))
+                .assertNext(value -> assertArrayEquals(new byte[]{1, 2}, value))
+                .verifyComplete();
+
+        now.set(now.get().plusSeconds(10));
+        StepVerifier.create(store.get("key")).verifyComplete();
+    }
+
+    @Test
+    void testSetIfAbsentGrantsOneLeaseUntilReleasedOrExpired() {
+        StepVerifier.create(store.setIfAbsent("lease", new byte[]{1}, Duration.ofSeconds(10))).expectNext(true).verifyComplete();
+        StepVerifier.create(store.setIfAbsent("lease", new byte[]{2}, Duration.ofSeconds(10))).expectNext(false).verifyComplete();
+
+        StepVerifier.create(store.deleteIfEquals("lease", new byte[]{2})).expectNext(false).verifyComplete();
+        StepVerifier.create(store.deleteIfEquals("lease", new byte[]{1})).expectNext(true).verifyComplete();
+        StepVerifier.create(store.setIfAbsent("lease", new byte[]{2}, Duration.ofSeconds(10))).expectNext(true).verifyComplete();
+
+        now.set(now.get().plusSeconds(10));
+        StepVerifier.create(store.setIfAbsent("lease", new byte[]{3}, Duration.ofSeconds(10))).expectNext(true).verifyComplete();
+    }
+
+    @Test
+    void testIncrementStartsFromZero() {
+        StepVerifier.create(store.increment("version").concatWith(store.increment("version")))
+                .expectNext(1L, 2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void testPublishReachesEverySubscriber() {
+        StepVerifier.create(store.subscribe("channel").take(1).mergeWith(store.subscribe("channel").take(1)))
+                .then(() -> store.publish("channel", new byte[]{7}).block())
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void testStoredValuesAreCopies() {
+        byte[] value = {1};
+        store.set("key", value, Duration.ofSeconds(10)).block();
+        value[0] = 2;
+
+        StepVerifier.create(store.get("key"))
+                .assertNext(stored -> assertArrayEquals(new byte[]{1}, stored))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,126 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.model.CrawlSummary;
+import com.directa24.main.challenge.mocks.MovieTestDataHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private CatalogSnapshot snapshot() {
+        StringIntHashMap counts = new StringIntHashMap();
+        Map.of("Martin Scorsese", 3, "Woody Allen", 3, "Pedro Almodóvar", 1, "M. Night Shyamalan", 2)
+                .forEach(counts::add);
+        return new CatalogSnapshot(42, Instant.now().truncatedTo(ChronoUnit.MILLIS), DirectorIndex.of(counts),
+                MovieColumns.builder().add(MovieTestDataHelper.movieMock1()).build(),
+                new CrawlSummary(12, 10, 2, 1, 3, 1, 123_456, 240, Duration.ofMillis(812)));
+    }
+
+    @Test
+    void testRoundTrip() {
+        CatalogSnapshotStore store = new CatalogSnapshotStore(true, directory.resolve("nested/catalog.snapshot"));
+        CatalogSnapshot saved = snapshot();
+
+        store.save(saved);
+        CatalogSnapshot restored = store.load().orElseThrow();
+
+        assertEquals(saved.getVersion(), restored.getVersion());
+        assertEquals(saved.getLoadedAt(), restored.getLoadedAt());
+        assertEquals(4, restored.getDirectorIndex().size());
+        assertEquals(List.of("Martin Scorsese", "Woody Allen"), restored.getDirectorIndex().directorsAbove(2));
+        assertEquals(List.of("M. Night Shyamalan", "Martin Scorsese", "Pedro Almodóvar", "Woody Allen"),
+                restored.getDirectorIndex().directorsAbove(0));
+        assertEquals(1, restored.getMovies().size());
+        MovieColumnsTest.assertSameRow(saved.getMovies(), 0, restored.getMovies(), 0);
+        assertEquals(saved.getCrawl(), restored.getCrawl());
+    }
+
+    @Test
+    void testSaveReplacesPreviousSnapshotWithoutLeftovers() throws IOException {
+        CatalogSnapshotStore store = new CatalogSnapshotStore(true, directory.resolve("catalog.snapshot"));
+
+        store.save(snapshot());
+        store.save(new CatalogSnapshot(43, Instant.now(), DirectorIndex.empty(), MovieColumns.empty()));
+
+        assertEquals(43, store.load().orElseThrow().getVersion());
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testMissingFileIsIgnored() {
+        CatalogSnapshotStore store = new CatalogSnapshotStore(true, directory.resolve("catalog.snapshot"));
+
+        assertEquals(Optional.empty(), store.load());
+    }
+
+    @Test
+    void testCorruptedFileIsIgnored() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshotStore store = new CatalogSnapshotStore(true, file);
+        store.save(snapshot());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x1;
+        Files.write(file, bytes);
+
+        assertFalse(store.load().isPresent());
+    }
+
+    @Test
+    void testTruncatedFileIsIgnored() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshotStore store = new CatalogSnapshotStore(true, file);
+        store.save(snapshot());
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, 20));
+
+        assertFalse(store.load().isPresent());
+    }
+
+    @Test
+    void testOtherFormatVersionIsIgnored() throws IOException {
+        Path file = directory.resolve("catalog.snapshot");
+        byte[] bytes = CatalogSnapshotCodec.encode(snapshot());
+        ByteBuffer.wrap(bytes).putInt(4, CatalogSnapshotCodec.FORMAT_VERSION + 1);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 8);
+        ByteBuffer.wrap(bytes).putLong(bytes.length - 8, crc.getValue()); // Valid checksum, unknown format
+        Files.write(file, bytes);
+
+        assertFalse(new CatalogSnapshotStore(true, file).load().isPresent());
+    }
+
+    @Test
+    void testDisabledStoreNeitherReadsNorWrites() {
+        Path file = directory.resolve("catalog.snapshot");
+        CatalogSnapshotStore store = new CatalogSnapshotStore(false, file);
+
+        store.save(snapshot());
+
+        assertFalse(Files.exists(file));
+        assertTrue(store.load().isEmpty());
+    }
+}
@@ -0,0 +1,152 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MoviePage;
+import com.directa24.main.challenge.api.model.PageValidators;
+import com.directa24.main.challenge.mocks.MovieTestDataHelper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CatalogSyncStateTest {
+
+    private static Movie movie(String title, String director) {
+        return MovieTestDataHelper.createMovie(title, "2000", "PG", "1 jan 2000", "90 min", "Drama", director,
+                "Writer", "Actor");
+    }
+
+    private static MoviePage page(int page, int totalPages, long contentHash, String... directors) {
+        List<Movie> movies = IntStream.range(0, directors.length)
+                .mapToObj(i -> movie("Movie " + page + "." + i + " of " + contentHash, directors[i]))
+                .collect(Collectors.toList());
+        return page(page, totalPages, contentHash, movies);
+    }
+
+    private static MoviePage page(int page, int totalPages, long contentHash, List<Movie> movies) {
+        return new MoviePage(page, 2, totalPages, true, contentHash, "\"" + page + "-" + contentHash + "\"",
+                "Mon, 01 Jan 2024 00:00:00 GMT", movies);
+    }
+
+    private static DirectorIndex sync(CatalogSyncState state, MoviePage... pages) {
+        state.begin();
+        Arrays.stream(pages).forEach(state::apply);
+        return state.finish();
+    }
+
+    @Test
+    void testFirstSyncCountsEveryPage() {
+        CatalogSyncState state = new CatalogSyncState();
+
+        DirectorIndex index = sync(state, page(1, 2, 1, "A", "B"), page(2, 2, 2, "A", null));
+
+        assertEquals(List.of("A"), index.directorsAbove(1));
+        assertEquals(2, state.getChangedPages());
+        assertNull(new CatalogSyncState().validators(1).getEtag());
+        assertEquals("\"1-1\"", state.validators(1).getEtag());
+        assertEquals(2, state.validators(1).getTotalPages());
+    }
+
+    @Test
+    void testChangedPageReplacesItsPreviousCounts() {
+        CatalogSyncState state = new CatalogSyncState();
+        sync(state, page(1, 2, 1, "A", "B"), page(2, 2, 2, "A", "C"));
+
+        DirectorIndex index = sync(state, MoviePage.notModified(1, state.validators(1)), page(2, 2, 3, "B", "B"));
+
+        assertEquals(List.of("B"), index.directorsAbove(2));
+        assertEquals(List.of("A", "B"), index.directorsAbove(0)); // C has no movies left
+        assertEquals(1, state.getChangedPages());
+        assertEquals(1, state.getUnchangedPages());
+    }
+
+    @Test
+    void testSameContentHashIsNotCountedAgain() {
+        CatalogSyncState state = new CatalogSyncState();
+        sync(state, page(1, 1, 1, "A", "B"));
+
+        DirectorIndex index = sync(state, page(1, 1, 1, "A", "B"));
+
+        assertEquals(List.of("A", "B"), index.directorsAbove(0));
+        assertEquals(0, state.getChangedPages());
+    }
+
+    @Test
+    void testPagesPastTotalPagesAreRemoved() {
+        CatalogSyncState state = new CatalogSyncState();
+        sync(state, page(1, 3, 1, "A"), page(2, 3, 2, "B"), page(3, 3, 3, "C"));
+
+        DirectorIndex index = sync(state, page(1, 1, 1, "A"));
+
+        assertEquals(List.of("A"), index.directorsAbove(0));
+        assertEquals(PageValidators.NONE, state.validators(2));
+        assertEquals(2, state.getChangedPages());
+    }
+
+    @Test
+    void testMovieOnTwoPagesIsCountedOnce() {
+        CatalogSyncState state = new CatalogSyncState();
+
+        DirectorIndex index = sync(state,
+                page(1, 2, 1, List.of(movie("Heat", "A"), movie("Alien", "B"))),
+                page(2, 2, 2, List.of(movie(" ALIEN ", "b"), movie("Ronin", "A"))));
+
+        assertEquals(List.of("A"), index.directorsAbove(1));
+        assertEquals(List.of("A", "B"), index.directorsAbove(0));
+        assertEquals(1, state.getDuplicateMovies());
+        assertEquals(List.of("Heat", "Alien", "Ronin"), titles(state.getMovies()));
+    }
+
+    @Test
+    void testDuplicateIsCountedAgainOnceItsFirstPageDropsIt() {
+        CatalogSyncState state = new CatalogSyncState();
+        sync(state, page(1, 2, 1, List.of(movie("Heat", "A"), movie("Alien", "B"))),
+                page(2, 2, 2, List.of(movie("Alien", "B"))));
+
+        DirectorIndex index = sync(state, page(1, 2, 3, List.of(movie("Heat", "A"))),
+                MoviePage.notModified(2, state.validators(2)));
+
+        assertEquals(List.of("A", "B"), index.directorsAbove(0));
+        assertEquals(0, state.getDuplicateMovies());
+        assertEquals(List.of("Heat", "Alien"), titles(state.getMovies()));
+    }
+
+    @Test
+    void testCoDirectedMoviesCountForEveryDirectorUnderOneSpelling() {
+        CatalogSyncState state = new CatalogSyncState();
+
+        DirectorIndex index = sync(state, page(1, 2, 1, "Joel Coen, Ethan Coen", "Ethan Coen"),
+                page(2, 2, 2, " joel  COEN "));
+
+        assertEquals(List.of("Ethan Coen", "Joel Coen"), index.directorsAbove(1));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testDirectorsAreNamedByTheSpellingOfMostMoviesWhateverThePageOrder() {
+        CatalogSyncState state = new CatalogSyncState();
+        CatalogSyncState reversed = new CatalogSyncState();
+
+        DirectorIndex index = sync(state, page(1, 2, 1, "joel coen"), page(2, 2, 2, "Joel Coen, Ethan Coen", "Joel Coen"));
+        DirectorIndex reversedIndex = sync(reversed, page(2, 2, 2, "Joel Coen, Ethan Coen", "Joel Coen"),
+                page(1, 2, 1, "joel coen"));
+
+        assertEquals(List.of("Ethan Coen", "Joel Coen"), index.directorsAbove(0));
+        assertEquals(List.of("Ethan Coen", "Joel Coen"), reversedIndex.directorsAbove(0));
+        assertEquals(3, state.getMovies().countDirectors().get("Joel Coen"));
+
+        index = sync(state, page(2, 2, 3, "joel coen", "Ethan Coen"), MoviePage.notModified(1, state.validators(1)));
+
+        assertEquals(List.of("Ethan Coen", "joel coen"), index.directorsAbove(0));
+        assertEquals(2, state.getMovies().countDirectors().get("joel coen"));
+    }
+
+    private static List<String> titles(MovieColumns movies) {
+        return IntStream.range(0, movies.size()).mapToObj(movies::title).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,56 @@
+package com.directa24.main.challenge.api.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectorIndexTest {
+
+    private final DirectorIndex index = DirectorIndex.of(counts(Map.of(
+            "Woody Allen", 5,
+            "Clint Eastwood", 3,
+            "Martin Scorsese", 5,
+            "Director1", 1,
+            "Pedro Almodóvar", 3)));
+
+    private static StringIntHashMap counts(Map<String, Integer> directorCounts) {
+        StringIntHashMap counts = new StringIntHashMap();
+        directorCounts.forEach(counts::add);
+        return counts;
+    }
+
+    @Test
+    void testDirectorsAboveReturnsAlphabeticalMatches() {
+        assertEquals(List.of("Clint Eastwood", "Martin Scorsese", "Pedro Almodóvar", "Woody Allen"),
+                index.directorsAbove(1));
+        assertEquals(List.of("Martin Scorsese", "Woody Allen"), index.directorsAbove(3));
+    }
+
+    @Test
+    void testDirectorsAboveIsStrictlyGreaterThanThreshold() {
+        assertTrue(index.directorsAbove(5).isEmpty());
+        assertEquals(5, index.directorsAbove(0).size());
+    }
+
+    @Test
+    void testTopOrdersByCountThenName() {
+        assertEquals(List.of("Martin Scorsese=5", "Woody Allen=5", "Clint Eastwood=3"), index.top(3).stream()
+                .map(director -> director.getDirector() + "=" + director.getMovies())
+                .collect(Collectors.toList()));
+        assertEquals(5, index.top(10).size());
+    }
+
+    @Test
+    void testEmptyIndex() {
+        DirectorIndex empty = DirectorIndex.of(new StringIntHashMap());
+        assertEquals(0, empty.size());
+        assertTrue(empty.directorsAbove(0).isEmpty());
+        assertTrue(empty.top(3).isEmpty());
+    }
+
+}
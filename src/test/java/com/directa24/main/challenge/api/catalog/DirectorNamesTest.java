@@ -0,0 +1,102 @@
+package com.directa24.main.challenge.api.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DirectorNamesTest {
+
+    private final DirectorNames names = new DirectorNames();
+
+    @Test
+    void testSplitsCoDirectorsOnSeparators() {
+        assertArrayEquals(new String[]{"Joel Coen", "Ethan Coen"}, credited("Joel Coen, Ethan Coen"));
+        assertArrayEquals(new String[]{"Lana Wachowski", "Lilly Wachowski", "Tom Tykwer"},
+                credited("Lana Wachowski & Lilly Wachowski;Tom Tykwer"));
+        assertArrayEquals(new String[]{"Jean-Pierre Jeunet", "Marc Caro"}, credited(" Jean-Pierre Jeunet / Marc Caro "));
+    }
+
+    @Test
+    void testCaseAndWhitespaceVariantsShareOneDirector() {
+        int id = names.credit("Joel Coen", 1)[0];
+
+        assertEquals(id, names.credit("  JOEL   coen ", 1)[0]);
+        assertEquals(id, names.credit("joel\tcoen, Ethan Coen", 1)[0]);
+        assertEquals(2, names.size());
+    }
+
+    @Test
+    void testTheSpellingOfMostMoviesNamesTheDirector() {
+        int id = names.credit("joel coen", 1)[0];
+        names.credit("Joel Coen, Ethan Coen", 2);
+
+        assertEquals("Joel Coen", names.name(id));
+
+        names.credit("JOEL COEN", 4);
+
+        assertEquals("JOEL COEN", names.name(id));
+    }
+
+    @Test
+    void testTiedSpellingsNameTheDirectorInAnyOrder() {
+        DirectorNames reversed = new DirectorNames();
+
+        int id = names.credit("joel coen", 1)[0];
+        names.credit("Joel Coen", 1);
+        int reversedId = reversed.credit("Joel Coen", 1)[0];
+        reversed.credit("joel coen", 1);
+
+        assertEquals("Joel Coen", names.name(id));
+        assertEquals("Joel Coen", reversed.name(reversedId));
+    }
+
+    @Test
+    void testWhitespaceRunsOfASpellingAreCollapsed() {
+        assertArrayEquals(new String[]{"Sofia Coppola"}, credited("  Sofia \n Coppola  "));
+    }
+
+    @Test
+    void testUnicodeVariantsShareOneSpelling() {
+        int id = names.credit("Pedro Almod\u00f3var", 1)[0];
+
+        assertEquals(id, names.credit("Pedro Almodo\u0301var", 1)[0]); // Decomposed accent
+        assertEquals(id, names.credit("PEDRO\u00a0ALMOD\u00d3VAR", 1)[0]); // No-break space, upper case
+        assertEquals("Pedro Almod\u00f3var", names.name(id));
+    }
+
+    @Test
+    void testSplitsCoDirectorsOnFullwidthSeparators() {
+        assertArrayEquals(new String[]{"Joel Coen", "Ethan Coen"}, credited("Joel Coen\uff0cEthan Coen"));
+        assertArrayEquals(new String[]{"A", "B", "C", "D"}, credited("A\uff1bB\uff06C\uff0fD"));
+    }
+
+    @Test
+    void testRepeatedAndBlankCreditsAreSkipped() {
+        assertArrayEquals(new String[]{"Joel Coen"}, credited("Joel Coen, joel coen,, , "));
+        assertArrayEquals(new int[0], names.credit(" , ", 1));
+        assertArrayEquals(new int[0], names.credit(null, 1));
+    }
+
+    @Test
+    void testCreditsOfAFieldAreCached() {
+        assertSame(names.credit("Joel Coen, Ethan Coen", 1), names.credit("Joel Coen, Ethan Coen", 1));
+    }
+
+    @Test
+    void testGrowsPastItsInitialCapacity() {
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals("Director " + i, credited("Director " + i + ", director  " + i)[0]);
+        }
+
+        assertEquals(1_000, names.size());
+        assertEquals(7, names.credit("DIRECTOR 7", 1)[0]);
+    }
+
+    private String[] credited(String field) {
+        return Arrays.stream(names.credit(field, 1)).mapToObj(names::name).toArray(String[]::new);
+    }
+}
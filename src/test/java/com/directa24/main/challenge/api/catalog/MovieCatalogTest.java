@@ -0,0 +1,369 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.cache.InMemoryRemoteCacheStore;
+import com.directa24.main.challenge.api.cache.RemoteCacheStore;
+import com.directa24.main.challenge.api.model.CrawlReport;
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MoviePage;
+import com.directa24.main.challenge.api.model.PageValidators;
+import com.directa24.main.challenge.api.repository.MovieRepository;
+import com.directa24.main.challenge.mocks.MovieTestDataHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MovieCatalogTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(MovieTestDataHelper.movieMock1(),
+                MovieTestDataHelper.movieMock2(), MovieTestDataHelper.movieMock3()));
+    }
+
+    @TempDir
+    Path snapshotDirectory;
+
+    private boolean incrementalSync;
+
+    private Duration partialRefreshInterval = Duration.ofMinutes(1);
+
+    private MovieCatalog catalog(Duration refreshInterval, Duration refreshAhead, Duration maxStaleness) {
+        return catalog(refreshInterval, refreshAhead, maxStaleness, new CatalogSnapshotStore(false, Paths.get("unused")));
+    }
+
+    private MovieCatalog catalog(Duration refreshInterval, Duration refreshAhead, Duration maxStaleness,
+                                 CatalogSnapshotStore snapshotStore) {
+        return catalog(refreshInterval, refreshAhead, maxStaleness, snapshotStore, new InMemoryRemoteCacheStore());
+    }
+
+    private MovieCatalog catalog(Duration refreshInterval, Duration refreshAhead, Duration maxStaleness,
+                                 CatalogSnapshotStore snapshotStore, RemoteCacheStore remoteCacheStore) {
+        SharedCatalog sharedCatalog = new SharedCatalog(maxStaleness, Duration.ofMinutes(2), Duration.ofSeconds(5),
+                remoteCacheStore);
+        return new MovieCatalog(refreshInterval, refreshAhead, maxStaleness, partialRefreshInterval, false,
+                incrementalSync, movieRepository, snapshotStore, sharedCatalog, new SimpleMeterRegistry());
+    }
+
+    private MovieCatalog replica(RemoteCacheStore remoteCacheStore) {
+        return catalog(Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(30),
+                new CatalogSnapshotStore(false, Paths.get("unused")), remoteCacheStore);
+    }
+
+    @Test
+    void testConcurrentColdCallsShareOneLoad() {
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(MovieTestDataHelper.movieMock1())
+                .delayElements(Duration.ofMillis(100)));
+        MovieCatalog catalog = catalog(Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(30));
+
+        StepVerifier.create(Flux.merge(catalog.snapshot(), catalog.snapshot(), catalog.snapshot())
+                        .map(CatalogSnapshot::getVersion))
+                .expectNext(1L, 1L, 1L)
+                .verifyComplete();
+
+        verify(movieRepository, times(1)).fetchAllMovies();
+        assertEquals(2, catalog.getRefreshFlight().getCoalesced());
+    }
+
+    @Test
+    void testSnapshotInsideRefreshAheadWindowIsServedWhileRefreshing() throws InterruptedException {
+        MovieCatalog catalog = catalog(Duration.ofSeconds(1), Duration.ofMillis(800), Duration.ofMinutes(1));
+        catalog.snapshot().block();
+
+        Thread.sleep(300);
+
+        StepVerifier.create(catalog.snapshot().map(CatalogSnapshot::getVersion))
+                .expectNext(1L)
+                .verifyComplete();
+
+        assertEquals(2L, catalog.snapshot().map(CatalogSnapshot::getVersion).block());
+        verify(movieRepository, times(2)).fetchAllMovies();
+    }
+
+    @Test
+    void testSnapshotPastMaxStalenessWaitsForRefresh() throws InterruptedException {
+        MovieCatalog catalog = catalog(Duration.ofMillis(50), Duration.ZERO, Duration.ofMillis(100));
+        catalog.snapshot().block();
+
+        Thread.sleep(150);
+
+        StepVerifier.create(catalog.snapshot().map(CatalogSnapshot::getVersion))
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void testFailedRefreshKeepsLastGoodSnapshot() throws InterruptedException {
+        MovieCatalog catalog = catalog(Duration.ofMillis(50), Duration.ZERO, Duration.ofMillis(100));
+        catalog.snapshot().block();
+
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.error(new RuntimeException("API error")));
+        Thread.sleep(150);
+
+        StepVerifier.create(catalog.snapshot())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 1L
+                        && snapshot.getDirectorIndex().directorsAbove(1).equals(List.of("Director1")))
+                .verifyComplete();
+
+        StepVerifier.create(catalog.refresh())
+                .verifyErrorMessage("API error");
+        assertEquals(1L, catalog.snapshot().onErrorResume(e -> Mono.empty())
+                .map(CatalogSnapshot::getVersion).block());
+    }
+
+    @Test
+    void testDirectorCountsAreExactAtAnyCatalogSize() {
+        // 1000 movies in round-robin order, so every director's movies are spread over the whole crawl
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.range(0, 1000)
+                .map(i -> MovieTestDataHelper.createMovie("Movie" + i, "2000", "PG", "1 jan 2000", "90 min",
+                        "Drama", "Director" + (i % 8), "Writer A", "Actor A")));
+        MovieCatalog catalog = catalog(Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(30));
+
+        CatalogSnapshot snapshot = catalog.snapshot().block();
+        DirectorIndex index = snapshot.getDirectorIndex();
+
+        assertEquals(8, index.directorsAbove(124).size());
+        assertEquals(0, index.directorsAbove(125).size());
+        assertEquals(1000, snapshot.getMovies().size());
+        assertEquals(8, snapshot.getMovies().directorCount());
+    }
+
+    @Test
+    void testPagesLeftOutOfTheCrawlMarkTheSnapshotPartial() {
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.deferContextual(context -> {
+            CrawlReport.from(context).ifPresent(report -> {
+                report.pageFailed(3);
+                report.pageFailed(7);
+            });
+            return Flux.just(MovieTestDataHelper.movieMock1(), MovieTestDataHelper.movieMock2());
+        }));
+        MovieCatalog catalog = catalog(Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(30));
+
+        CatalogSnapshot snapshot = catalog.snapshot().block();
+
+        assertTrue(snapshot.isPartial());
+        assertEquals(2, snapshot.getCrawl().getPagesFailed());
+        assertEquals(2, snapshot.getCrawl().getPagesMissing());
+        assertEquals(2, snapshot.getMovies().size());
+    }
+
+    @Test
+    void testPartialSnapshotIsRefreshedAfterThePartialInterval() throws InterruptedException {
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.deferContextual(context -> {
+            CrawlReport.from(context).ifPresent(report -> report.pageFailed(2));
+            return Flux.just(MovieTestDataHelper.movieMock1());
+        }));
+        partialRefreshInterval = Duration.ofMillis(100);
+        MovieCatalog catalog = catalog(Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(30));
+        catalog.snapshot().block();
+
+        Thread.sleep(150);
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(MovieTestDataHelper.movieMock1(),
+                MovieTestDataHelper.movieMock2()));
+
+        StepVerifier.create(catalog.snapshot().map(CatalogSnapshot::getVersion))
+                .expectNext(1L)
+                .verifyComplete();
+
+        CatalogSnapshot refreshed = catalog.snapshot().block();
+        assertEquals(2L, refreshed.getVersion());
+        assertFalse(refreshed.isPartial());
+    }
+
+    @Test
+    void testRestartServesPersistedSnapshotWithoutCrawling() {
+        CatalogSnapshotStore snapshotStore = new CatalogSnapshotStore(true,
+                snapshotDirectory.resolve("catalog.snapshot"));
+        MovieCatalog firstRun = catalog(Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(30),
+                snapshotStore);
+        firstRun.refresh().block();
+
+        MovieCatalog secondRun = catalog(Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(30),
+                snapshotStore);
+        secondRun.restoreSnapshot();
+
+        StepVerifier.create(secondRun.snapshot())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 1L
+                        && snapshot.getDirectorIndex().directorsAbove(1).equals(List.of("Director1")))
+                .verifyComplete();
+        verify(movieRepository, times(1)).fetchAllMovies();
+
+        assertEquals(2L, secondRun.refresh().map(CatalogSnapshot::getVersion).block());
+    }
+
+    @Test
+    void testRestoredSnapshotPastRefreshPeriodIsRefreshedInBackground() {
+        CatalogSnapshotStore snapshotStore = new CatalogSnapshotStore(true,
+                snapshotDirectory.resolve("catalog.snapshot"));
+        StringIntHashMap counts = new StringIntHashMap();
+        counts.add("Old Director", 3);
+        snapshotStore.save(new CatalogSnapshot(7, Instant.now().minus(Duration.ofMinutes(10)), DirectorIndex.of(counts),
+                MovieColumns.empty()));
+
+        MovieCatalog catalog = catalog(Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(30),
+                snapshotStore);
+        catalog.restoreSnapshot();
+
+        StepVerifier.create(catalog.snapshot().map(CatalogSnapshot::getVersion))
+                .expectNext(7L)
+                .verifyComplete();
+
+        // Join the background refresh if it is still persisting, then read the swapped snapshot
+        assertEquals(8L, catalog.getRefreshFlight().execute("catalog", Mono::empty)
+                .then(catalog.snapshot())
+                .map(CatalogSnapshot::getVersion)
+                .block(Duration.ofSeconds(5)));
+        verify(movieRepository, times(1)).fetchAllMovies();
+    }
+
+    @Test
+    void testReplicasShareOneCrawl() {
+        RemoteCacheStore remoteCacheStore = new InMemoryRemoteCacheStore();
+        MovieCatalog first = replica(remoteCacheStore);
+        MovieCatalog second = replica(remoteCacheStore);
+
+        CatalogSnapshot crawled = first.snapshot().block();
+        CatalogSnapshot adopted = second.snapshot().block();
+
+        assertEquals(crawled.getVersion(), adopted.getVersion());
+        assertEquals(crawled.getDirectorIndex().directorsAbove(0), adopted.getDirectorIndex().directorsAbove(0));
+        verify(movieRepository, times(1)).fetchAllMovies();
+    }
+
+    @Test
+    void testPublishedSnapshotIsFannedOutToOtherReplicas() {
+        RemoteCacheStore remoteCacheStore = new InMemoryRemoteCacheStore();
+        MovieCatalog first = replica(remoteCacheStore);
+        MovieCatalog second = replica(remoteCacheStore);
+        first.snapshot().block();
+        second.snapshot().block();
+        second.followSharedSnapshots();
+
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(MovieTestDataHelper.movieMock4()));
+        assertEquals(2L, first.refresh().map(CatalogSnapshot::getVersion).block());
+
+        StepVerifier.create(second.snapshot())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 2L
+                        && snapshot.getDirectorIndex().directorsAbove(0).equals(List.of("Director3")))
+                .verifyComplete();
+        verify(movieRepository, times(2)).fetchAllMovies();
+        second.stopScheduledRefresh();
+    }
+
+    @Test
+    void testReplicaKeepsServingWhileAnotherHoldsTheRefreshLease() {
+        RemoteCacheStore remoteCacheStore = new InMemoryRemoteCacheStore();
+        MovieCatalog catalog = replica(remoteCacheStore);
+        catalog.snapshot().block();
+
+        remoteCacheStore.setIfAbsent(SharedCatalog.LEASE_KEY, "other-instance".getBytes(), Duration.ofMinutes(1))
+                .block();
+
+        assertEquals(1L, catalog.refresh().map(CatalogSnapshot::getVersion).block());
+        verify(movieRepository, times(1)).fetchAllMovies();
+    }
+
+    @Test
+    void testInvalidationIsFannedOutToOtherReplicas() {
+        RemoteCacheStore remoteCacheStore = new InMemoryRemoteCacheStore();
+        MovieCatalog first = replica(remoteCacheStore);
+        MovieCatalog second = replica(remoteCacheStore);
+        first.snapshot().block();
+        second.snapshot().block();
+        second.followSharedSnapshots();
+
+        first.invalidate().block();
+
+        StepVerifier.create(second.currentSnapshot()).verifyComplete();
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(MovieTestDataHelper.movieMock4()));
+        StepVerifier.create(second.snapshot())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 3L // Version 2 announced the invalidation
+                        && snapshot.getDirectorIndex().directorsAbove(0).equals(List.of("Director3")))
+                .verifyComplete();
+        verify(movieRepository, times(2)).fetchAllMovies();
+        second.stopScheduledRefresh();
+    }
+
+    @Test
+    void testInvalidateCompletesWhenTheRemoteCacheIsUnreachable() {
+        MovieCatalog catalog = replica(new InMemoryRemoteCacheStore() {
+            @Override
+            public Mono<Void> delete(String key) {
+                return Mono.error(new IllegalStateException("Connection refused"));
+            }
+        });
+        catalog.snapshot().block();
+
+        StepVerifier.create(catalog.invalidate()).verifyComplete();
+    }
+
+    @Test
+    void testIncrementalSyncAppliesOnlyChangedPages() {
+        incrementalSync = true;
+        MoviePage page1 = page(1, 2, 11L, MovieTestDataHelper.movieMock1(), MovieTestDataHelper.movieMock2());
+        MoviePage page2 = page(2, 2, 22L, MovieTestDataHelper.movieMock3(), MovieTestDataHelper.movieMock4());
+        when(movieRepository.syncPages(any())).thenReturn(Flux.just(page1, page2));
+        MovieCatalog catalog = catalog(Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofMinutes(30));
+
+        assertEquals(List.of("Director1"), catalog.refresh().block().getDirectorIndex().directorsAbove(1));
+
+        // Page 2 changed: Director3's movie was replaced by one of Director1
+        MoviePage changedPage2 = page(2, 2, 23L, MovieTestDataHelper.movieMock3(), MovieTestDataHelper.movieMock5());
+        when(movieRepository.syncPages(any())).thenAnswer(invocation -> {
+            IntFunction<PageValidators> validators = invocation.getArgument(0);
+            assertEquals("\"etag-1\"", validators.apply(1).getEtag());
+            return Flux.just(MoviePage.notModified(1, validators.apply(1)), changedPage2);
+        });
+
+        CatalogSnapshot synced = catalog.refresh().block();
+        DirectorIndex index = synced.getDirectorIndex();
+        assertEquals(List.of("Director1"), index.directorsAbove(2));
+        assertEquals(List.of("Director1", "Director2"), index.directorsAbove(0));
+        assertEquals(List.of("Movie1", "Movie2", "Movie3", "Movie5"), titles(synced.getMovies()));
+
+        // The catalog shrinks to its first page
+        doReturn(Flux.just(page(1, 1, 11L, MovieTestDataHelper.movieMock1(), MovieTestDataHelper.movieMock2())))
+                .when(movieRepository).syncPages(any());
+        CatalogSnapshot shrunk = catalog.refresh().block();
+        assertEquals(List.of("Director1"), shrunk.getDirectorIndex().directorsAbove(0));
+        assertEquals(List.of("Movie1", "Movie2"), titles(shrunk.getMovies()));
+        verify(movieRepository, never()).fetchAllMovies();
+    }
+
+    private static List<String> titles(MovieColumns movies) {
+        return IntStream.range(0, movies.size()).mapToObj(movies::title).collect(Collectors.toList());
+    }
+
+    private static MoviePage page(int page, int totalPages, long contentHash, Movie... movies) {
+        return new MoviePage(page, movies.length, totalPages, true, contentHash, "\"etag-" + page + "\"", null,
+                List.of(movies));
+    }
+}
@@ -0,0 +1,117 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.mocks.MovieTestDataHelper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MovieColumnsTest {
+
+    private final MovieColumns columns = MovieColumns.builder()
+            .add(MovieTestDataHelper.movieMock1())
+            .add(MovieTestDataHelper.movieMock2())
+            .add(MovieTestDataHelper.movieMockDirectorNull())
+            .add(MovieTestDataHelper.movieMock4())
+            .build();
+
+    @Test
+    void testRowsKeepTheirValues() {
+        Movie movie = MovieTestDataHelper.movieMock4();
+
+        assertEquals(4, columns.size());
+        assertEquals(movie.getTitle(), columns.title(3));
+        assertEquals(1979, columns.year(3));
+        assertEquals(180, columns.runtimeMinutes(3)); // "3 hrs"
+        assertEquals(movie.getDirector(), columns.director(3));
+        assertEquals(movie.getActors(), columns.actors(3));
+        assertNull(columns.director(2));
+        assertEquals(-1, columns.directorId(2));
+    }
+
+    @Test
+    void testRepeatedValuesShareOneDictionaryEntry() {
+        assertEquals(columns.directorId(0), columns.directorId(1));
+        assertEquals(2, columns.directorCount());
+        assertSame(columns.director(0), columns.director(1));
+    }
+
+    @Test
+    void testCountDirectors() {
+        StringIntHashMap counts = columns.countDirectors();
+
+        assertEquals(2, counts.size());
+        assertEquals(2, counts.get("Director1"));
+        assertEquals(1, counts.get("Director3"));
+    }
+
+    @Test
+    void testCountDirectorsCountsEveryCreditedDirector() {
+        MovieColumns coDirected = MovieColumns.builder()
+                .add(MovieTestDataHelper.createMovie("Fargo", "1996", "R", "", "98 min", "Crime",
+                        "Joel Coen, Ethan Coen", "Writer", "Actor"))
+                .add(MovieTestDataHelper.createMovie("Blood Simple", "1984", "R", "", "99 min", "Crime", "joel  coen",
+                        "Writer", "Actor"))
+                .build();
+
+        StringIntHashMap counts = coDirected.countDirectors();
+
+        assertEquals(2, counts.size());
+        assertEquals(2, counts.get("Joel Coen"));
+        assertEquals(1, counts.get("Ethan Coen"));
+    }
+
+    @Test
+    void testCopiedRowsAreReencoded() {
+        MovieColumns copy = MovieColumns.builder().add(columns, 3).add(columns, 0).build();
+
+        assertSameRow(columns, 3, copy, 0);
+        assertSameRow(columns, 0, copy, 1);
+        assertEquals(0, copy.directorId(0));
+    }
+
+    @Test
+    void testEncodeRoundTrip() {
+        MovieColumns decoded = MovieColumns.decode(ByteBuffer.wrap(columns.encode()));
+
+        assertEquals(columns.size(), decoded.size());
+        for (int row = 0; row < columns.size(); row++) {
+            assertSameRow(columns, row, decoded, row);
+        }
+        assertEquals(MovieColumns.empty().size(), MovieColumns.decode(ByteBuffer.wrap(MovieColumns.empty().encode())).size());
+    }
+
+    @Test
+    void testDecodeRejectsTruncatedColumns() {
+        byte[] bytes = columns.encode();
+        ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, bytes.length - 5).slice();
+
+        assertThrows(IllegalArgumentException.class, () -> MovieColumns.decode(truncated));
+    }
+
+    @Test
+    void testParsing() {
+        assertEquals(2005, MovieColumns.parseYear("2005–2010"));
+        assertEquals(MovieColumns.UNKNOWN, MovieColumns.parseYear("N/A"));
+        assertEquals(136, MovieColumns.parseRuntime("136 min"));
+        assertEquals(90, MovieColumns.parseRuntime("1 h 30 min"));
+        assertEquals(MovieColumns.UNKNOWN, MovieColumns.parseRuntime("N/A"));
+    }
+
+    static void assertSameRow(MovieColumns expected, int expectedRow, MovieColumns actual, int actualRow) {
+        assertEquals(expected.title(expectedRow), actual.title(actualRow));
+        assertEquals(expected.year(expectedRow), actual.year(actualRow));
+        assertEquals(expected.runtimeMinutes(expectedRow), actual.runtimeMinutes(actualRow));
+        assertEquals(expected.rated(expectedRow), actual.rated(actualRow));
+        assertEquals(expected.released(expectedRow), actual.released(actualRow));
+        assertEquals(expected.genre(expectedRow), actual.genre(actualRow));
+        assertEquals(expected.director(expectedRow), actual.director(actualRow));
+        assertEquals(expected.writer(expectedRow), actual.writer(actualRow));
+        assertEquals(expected.actors(expectedRow), actual.actors(actualRow));
+    }
+}
@@ -0,0 +1,77 @@
+package com.directa24.main.challenge.api.catalog;
+
+import com.directa24.main.challenge.api.model.MovieFilter;
+import com.directa24.main.challenge.mocks.MovieTestDataHelper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MovieIndexesTest {
+
+    private final MovieIndexes indexes = MovieIndexes.of(MovieColumns.builder()
+            .add(MovieTestDataHelper.createMovie("A", "1990", "R", "", "90 min", "Drama, Crime", "Director1",
+                    "Writer A", "Actor X, Actor Y"))
+            .add(MovieTestDataHelper.createMovie("B", "1995", "R", "", "90 min", "Drama", "Director1",
+                    "Writer B", "Actor Y"))
+            .add(MovieTestDataHelper.createMovie("C", "2001", "R", "", "90 min", "crime", "Director1",
+                    "Writer A", "Actor X"))
+            .add(MovieTestDataHelper.createMovie("D", "2001", "R", "", "90 min", "Drama", "Director2",
+                    "Writer A", "Actor X"))
+            .add(MovieTestDataHelper.createMovie("E", "N/A", "R", "", "90 min", "Drama", "Director2",
+                    "Writer B", "Actor Y"))
+            .build());
+
+    private static MovieFilter genre(String genre) {
+        return new MovieFilter(genre, null, null, null, null);
+    }
+
+    @Test
+    void testDirectorsAboveCountsOnlyMatchingMovies() {
+        assertEquals(List.of("Director1", "Director2"), indexes.directorsAbove(1, genre("drama")));
+        assertEquals(List.of("Director1"), indexes.directorsAbove(1, genre(" Crime ")));
+        assertEquals(List.of(), indexes.directorsAbove(0, genre("Comedy")));
+        assertEquals(List.of("Director1", "Director2"), indexes.directorsAbove(1, MovieFilter.NONE));
+    }
+
+    @Test
+    void testDirectorsAboveCountsEveryCreditedDirector() {
+        MovieIndexes coDirected = MovieIndexes.of(MovieColumns.builder()
+                .add(MovieTestDataHelper.createMovie("Fargo", "1996", "R", "", "98 min", "Crime",
+                        "Joel Coen, Ethan Coen", "Writer", "Actor"))
+                .add(MovieTestDataHelper.createMovie("Blood Simple", "1984", "R", "", "99 min", "Crime", "JOEL COEN",
+                        "Writer", "Actor"))
+                .add(MovieTestDataHelper.createMovie("Raising Arizona", "1987", "PG-13", "", "94 min", "Comedy",
+                        "Ethan Coen & Joel Coen", "Writer", "Actor"))
+                .build());
+
+        assertEquals(List.of("Joel Coen"), coDirected.directorsAbove(1, genre("crime")));
+        assertEquals(List.of("Ethan Coen", "Joel Coen"), coDirected.directorsAbove(1, MovieFilter.NONE));
+    }
+
+    @Test
+    void testCriteriaAreIntersected() {
+        MovieFilter filter = new MovieFilter("Drama", "Actor X", "Writer A", 1990, 2001);
+
+        assertEquals(List.of(0, 3), rows(indexes.select(filter)));
+        assertEquals(List.of("Director1", "Director2"), indexes.directorsAbove(0, filter));
+        assertNull(indexes.select(MovieFilter.NONE));
+    }
+
+    @Test
+    void testYearRangesAreInclusiveAndSkipUnknownYears() {
+        assertEquals(List.of(1, 2, 3), rows(indexes.years(1995, 2001)));
+        assertEquals(List.of(2, 3), rows(indexes.select(new MovieFilter(null, null, null, 2000, null))));
+        assertEquals(List.of(0), rows(indexes.select(new MovieFilter(null, null, null, null, 1994))));
+        assertEquals(List.of(), rows(indexes.years(2002, 2001)));
+    }
+
+    private static List<Integer> rows(RowSet set) {
+        List<Integer> rows = new ArrayList<>();
+        set.forEach(rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,80 @@
+package com.directa24.main.challenge.api.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowSetTest {
+
+    private static RowSet rowSet(BitSet bits) {
+        int[] rows = bits.stream().toArray();
+        return RowSet.of(rows, rows.length);
+    }
+
+    private static BitSet randomBits(Random random, int universe, double density) {
+        BitSet bits = new BitSet(universe);
+        for (int row = 0; row < universe; row++) {
+            if (random.nextDouble() < density) {
+                bits.set(row);
+            }
+        }
+        return bits;
+    }
+
+    private static List<Integer> rows(RowSet set) {
+        List<Integer> rows = new ArrayList<>();
+        set.forEach(rows::add);
+        return rows;
+    }
+
+    @Test
+    void testSparseAndDenseChunksKeepTheirRows() {
+        BitSet bits = new BitSet();
+        bits.set(3);
+        bits.set(65_535);
+        bits.set(70_000, 80_000); // Dense chunk, stored as a bitmap
+        bits.set(300_000);
+        RowSet set = rowSet(bits);
+
+        assertEquals(bits.cardinality(), set.cardinality());
+        assertEquals(bits.stream().boxed().collect(Collectors.toList()), rows(set));
+        assertTrue(set.contains(65_535));
+        assertTrue(set.contains(75_000));
+        assertFalse(set.contains(65_536));
+        assertFalse(set.contains(-1));
+    }
+
+    @Test
+    void testIntersectionMatchesBitSet() {
+        Random random = new Random(42);
+        double[] densities = {0.001, 0.02, 0.3, 0.9};
+        for (double left : densities) {
+            for (double right : densities) {
+                BitSet leftBits = randomBits(random, 200_000, left);
+                BitSet rightBits = randomBits(random, 200_000, right);
+                BitSet expected = (BitSet) leftBits.clone();
+                expected.and(rightBits);
+
+                RowSet intersection = rowSet(leftBits).and(rowSet(rightBits));
+
+                assertEquals(expected.cardinality(), intersection.cardinality(), left + " & " + right);
+                assertEquals(rows(rowSet(expected)), rows(intersection), left + " & " + right);
+            }
+        }
+    }
+
+    @Test
+    void testEmptySets() {
+        assertEquals(0, RowSet.empty().cardinality());
+        assertEquals(0, RowSet.of(new int[]{1, 2}, 0).cardinality());
+        assertEquals(0, RowSet.of(new int[]{1, 2}, 2).and(RowSet.of(new int[]{70_000}, 1)).cardinality());
+    }
+}
@@ -0,0 +1,62 @@
+package com.directa24.main.challenge.api.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StringIntHashMapTest {
+
+    @Test
+    void testIncrementAndGet() {
+        StringIntHashMap map = new StringIntHashMap();
+
+        assertEquals(1, map.increment("Woody Allen"));
+        assertEquals(2, map.increment("Woody Allen"));
+        assertEquals(5, map.add("Martin Scorsese", 5));
+
+        assertEquals(2, map.get("Woody Allen"));
+        assertEquals(5, map.get("Martin Scorsese"));
+        assertEquals(0, map.get("Clint Eastwood"));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testGrowsAndMatchesHashMapCounts() {
+        StringIntHashMap map = new StringIntHashMap(4);
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            String director = "Director " + random.nextInt(5_000);
+            map.increment(director);
+            expected.merge(director, 1, Integer::sum);
+        }
+
+        assertEquals(expected.size(), map.size());
+        Map<String, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testCollidingHashCodes() {
+        StringIntHashMap map = new StringIntHashMap();
+        // "Aa" and "BB" share the same String.hashCode()
+        map.increment("Aa");
+        map.increment("BB");
+        map.increment("BB");
+
+        assertEquals(1, map.get("Aa"));
+        assertEquals(2, map.get("BB"));
+    }
+
+    @Test
+    void testNullKeyIsRejected() {
+        assertThrows(NullPointerException.class, () -> new StringIntHashMap().increment(null));
+    }
+
+}
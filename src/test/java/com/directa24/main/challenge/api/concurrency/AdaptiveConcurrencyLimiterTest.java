@@ -0,0 +1,99 @@
+package com.directa24.main.challenge.api.concurrency;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void testNeverRunsMoreCallsThanTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 3, 3, Duration.ofSeconds(5), 0.5);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        Flux<Integer> calls = Flux.range(1, 20)
+                .flatMap(i -> limiter.run(() -> Mono.fromCallable(() -> maxRunning.accumulateAndGet(
+                                running.incrementAndGet(), Math::max))
+                        .delayElement(Duration.ofMillis(10))
+                        .doOnTerminate(running::decrementAndGet)), 20);
+
+        StepVerifier.create(calls)
+                .expectNextCount(20)
+                .verifyComplete();
+
+        assertEquals(3, maxRunning.get());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testFastSuccessesIncreaseTheLimitUpToMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 4, Duration.ofSeconds(5), 0.5);
+
+        Flux<Integer> calls = Flux.range(1, 20)
+                .flatMap(i -> limiter.run(() -> Mono.just(i).delayElement(Duration.ofMillis(5))), 20);
+
+        StepVerifier.create(calls)
+                .expectNextCount(20)
+                .verifyComplete();
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void testErrorsAndSlowCallsDecreaseTheLimitDownToMin() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 8, Duration.ofMillis(50), 0.5);
+
+        StepVerifier.create(limiter.run(() -> Mono.error(new RuntimeException("upstream error"))))
+                .verifyError(RuntimeException.class);
+        assertEquals(4, limiter.getLimit());
+
+        StepVerifier.create(limiter.run(() -> Mono.just(1).delayElement(Duration.ofMillis(100))))
+                .expectNext(1)
+                .verifyComplete();
+        assertEquals(2, limiter.getLimit());
+
+        StepVerifier.create(limiter.run(() -> Mono.error(new RuntimeException("upstream error"))))
+                .verifyError(RuntimeException.class);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void testCancelledCallsReleaseTheirPermits() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(5), 0.5);
+        Sinks.Empty<Void> never = Sinks.empty();
+
+        Disposable running = limiter.run(never::asMono).subscribe();
+        Disposable waiting = limiter.run(() -> Mono.just(1)).subscribe();
+        assertEquals(1, limiter.getInFlight());
+
+        waiting.dispose();
+        running.dispose();
+
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(1, limiter.getLimit()); // Cancellation does not count as a drop
+        StepVerifier.create(limiter.run(() -> Mono.just(2)))
+                .expectNext(2)
+                .verifyComplete();
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testRejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(1, 0, 4, Duration.ofSeconds(1), 0.5));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(1, 4, 2, Duration.ofSeconds(1), 0.5));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(1, 1, 2, Duration.ofSeconds(1), 1.0));
+    }
+}
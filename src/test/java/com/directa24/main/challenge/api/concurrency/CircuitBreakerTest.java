@@ -0,0 +1,162 @@
+package com.directa24.main.challenge.api.concurrency;
+
+import com.directa24.main.challenge.api.exception.CircuitBreakerOpenException;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 2, Duration.ofSeconds(10),
+            error -> !(error instanceof IllegalArgumentException), clock);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private Mono<String> failingCall() {
+        return Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException("upstream down"));
+        });
+    }
+
+    private Mono<String> successfulCall() {
+        return Mono.fromCallable(() -> {
+            calls.incrementAndGet();
+            return "ok";
+        });
+    }
+
+    @Test
+    void testOpensAfterConsecutiveFailuresAndRejectsCalls() {
+        StepVerifier.create(breaker.run(this::failingCall)).expectError(IllegalStateException.class).verify();
+        StepVerifier.create(breaker.run(this::failingCall)).expectError(IllegalStateException.class).verify();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        clock.advance(Duration.ofSeconds(4));
+        StepVerifier.create(breaker.run(this::successfulCall))
+                .expectErrorSatisfies(error -> {
+                    assertEquals(Duration.ofSeconds(6), ((CircuitBreakerOpenException) error).getRetryAfter());
+                    assertFalse(((CircuitBreakerOpenException) error).isHalfOpen());
+                })
+                .verify();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testSuccessResetsTheConsecutiveFailures() {
+        StepVerifier.create(breaker.run(this::failingCall)).expectError().verify();
+        StepVerifier.create(breaker.run(this::successfulCall)).expectNext("ok").verifyComplete();
+        StepVerifier.create(breaker.run(this::failingCall)).expectError().verify();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testErrorsThatAreNotFailuresAreNotCounted() {
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(breaker.run(() -> Mono.error(new IllegalArgumentException("bad request"))))
+                    .expectError(IllegalArgumentException.class)
+                    .verify();
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenTrialClosesTheBreakerOnSuccess() {
+        StepVerifier.create(breaker.run(this::failingCall)).expectError().verify();
+        StepVerifier.create(breaker.run(this::failingCall)).expectError().verify();
+        clock.advance(Duration.ofSeconds(10));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        StepVerifier.create(breaker.run(this::successfulCall)).expectNext("ok").verifyComplete();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenLetsASingleTrialThroughAndReopensOnFailure() {
+        StepVerifier.create(breaker.run(this::failingCall)).expectError().verify();
+        StepVerifier.create(breaker.run(this::failingCall)).expectError().verify();
+        clock.advance(Duration.ofSeconds(10));
+
+        Sinks.One<String> trial = Sinks.one();
+        StepVerifier.create(breaker.run(trial::asMono))
+                .then(() -> StepVerifier.create(breaker.run(this::successfulCall))
+                        .expectErrorSatisfies(error -> {
+                            // Only the trial is waited for, not another open duration
+                            assertTrue(((CircuitBreakerOpenException) error).isHalfOpen());
+                            assertEquals(Duration.ZERO, ((CircuitBreakerOpenException) error).getRetryAfter());
+                        })
+                        .verify())
+                .then(() -> trial.tryEmitError(new IllegalStateException("still down")))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals(2, calls.get()); // The call made while the trial was in flight never reached upstream
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testCallsAdmittedBeforeTheBreakerOpenedDoNotDecideTheTrial() {
+        Sinks.One<String> succeeding = Sinks.one();
+        Sinks.One<String> failing = Sinks.one();
+        breaker.run(succeeding::asMono).subscribe(value -> { }, error -> { });
+        breaker.run(failing::asMono).subscribe(value -> { }, error -> { });
+        Disposable cancelled = breaker.run(Mono::<String>never).subscribe();
+        StepVerifier.create(breaker.run(this::failingCall)).expectError().verify();
+        StepVerifier.create(breaker.run(this::failingCall)).expectError().verify();
+        clock.advance(Duration.ofSeconds(10));
+
+        Sinks.One<String> trial = Sinks.one();
+        breaker.run(trial::asMono).subscribe(value -> { }, error -> { });
+        succeeding.tryEmitValue("late");
+        failing.tryEmitError(new IllegalStateException("late"));
+        cancelled.dispose();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        StepVerifier.create(breaker.run(this::successfulCall))
+                .expectErrorSatisfies(error -> assertTrue(((CircuitBreakerOpenException) error).isHalfOpen()))
+                .verify();
+
+        trial.tryEmitValue("ok");
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.directa24.main.challenge.api.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HedgePolicyTest {
+
+    @Test
+    void testNoHedgingUntilEnoughSamples() {
+        HedgePolicy policy = new HedgePolicy(true, 0.9, Duration.ZERO, 10, 20);
+        LongStream.rangeClosed(1, 9).forEach(millis -> policy.record(Duration.ofMillis(millis).toNanos()));
+
+        assertEquals(Optional.empty(), policy.delay());
+
+        policy.record(Duration.ofMillis(10).toNanos());
+        assertEquals(Optional.of(Duration.ofMillis(9)), policy.delay());
+    }
+
+    @Test
+    void testDelayIsThePercentileOfTheWindowAndAtLeastTheMinimum() {
+        HedgePolicy policy = new HedgePolicy(true, 0.5, Duration.ofMillis(20), 4, 4);
+        LongStream.of(100, 10, 40, 30).forEach(millis -> policy.record(Duration.ofMillis(millis).toNanos()));
+
+        assertEquals(Optional.of(Duration.ofMillis(30)), policy.delay());
+
+        // The window slides: the 100 ms and 10 ms samples are replaced
+        policy.record(Duration.ofMillis(5).toNanos());
+        policy.record(Duration.ofMillis(5).toNanos());
+        assertEquals(Optional.of(Duration.ofMillis(20)), policy.delay());
+    }
+
+    @Test
+    void testDisabledPolicyNeverHedges() {
+        HedgePolicy policy = new HedgePolicy(false, 0.95, Duration.ZERO, 1, 1);
+        policy.record(1_000);
+
+        assertEquals(Optional.empty(), policy.delay());
+    }
+
+    @Test
+    void testInvalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new HedgePolicy(true, 0, Duration.ZERO, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new HedgePolicy(true, 0.95, Duration.ZERO, 5, 4));
+    }
+}
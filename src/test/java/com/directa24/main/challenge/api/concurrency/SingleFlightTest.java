@@ -0,0 +1,78 @@
+package com.directa24.main.challenge.api.concurrency;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private Mono<Integer> slowCall() {
+        return Mono.fromCallable(calls::incrementAndGet).delayElement(Duration.ofMillis(100));
+    }
+
+    @Test
+    void testConcurrentSubscribersShareOneExecution() {
+        StepVerifier.create(Flux.merge(
+                        singleFlight.execute("directors", this::slowCall),
+                        singleFlight.execute("directors", this::slowCall),
+                        singleFlight.execute("directors", this::slowCall)))
+                .expectNext(1, 1, 1)
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.getExecutions());
+        assertEquals(2, singleFlight.getCoalesced());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void testCompletedExecutionIsNotReused() {
+        StepVerifier.create(singleFlight.execute("directors", this::slowCall))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(singleFlight.execute("directors", this::slowCall))
+                .expectNext(2)
+                .verifyComplete();
+
+        assertEquals(2, singleFlight.getExecutions());
+        assertEquals(0, singleFlight.getCoalesced());
+    }
+
+    @Test
+    void testErrorIsSharedAndThenCleared() {
+        Mono<Integer> failing = Mono.delay(Duration.ofMillis(50))
+                .then(Mono.error(new IllegalStateException("upstream down")));
+
+        StepVerifier.create(Flux.merge(
+                        singleFlight.execute("directors", () -> failing),
+                        singleFlight.execute("directors", () -> failing)))
+                .verifyErrorMessage("upstream down");
+
+        StepVerifier.create(singleFlight.execute("directors", this::slowCall))
+                .expectNext(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void testDifferentKeysExecuteIndependently() {
+        StepVerifier.create(Flux.merge(
+                        singleFlight.execute("a", this::slowCall),
+                        singleFlight.execute("b", this::slowCall)).collectList())
+                .expectNextMatches(values -> values.containsAll(List.of(1, 2)))
+                .verifyComplete();
+
+        assertEquals(2, singleFlight.getExecutions());
+        assertEquals(0, singleFlight.getCoalesced());
+    }
+
+}
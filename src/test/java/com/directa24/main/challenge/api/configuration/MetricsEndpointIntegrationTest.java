@@ -0,0 +1,62 @@
+package com.directa24.main.challenge.api.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "api.metrics.scrape.password=scrape-secret")
+@AutoConfigureWebTestClient
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+class MetricsEndpointIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void testPrometheusEndpointExposesServiceMetrics() {
+        String body = webTestClient.get()
+                .uri("/actuator/prometheus")
+                .headers(headers -> headers.setBasicAuth("prometheus", "scrape-secret"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertTrue(body.contains("movies_upstream_concurrency_limit"), "Upstream concurrency gauge should be exposed");
+        assertTrue(body.contains("movies_upstream_pages_in_flight"), "In-flight gauge should be exposed");
+        assertTrue(body.contains("movies_catalog_load_coalesced_total"), "Coalesced loads should be exposed");
+        assertTrue(body.contains("cache_gets_total{cache=\"directorsCache\""),
+                "directorsCache stats should be exposed");
+    }
+
+    @Test
+    void testPrometheusEndpointRequiresTheScrapeCredential() {
+        webTestClient.get()
+                .uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get()
+                .uri("/actuator/prometheus")
+                .headers(headers -> headers.setBasicAuth("prometheus", "wrong"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void testHealthEndpointStaysPublic() {
+        webTestClient.get()
+                .uri("/actuator/health")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+}
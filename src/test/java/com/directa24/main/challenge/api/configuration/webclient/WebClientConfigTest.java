@@ -0,0 +1,91 @@
+package com.directa24.main.challenge.api.configuration.webclient;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebClientConfigTest {
+
+    private static final String PAGE = "{\"page\":1,\"per_page\":10,\"total\":0,\"total_pages\":1,\"data\":[]}";
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Map<String, String> acceptEncodings = new ConcurrentHashMap<>();
+
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .compress(true)
+                .doOnChannelInit((observer, channel, remoteAddress) -> connections.incrementAndGet())
+                .route(routes -> routes.get("/api/movies/search", (request, response) -> {
+                    acceptEncodings.put("search", String.valueOf(request.requestHeaders().get("Accept-Encoding")));
+                    return response.header("Content-Type", "application/json").sendString(Mono.just(PAGE));
+                }))
+                .bindNow();
+
+        WebClientConfig config = new WebClientConfig("http://127.0.0.1:" + server.port() + "/api/movies",
+                2, 100, Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(5),
+                Duration.ofSeconds(2), Duration.ofSeconds(5), Duration.ofSeconds(5), true, false);
+        connectionProvider = config.movieConnectionProvider();
+        webClient = config.movieWebClient(connectionProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+        server.disposeNow();
+    }
+
+    private Mono<String> search() {
+        return webClient.get().uri("/search?page=1").retrieve().bodyToMono(String.class);
+    }
+
+    @Test
+    void testRequestsAreGzipEncodedAndInflated() {
+        StepVerifier.create(search())
+                .expectNext(PAGE)
+                .verifyComplete();
+
+        assertEquals("gzip", acceptEncodings.get("search"));
+    }
+
+    @Test
+    void testSequentialCrawlsReuseWarmConnections() {
+        StepVerifier.create(Flux.range(0, 10).concatMap(i -> search()))
+                .expectNextCount(10)
+                .verifyComplete();
+
+        // A connection may still be on its way back to the pool when the next request starts
+        assertTrue(connections.get() <= 2, "Sequential requests should reuse pooled connections");
+    }
+
+    @Test
+    void testConcurrentRequestsAreBoundedByThePool() {
+        StepVerifier.create(Flux.range(0, 20).flatMap(i -> search(), 20))
+                .expectNextCount(20)
+                .verifyComplete();
+
+        assertEquals(2, connections.get());
+    }
+
+}
@@ -1,37 +1,77 @@
 package com.directa24.main.challenge.api.controller;
 
+import com.directa24.main.challenge.api.cache.EncodedResponseCache;
+import com.directa24.main.challenge.api.configuration.caching.CachingConfig;
+import com.directa24.main.challenge.api.dto.DirectorStreamEvent;
+import com.directa24.main.challenge.api.exception.CircuitBreakerOpenException;
+import com.directa24.main.challenge.api.model.CatalogResult;
+import com.directa24.main.challenge.api.model.CrawlSummary;
+import com.directa24.main.challenge.api.model.DirectorCount;
+import com.directa24.main.challenge.api.model.MovieFilter;
 import com.directa24.main.challenge.api.security.SecurityConfig;
 import com.directa24.main.challenge.api.service.MovieInfoService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, CachingConfig.class, EncodedResponseCache.class})
 @WebFluxTest(controllers = MovieController.class)
 class MovieControllerTest {
 
+    private static final Instant LOADED_AT = Instant.parse("2024-01-15T10:00:00Z");
+    private static final Duration FRESH_FOR = Duration.ofSeconds(270);
+
     @Autowired
     private WebTestClient webTestClient;
 
     @MockBean
     private MovieInfoService movieInfoService;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void clearCaches() {
+        // Every mocked result has snapshot version 1, so bodies encoded by one test would answer the next
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        when(movieInfoService.getCatalogVersion()).thenReturn(Mono.just(result(1L, false)));
+    }
+
     @Test
     void testGetDirectors_Success() {
         // Arrange
         List<String> mockDirectors = List.of("Martin Scorsese", "Woody Allen");
-        when(movieInfoService.getDirectors(anyInt())).thenReturn(Mono.just(mockDirectors));
+        when(movieInfoService.getDirectors(anyInt())).thenReturn(Mono.just(result(mockDirectors, false)));
 
         // Act & Assert
         webTestClient.get()
@@ -42,11 +82,166 @@ class MovieControllerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().valueEquals(MovieController.PARTIAL_RESULT_HEADER, "false")
                 .expectBody()
                 .jsonPath("$.directors[0]").isEqualTo("Martin Scorsese")
                 .jsonPath("$.directors[1]").isEqualTo("Woody Allen");
     }
 
+    @Test
+    void testGetDirectors_ETagAndNotModified() {
+        when(movieInfoService.getDirectors(anyInt())).thenReturn(Mono.just(result(List.of("Woody Allen"), false)));
+
+        String etag = webTestClient.get()
+                .uri("/api/v1/movies/directors?threshold=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json("{\"directors\":[\"Woody Allen\"]}")
+                .returnResult().getResponseHeaders().getETag();
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""), etag);
+        webTestClient.get()
+                .uri("/api/v1/movies/directors?threshold=3")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody().isEmpty();
+        webTestClient.get()
+                .uri("/api/v1/movies/directors?threshold=3")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0123\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag);
+    }
+
+    @Test
+    void testGetDirectors_CacheControlAndLastModified() {
+        when(movieInfoService.getDirectors(anyInt())).thenReturn(Mono.just(result(List.of("Woody Allen"), false)));
+
+        HttpHeaders headers = webTestClient.get()
+                .uri("/api/v1/movies/directors?threshold=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().lastModified(LOADED_AT.toEpochMilli())
+                .expectBody().json("{\"directors\":[\"Woody Allen\"]}")
+                .returnResult().getResponseHeaders();
+
+        String cacheControl = headers.getCacheControl();
+        assertTrue(cacheControl.startsWith("max-age=") && cacheControl.endsWith(", public"), cacheControl);
+        long maxAge = Long.parseLong(cacheControl.substring("max-age=".length(), cacheControl.indexOf(',')));
+        assertTrue(maxAge > 0 && maxAge <= FRESH_FOR.getSeconds(), cacheControl);
+    }
+
+    @Test
+    void testGetDirectors_PastRefreshIsNotFresh() {
+        when(movieInfoService.getDirectors(anyInt())).thenReturn(Mono.just(new CatalogResult<>(List.of("Woody Allen"),
+                1L, LOADED_AT, CrawlSummary.NONE, Instant.now().minusSeconds(1))));
+
+        webTestClient.get()
+                .uri("/api/v1/movies/directors?threshold=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ZERO).cachePublic());
+    }
+
+    @Test
+    void testGetDirectors_ConditionalRequestSkipsTheQuery() {
+        when(movieInfoService.getDirectors(anyInt())).thenReturn(Mono.just(result(List.of("Woody Allen"), false)));
+
+        String etag = webTestClient.get()
+                .uri("/api/v1/movies/directors?threshold=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseHeaders().getETag();
+
+        webTestClient.get()
+                .uri("/api/v1/movies/directors?threshold=3")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectHeader().exists(HttpHeaders.CACHE_CONTROL)
+                .expectBody().isEmpty();
+        webTestClient.get()
+                .uri("/api/v1/movies/directors?threshold=3")
+                .ifModifiedSince(LOADED_AT.atZone(ZoneOffset.UTC))
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.get()
+                .uri("/api/v1/movies/directors?threshold=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"directors\":[\"Woody Allen\"]}");
+
+        // Only the first request ran the query, the others were answered from the encoded body
+        verify(movieInfoService, times(1)).getDirectors(anyInt());
+    }
+
+    @Test
+    void testGetDirectors_NewSnapshotRunsTheQueryAgain() {
+        when(movieInfoService.getDirectors(anyInt())).thenReturn(Mono.just(result(List.of("Woody Allen"), false)));
+
+        String etag = webTestClient.get()
+                .uri("/api/v1/movies/directors?threshold=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult().getResponseHeaders().getETag();
+
+        when(movieInfoService.getCatalogVersion()).thenReturn(Mono.just(new CatalogResult<>(2L, 2L,
+                LOADED_AT.plusSeconds(300), CrawlSummary.NONE, Instant.now().plus(FRESH_FOR))));
+        when(movieInfoService.getDirectors(anyInt())).thenReturn(Mono.just(new CatalogResult<>(
+                List.of("Woody Allen"), 2L, LOADED_AT.plusSeconds(300), CrawlSummary.NONE,
+                Instant.now().plus(FRESH_FOR))));
+
+        // Same directors in the new snapshot, so the same bytes and ETag
+        webTestClient.get()
+                .uri("/api/v1/movies/directors?threshold=3")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().lastModified(LOADED_AT.plusSeconds(300).toEpochMilli());
+        verify(movieInfoService, times(2)).getDirectors(anyInt());
+    }
+
+    @Test
+    void testGetDirectors_PartialCatalog() {
+        when(movieInfoService.getDirectors(anyInt())).thenReturn(Mono.just(result(List.of("Woody Allen"), true)));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/movies/directors")
+                        .queryParam("threshold", 4)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(MovieController.PARTIAL_RESULT_HEADER, "true")
+                .expectHeader().valueEquals(MovieController.CRAWL_SUMMARY_HEADER, "pages-attempted=10, "
+                        + "pages-succeeded=9, pages-failed=1, pages-missing=1, movies=180, bytes=20480, duration-ms=640")
+                .expectBody()
+                .jsonPath("$.directors[0]").isEqualTo("Woody Allen");
+    }
+
+    @Test
+    void testGetDirectors_CircuitBreakerOpen() {
+        when(movieInfoService.getDirectors(anyInt())).thenReturn(
+                Mono.error(new CircuitBreakerOpenException("movies-api", Duration.ofMillis(12_500))));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/movies/directors")
+                        .queryParam("threshold", 4)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "13")
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Service Unavailable");
+    }
+
     @Test
     void testGetDirectors_NotFound() {
         // Arrange
@@ -115,4 +310,201 @@ class MovieControllerTest {
                     .isEqualTo("Failed to convert value of type 'java.lang.String' to required type 'int'; nested exception is java.lang.NumberFormatException: For input string: \"a\"");
     }
 
-}
\ No newline at end of file
+    @Test
+    void testGetDirectors_WithFilter() {
+        when(movieInfoService.getDirectors(2, new MovieFilter("Drama", null, null, 1990, null)))
+                .thenReturn(Mono.just(result(List.of("Woody Allen"), false)));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/movies/directors")
+                        .queryParam("threshold", 2)
+                        .queryParam("genre", "Drama")
+                        .queryParam("actor", "")
+                        .queryParam("yearFrom", 1990)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.directors[0]").isEqualTo("Woody Allen");
+    }
+
+    @Test
+    void testGetDirectors_InvalidYearRange() {
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/movies/directors")
+                        .queryParam("threshold", 2)
+                        .queryParam("yearFrom", 2001)
+                        .queryParam("yearTo", 1990)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("yearFrom must not be after yearTo");
+    }
+
+    @Test
+    void testGetDirectorsBatch_Success() {
+        Map<Integer, List<String>> directors = new LinkedHashMap<>();
+        directors.put(2, List.of("Martin Scorsese", "Woody Allen"));
+        directors.put(4, List.of("Woody Allen"));
+        when(movieInfoService.getDirectors(List.of(2, 4))).thenReturn(Mono.just(result(directors, false)));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/movies/directors/batch")
+                        .queryParam("thresholds", "2,4")
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.directors.2[1]").isEqualTo("Woody Allen")
+                .jsonPath("$.directors.4[0]").isEqualTo("Woody Allen");
+    }
+
+    @Test
+    void testGetDirectorsBatch_InvalidThreshold() {
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/movies/directors/batch")
+                        .queryParam("thresholds", 2)
+                        .queryParam("thresholds", 0)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Threshold must be greater than zero");
+    }
+
+    @Test
+    void testGetDirectorsBatch_TooManyThresholds() {
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/movies/directors/batch")
+                        .queryParam("thresholds", IntStream.rangeClosed(1, MovieController.MAX_BATCH_THRESHOLDS + 1)
+                                .boxed().toArray())
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid Input");
+    }
+
+    @Test
+    void testGetTopDirectors_Success() {
+        when(movieInfoService.getTopDirectors(2)).thenReturn(Mono.just(result(List.of(
+                new DirectorCount("Woody Allen", 12), new DirectorCount("Martin Scorsese", 9)), false)));
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/movies/directors/top")
+                        .queryParam("limit", 2)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.directors[0].director").isEqualTo("Woody Allen")
+                .jsonPath("$.directors[0].movies").isEqualTo(12)
+                .jsonPath("$.directors[1].director").isEqualTo("Martin Scorsese");
+    }
+
+    @Test
+    void testGetTopDirectors_InvalidLimit() {
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/movies/directors/top")
+                        .queryParam("limit", 0)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Limit must be between 1 and " + MovieController.MAX_TOP_DIRECTORS);
+    }
+
+    @Test
+    void testStreamDirectors_Ndjson() {
+        when(movieInfoService.streamDirectors(anyInt())).thenReturn(Flux.just(
+                DirectorStreamEvent.director("Martin Scorsese"),
+                DirectorStreamEvent.summary(1, "snapshot", 3L, null, false)));
+
+        List<String> lines = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/movies/directors/stream")
+                        .queryParam("threshold", 4)
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(String.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(List.of("{\"type\":\"director\",\"director\":\"Martin Scorsese\"}",
+                "{\"type\":\"summary\",\"directors\":1,\"source\":\"snapshot\",\"version\":3,\"partial\":false}"), lines);
+    }
+
+    @Test
+    void testStreamDirectors_ServerSentEvents() {
+        when(movieInfoService.streamDirectors(anyInt())).thenReturn(Flux.just(
+                DirectorStreamEvent.director("Woody Allen"),
+                DirectorStreamEvent.summary(1, "crawl", null, 20L, true)));
+
+        List<ServerSentEvent<DirectorStreamEvent>> events = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/movies/directors/stream")
+                        .queryParam("threshold", 4)
+                        .build())
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<DirectorStreamEvent>>() {
+                })
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(List.of("director", "summary"),
+                events.stream().map(ServerSentEvent::event).collect(Collectors.toList()));
+        assertEquals("Woody Allen", events.get(0).data().getDirector());
+        assertEquals(20L, events.get(1).data().getMovies());
+        assertEquals(true, events.get(1).data().getPartial());
+    }
+
+    @Test
+    void testStreamDirectors_InvalidThreshold() {
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/movies/directors/stream")
+                        .queryParam("threshold", 0)
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private static <T> CatalogResult<T> result(T value, boolean partial) {
+        return new CatalogResult<>(value, 1L, LOADED_AT, partial
+                ? new CrawlSummary(10, 9, 1, 1, 2, 0, 20_480, 180, Duration.ofMillis(640))
+                : new CrawlSummary(10, 10, 0, 0, 0, 1, 22_528, 200, Duration.ofMillis(512)),
+                Instant.now().plus(FRESH_FOR));
+    }
+
+    @Test
+    void testPrometheusEndpointIsClosedWithoutAScrapePassword() {
+        webTestClient.get()
+                .uri("/actuator/prometheus")
+                .headers(headers -> headers.setBasicAuth("prometheus", "anything"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
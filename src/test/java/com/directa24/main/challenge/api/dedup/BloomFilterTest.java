@@ -0,0 +1,61 @@
+package com.directa24.main.challenge.api.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void testAddedFingerprintIsAlwaysSeen() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        Random random = new Random(3);
+        long[] fingerprints = random.longs(10_000).toArray();
+        for (long fingerprint : fingerprints) {
+            filter.add(fingerprint);
+        }
+
+        for (long fingerprint : fingerprints) {
+            assertTrue(filter.mightContain(fingerprint));
+            assertFalse(filter.add(fingerprint));
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add(MovieFingerprint.of("Movie " + i, "2000", "Director " + random.nextInt(1_000)));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(MovieFingerprint.of("Other movie " + i, "1999", "Director"))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives); // 1% of 100,000 expected
+    }
+
+    @Test
+    void testSizedFromExpectedInsertionsAndRate() {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.001);
+
+        assertEquals(14_377_600, filter.bitSize(), 64); // About 1.8 bytes per fingerprint
+        assertEquals(10, filter.hashCount());
+        assertTrue(filter.add(1));
+        assertEquals(1, filter.size());
+    }
+
+    @Test
+    void testInvalidSizingIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1_000, 1));
+    }
+}
@@ -0,0 +1,53 @@
+package com.directa24.main.challenge.api.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashSetTest {
+
+    @Test
+    void testAddAndContains() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.add(-1));
+
+        assertTrue(set.contains(42));
+        assertTrue(set.contains(-1));
+        assertFalse(set.contains(7));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void testZeroIsAValueLikeAnyOther() {
+        LongHashSet set = new LongHashSet();
+
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void testGrowsAndMatchesHashSet() {
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            long value = random.nextInt(50_000) * 0x1_0000_0000L; // Only the high bits differ
+            assertEquals(expected.add(value), set.add(value));
+        }
+
+        assertEquals(expected.size(), set.size());
+        expected.forEach(value -> assertTrue(set.contains(value)));
+    }
+}
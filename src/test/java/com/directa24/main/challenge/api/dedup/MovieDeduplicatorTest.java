@@ -0,0 +1,73 @@
+package com.directa24.main.challenge.api.dedup;
+
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.mocks.MovieTestDataHelper;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MovieDeduplicatorTest {
+
+    private static Movie movie(String title, String year, String director) {
+        return MovieTestDataHelper.createMovie(title, year, "PG", "1 jan 2000", "90 min", "Drama", director,
+                "Writer", "Actor");
+    }
+
+    @Test
+    void testFingerprintIgnoresCaseAndSurroundingWhitespace() {
+        assertEquals(MovieFingerprint.of("Heat", "1995", "Michael Mann"),
+                MovieFingerprint.of("  HEAT ", "1995\n", "michael mann"));
+        assertEquals(MovieFingerprint.of(null, null, null), MovieFingerprint.of("", " ", ""));
+    }
+
+    @Test
+    void testFingerprintKeepsFieldBoundaries() {
+        assertNotEquals(MovieFingerprint.of("Heat", "1995", "Michael Mann"),
+                MovieFingerprint.of("Heat", "1995", "Michael  Mann"));
+        assertNotEquals(MovieFingerprint.of("ab", "c", ""), MovieFingerprint.of("a", "bc", ""));
+        assertNotEquals(MovieFingerprint.of("Heat", "1995", "Michael Mann"),
+                MovieFingerprint.of("Heat", "1986", "Michael Mann"));
+    }
+
+    @Test
+    void testDistinctDropsRepeatedMoviesInEveryMode() {
+        for (MovieDeduplicator deduplicator : List.of(MovieDeduplicator.exact(),
+                new MovieDeduplicator(MovieDeduplicator.Mode.BLOOM, 1_000, 0.001))) {
+            List<Movie> dropped = new ArrayList<>();
+            Flux<Movie> movies = Flux.just(movie("Heat", "1995", "Michael Mann"),
+                    movie("Alien", "1979", "Ridley Scott"), movie("heat ", "1995", "MICHAEL MANN"),
+                    movie("Heat", "1986", "Michael Mann"));
+
+            StepVerifier.create(deduplicator.distinct(movies, dropped::add).map(Movie::getYear))
+                    .expectNext("1995", "1979", "1986")
+                    .verifyComplete();
+            assertEquals(1, dropped.size());
+            assertEquals("heat ", dropped.get(0).getTitle());
+        }
+    }
+
+    @Test
+    void testEverySubscriptionStartsAFreshPass() {
+        Flux<Movie> distinct = MovieDeduplicator.exact().distinct(Flux.just(movie("Heat", "1995", "Michael Mann")),
+                movie -> {
+                });
+
+        StepVerifier.create(distinct).expectNextCount(1).verifyComplete();
+        StepVerifier.create(distinct).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void testBloomModeRejectsInvalidSizing() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MovieDeduplicator(MovieDeduplicator.Mode.BLOOM, 0, 0.001));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MovieDeduplicator(MovieDeduplicator.Mode.BLOOM, 1_000, 0));
+    }
+}
@@ -0,0 +1,131 @@
+package com.directa24.main.challenge.api.repository.impl;
+
+import com.directa24.main.challenge.api.dedup.MovieDeduplicator;
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MoviePage;
+import com.directa24.main.challenge.api.model.PageValidators;
+import com.directa24.main.challenge.api.repository.MovieRepository;
+import com.directa24.main.challenge.mocks.MovieTestDataHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompositeMovieRepositoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static MovieRepository source(Flux<Movie> movies) {
+        return source(movies, validators -> Flux.error(new UnsupportedOperationException()));
+    }
+
+    private static MovieRepository source(Flux<Movie> movies, Function<IntFunction<PageValidators>, Flux<MoviePage>> pages) {
+        return new MovieRepository() {
+            @Override
+            public Flux<Movie> fetchAllMovies() {
+                return movies;
+            }
+
+            @Override
+            public Flux<MoviePage> syncPages(IntFunction<PageValidators> validators) {
+                return pages.apply(validators);
+            }
+        };
+    }
+
+    private static MoviePage page(int page, int totalPages, Movie... movies) {
+        return new MoviePage(page, 10, totalPages, true, page, "\"" + page + "\"", null, List.of(movies));
+    }
+
+    @Test
+    void testMergesSourcesAndDropsDuplicates() {
+        Movie sameMovieOtherCase = MovieTestDataHelper.movieMock1();
+        sameMovieOtherCase.setTitle(" MOVIE1 ");
+        sameMovieOtherCase.setDirector("director1");
+        MovieRepository http = source(Flux.just(MovieTestDataHelper.movieMock1(), MovieTestDataHelper.movieMock2())
+                .delaySubscription(Duration.ofMillis(50)));
+        MovieRepository file = source(Flux.just(sameMovieOtherCase, MovieTestDataHelper.movieMock3(),
+                MovieTestDataHelper.movieMock2()));
+        CompositeMovieRepository repository = new CompositeMovieRepository(List.of(http, file),
+                MovieDeduplicator.exact(), meterRegistry);
+
+        StepVerifier.create(repository.fetchAllMovies().map(Movie::getTitle).collectList())
+                .assertNext(titles -> assertEquals(Set.of(" MOVIE1 ", "Movie2", "Movie3"), Set.copyOf(titles)))
+                .verifyComplete();
+
+        assertEquals(2, meterRegistry.get("movies.source.duplicates").counter().count());
+        assertEquals(3, meterRegistry.get("movies.source.records").tag("source", "composite").counter().count());
+    }
+
+    @Test
+    void testEachReadDeduplicatesOnItsOwn() {
+        MovieRepository source = source(Flux.just(MovieTestDataHelper.movieMock1()));
+        CompositeMovieRepository repository = new CompositeMovieRepository(List.of(source, source),
+                MovieDeduplicator.exact(), meterRegistry);
+
+        StepVerifier.create(repository.fetchAllMovies()).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.fetchAllMovies()).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void testFailingSourceFailsTheRead() {
+        MovieRepository broken = source(Flux.error(new IllegalStateException("source down")));
+        CompositeMovieRepository repository = new CompositeMovieRepository(
+                List.of(source(Flux.just(MovieTestDataHelper.movieMock1())), broken), MovieDeduplicator.exact(),
+                meterRegistry);
+
+        StepVerifier.create(repository.fetchAllMovies())
+                .thenConsumeWhile(movie -> true)
+                .expectErrorMessage("source down")
+                .verify();
+    }
+
+    @Test
+    void testSyncNumbersThePagesOfEachSourceAfterTheSourcesBeforeIt() {
+        List<Integer> httpValidatorPages = new ArrayList<>();
+        List<Integer> fileValidatorPages = new ArrayList<>();
+        MovieRepository http = source(Flux.empty(), validators -> {
+            httpValidatorPages.add(validators.apply(1).getTotalPages());
+            return Flux.just(page(1, 2, MovieTestDataHelper.movieMock1()), page(2, 2, MovieTestDataHelper.movieMock2()));
+        });
+        MovieRepository file = source(Flux.empty(), validators -> {
+            fileValidatorPages.add(validators.apply(1).getTotalPages());
+            return Flux.just(page(1, 1, MovieTestDataHelper.movieMock3()));
+        });
+        CompositeMovieRepository repository = new CompositeMovieRepository(List.of(http, file),
+                MovieDeduplicator.exact(), meterRegistry);
+
+        StepVerifier.create(repository.syncPages(page -> page <= 3 ? new PageValidators("\"" + page + "\"", null, 3)
+                        : PageValidators.NONE))
+                .expectNextMatches(page -> page.getPage() == 1 && page.getTotalPages() == 2 && page.getEtag().equals("\"1\""))
+                .expectNextMatches(page -> page.getPage() == 2 && page.getTotalPages() == 2)
+                .expectNextMatches(page -> page.getPage() == 3 && page.getTotalPages() == 3
+                        && page.getMovies().equals(List.of(MovieTestDataHelper.movieMock3())))
+                .verifyComplete();
+
+        assertEquals(List.of(3), httpValidatorPages); // Its own page numbers, unshifted
+        assertEquals(List.of(1), fileValidatorPages); // Page 3 of the catalog, shifted back past the HTTP pages
+    }
+
+    @Test
+    void testSourceWithoutPagesKeepsThePageNumbersOfItsPreviousSync() {
+        MovieRepository http = source(Flux.empty(), validators -> Flux.empty()); // Page 1 could not be fetched
+        MovieRepository file = source(Flux.empty(), validators -> Flux.just(page(1, 1, MovieTestDataHelper.movieMock3())));
+        CompositeMovieRepository repository = new CompositeMovieRepository(List.of(http, file),
+                MovieDeduplicator.exact(), meterRegistry);
+
+        StepVerifier.create(repository.syncPages(page -> page == 1 ? new PageValidators("\"1\"", null, 2)
+                        : PageValidators.NONE).map(MoviePage::getPage))
+                .expectNext(3)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,160 @@
+package com.directa24.main.challenge.api.repository.impl;
+
+import com.directa24.main.challenge.api.exception.ResponseParsingException;
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MoviePage;
+import com.directa24.main.challenge.api.model.PageValidators;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileMovieRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FileMovieRepository repository(int chunkSize, Path... paths) {
+        return new FileMovieRepository(List.of(paths), new ObjectMapper(), chunkSize, meterRegistry);
+    }
+
+    private static String movie(String title, String director) {
+        return "{\"Title\":\"" + title + "\",\"Year\":\"2001\",\"Director\":\"" + director + "\"}";
+    }
+
+    private List<String> titles(FileMovieRepository repository) {
+        return repository.fetchAllMovies().map(Movie::getTitle).collectList().block();
+    }
+
+    @Test
+    void testReadsAJsonArray() throws IOException {
+        Path file = Files.writeString(directory.resolve("movies.json"),
+                "[" + movie("Movie 1", "Director A") + ",\n" + movie("Movie 2", "Director B") + "]");
+
+        StepVerifier.create(repository(10, file).fetchAllMovies())
+                .expectNextMatches(movie -> movie.getTitle().equals("Movie 1") && movie.getDirector().equals("Director A"))
+                .expectNextMatches(movie -> movie.getTitle().equals("Movie 2") && movie.getYear().equals("2001"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testReadsTheDataOfASavedSearchPage() throws IOException {
+        Path file = Files.writeString(directory.resolve("page-1.json"), "{\"page\":1,\"per_page\":2,"
+                + "\"meta\":{\"data\":[]},\"data\":[" + movie("Movie 1", "Director A") + "," + movie("Movie 2", "Director A")
+                + "],\"total_pages\":1}");
+
+        assertEquals(List.of("Movie 1", "Movie 2"), titles(repository(10, file)));
+    }
+
+    @Test
+    void testReadsNdjsonInChunks() throws IOException {
+        Path file = Files.writeString(directory.resolve("movies.ndjson"), IntStream.rangeClosed(1, 7)
+                .mapToObj(i -> movie("Movie " + i, "Director A"))
+                .collect(Collectors.joining("\n", "", "\n")));
+
+        assertEquals(IntStream.rangeClosed(1, 7).mapToObj(i -> "Movie " + i).collect(Collectors.toList()),
+                titles(repository(3, file)));
+    }
+
+    @Test
+    void testReadsGzipCompressedFiles() throws IOException {
+        Path file = directory.resolve("movies.jsonl.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write((movie("Movie 1", "Director A") + "\n" + movie("Movie 2", "Director B"))
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(List.of("Movie 1", "Movie 2"), titles(repository(1, file)));
+    }
+
+    @Test
+    void testReadsTheSupportedFilesOfADirectoryInNameOrder() throws IOException {
+        Files.writeString(directory.resolve("b.ndjson"), movie("Movie 2", "Director A"));
+        Files.writeString(directory.resolve("a.json"), "[" + movie("Movie 1", "Director A") + "]");
+        Files.writeString(directory.resolve("notes.txt"), "not movies");
+
+        assertEquals(List.of("Movie 1", "Movie 2"), titles(repository(10, directory)));
+        assertEquals(2, meterRegistry.get("movies.source.records").tag("source", "file").counter().count());
+        assertFalse(Double.isNaN(meterRegistry.get("movies.source.throughput").tag("source", "file").gauge().value()));
+    }
+
+    private List<MoviePage> syncPages(FileMovieRepository repository) {
+        return repository.syncPages(page -> PageValidators.NONE).collectList().block();
+    }
+
+    @Test
+    void testSyncReadsEveryChunkAsAPage() throws IOException {
+        Files.writeString(directory.resolve("a.ndjson"), IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> movie("Movie " + i, "Director A"))
+                .collect(Collectors.joining("\n")));
+        Files.writeString(directory.resolve("b.json"), "[" + movie("Movie 6", "Director B") + "]");
+
+        List<MoviePage> pages = syncPages(repository(2, directory));
+
+        assertEquals(List.of(1, 2, 3, 4), pages.stream().map(MoviePage::getPage).collect(Collectors.toList()));
+        assertEquals(List.of(2, 2, 1, 1), pages.stream().map(page -> page.getMovies().size()).collect(Collectors.toList()));
+        assertEquals(4, pages.get(3).getTotalPages());
+        assertEquals("Movie 6", pages.get(3).getMovies().get(0).getTitle());
+    }
+
+    @Test
+    void testSyncHashesEachPageFromItsMovies() throws IOException {
+        Path file = directory.resolve("movies.ndjson");
+        Files.writeString(file, movie("Movie 1", "Director A") + "\n" + movie("Movie 2", "Director A"));
+        List<MoviePage> first = syncPages(repository(1, file));
+
+        Files.writeString(file, movie("Movie 1", "Director A") + "\n" + movie("Movie 2", "Director B"));
+        List<MoviePage> second = syncPages(repository(1, file));
+
+        assertEquals(first.get(0).getContentHash(), second.get(0).getContentHash());
+        assertNotEquals(first.get(1).getContentHash(), second.get(1).getContentHash());
+    }
+
+    @Test
+    void testSyncOfAnEmptyCatalogIsOneEmptyPage() throws IOException {
+        Path file = Files.writeString(directory.resolve("movies.json"), "[]");
+
+        StepVerifier.create(repository(10, file).syncPages(page -> PageValidators.NONE))
+                .expectNextMatches(page -> page.getPage() == 1 && page.getTotalPages() == 1 && page.getMovies().isEmpty())
+                .verifyComplete();
+    }
+
+    @Test
+    void testTruncatedFileFailsTheRead() throws IOException {
+        Path file = Files.writeString(directory.resolve("movies.json"), "[" + movie("Movie 1", "Director A") + ",{\"Title\":");
+
+        StepVerifier.create(repository(1, file).fetchAllMovies())
+                .expectNextCount(1)
+                .expectErrorSatisfies(error -> {
+                    assertTrue(error instanceof ResponseParsingException);
+                    assertTrue(error.getCause() instanceof IOException); // Kept for its stack trace
+                })
+                .verify();
+    }
+
+    @Test
+    void testUnsupportedFileIsRejected() throws IOException {
+        Path file = Files.writeString(directory.resolve("movies.csv"), "Title,Director");
+
+        assertThrows(IllegalArgumentException.class, () -> repository(10, file).fetchAllMovies().blockLast());
+    }
+}
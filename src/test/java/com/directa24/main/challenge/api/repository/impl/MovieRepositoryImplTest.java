@@ -1,23 +1,53 @@
 package com.directa24.main.challenge.api.repository.impl;
 
+import com.directa24.main.challenge.api.concurrency.AdaptiveConcurrencyLimiter;
+import com.directa24.main.challenge.api.concurrency.CircuitBreaker;
+import com.directa24.main.challenge.api.concurrency.HedgePolicy;
+import com.directa24.main.challenge.api.dedup.MovieDeduplicator;
+import com.directa24.main.challenge.api.exception.CircuitBreakerOpenException;
+import com.directa24.main.challenge.api.model.CrawlReport;
+import com.directa24.main.challenge.api.model.CrawlSummary;
 import com.directa24.main.challenge.api.model.Movie;
-import com.directa24.main.challenge.api.model.MoviesResponse;
+import com.directa24.main.challenge.api.model.MoviePage;
+import com.directa24.main.challenge.api.model.PageValidators;
 import com.directa24.main.challenge.mocks.MovieTestDataHelper;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.util.retry.Retry;
 
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -36,23 +66,21 @@ class MovieRepositoryImplTest {
     @Mock
     private WebClient.ResponseSpec responseSpec;
 
-    @Mock
-    private ObjectMapper objectMapper;
-
     private MovieRepositoryImpl movieRepository;
 
+    private SimpleMeterRegistry meterRegistry;
+
     private static final int concurrencyLimit = 2;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        movieRepository = new MovieRepositoryImpl(concurrencyLimit, webClient);
+        meterRegistry = new SimpleMeterRegistry();
+        movieRepository = newRepository(webClient);
     }
 
     @Test
-    void fetchAllMovies_success() throws Exception {
-
-        MoviesResponse page1Response = MovieTestDataHelper.getMockMoviesResponse();
+    void fetchAllMovies_success() {
 
         when(webClient.get()).thenAnswer(invocation -> requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec); // Mock uri() with Function
@@ -61,11 +89,8 @@ class MovieRepositoryImplTest {
                 eq("application/json"))).thenAnswer(invocation -> requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenAnswer(invocation -> responseSpec);
 
-        when(responseSpec.bodyToMono(eq(String.class)))
-                .thenReturn(Mono.just(MovieTestDataHelper.warJsonPage1)); // For both pages
-
-        when(objectMapper.readValue(anyString(), eq(MoviesResponse.class)))
-                .thenReturn(page1Response);
+        when(responseSpec.bodyToFlux(eq(DataBuffer.class)))
+                .thenReturn(MovieTestDataHelper.dataBuffers(MovieTestDataHelper.warJsonPage1, 64));
 
         Flux<Movie> result = movieRepository.fetchAllMovies();
 
@@ -74,26 +99,369 @@ class MovieRepositoryImplTest {
                 .expectNextMatches(movie -> movie.getTitle().equals("Movie 2"))
                 .verifyComplete();
 
-        verify(webClient, times(2)).get();
+        verify(webClient, times(1)).get(); // Page 1 is not fetched again for its movies
+        assertEquals(1, meterRegistry.get("movies.upstream.pages").tag("result", "fetched").counter().count());
+        assertEquals(2, meterRegistry.get("movies.upstream.movies.parsed").counter().count());
+        assertEquals(0, meterRegistry.get("movies.upstream.pages.in.flight").gauge().value());
     }
 
     @Test
-    void fetchAllMovies_errorGracefulFallback() {
+    void fetchAllMovies_failsWhenPage1KeepsFailing() {
         when(webClient.get()).thenAnswer(invocation -> requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec); // Mock uri() with Function
         when(requestHeadersSpec.header(eq("Accept"),
                 eq("application/json"))).thenAnswer(invocation -> requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(eq(String.class)))
-                .thenReturn(Mono.error(new RuntimeException("API error")));
+        when(responseSpec.bodyToFlux(eq(DataBuffer.class)))
+                .thenReturn(Flux.error(new RuntimeException("API error")));
 
         Flux<Movie> result = movieRepository.fetchAllMovies();
 
         StepVerifier.create(result)
-                .verifyComplete(); // Gracefully completes with no items
+                .expectErrorMessage("API error")
+                .verify();
+
+        verify(webClient, times(3)).get(); // The first attempt and two retries
+        assertEquals(3, meterRegistry.get("movies.upstream.pages").tag("result", "failed").counter().count());
+        assertEquals(3, meterRegistry.get("movies.upstream.page.fetch").tag("outcome", "error").timer().count());
+        assertEquals(2, meterRegistry.get("movies.upstream.page.retries").counter().count());
+    }
+
+    @Test
+    void fetchAllMovies_dropsAMovieRepeatedByShiftedPagination() {
+        // A movie was inserted before page 2 was read, pushing the last movie of page 1 onto it
+        MovieRepositoryImpl repository = newRepository(pageWebClient(page -> jsonResponse(page == 1
+                ? pageJson(1, 2, 2, "Movie 1", "Movie 2")
+                : pageJson(2, 2, 2, "Movie 2", "Movie 3"))));
+
+        StepVerifier.create(repository.fetchAllMovies().map(Movie::getTitle).collectList())
+                .assertNext(titles -> {
+                    assertEquals(3, titles.size());
+                    assertEquals(Set.of("Movie 1", "Movie 2", "Movie 3"), Set.copyOf(titles));
+                })
+                .verifyComplete();
+
+        assertEquals(4, meterRegistry.get("movies.upstream.movies.parsed").counter().count());
+        assertEquals(1, meterRegistry.get("movies.upstream.movies.duplicate").counter().count());
+    }
+
+    @Test
+    void fetchAllMovies_retriesAFailedPage() {
+        Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        MovieRepositoryImpl repository = newRepository(pageWebClient(page -> {
+            if (page == 2 && attempts.computeIfAbsent(page, key -> new AtomicInteger()).incrementAndGet() == 1) {
+                return ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            return jsonResponse(page == 1 ? pageJson(1, 2, 2, "Movie 1", "Movie 2") : pageJson(2, 2, 2, "Movie 3"));
+        }));
+        CrawlReport report = new CrawlReport();
+
+        StepVerifier.create(repository.fetchAllMovies().count().contextWrite(CrawlReport.with(report)))
+                .expectNext(3L)
+                .verifyComplete();
+
+        assertEquals(2, attempts.get(2).get());
+        assertEquals(1, report.getRetries());
+        assertFalse(report.isPartial());
+    }
+
+    @Test
+    void fetchAllMovies_recordsAPageThatKeepsFailingInTheReport() {
+        MovieRepositoryImpl repository = newRepository(pageWebClient(page -> page == 2
+                ? ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build()
+                : jsonResponse(pageJson(page, 2, 3, "Movie " + page))));
+        CrawlReport report = new CrawlReport();
+
+        StepVerifier.create(repository.fetchAllMovies().map(Movie::getTitle).collectList()
+                        .contextWrite(CrawlReport.with(report)))
+                .assertNext(titles -> assertEquals(Set.of("Movie 1", "Movie 3"), Set.copyOf(titles)))
+                .verifyComplete();
+
+        assertEquals(Set.of(2), report.getFailedPages());
+        assertEquals(2, report.getRetries());
+        assertTrue(report.isPartial());
+
+        CrawlSummary summary = report.summarize(1);
+        assertEquals(3, summary.getPagesAttempted());
+        assertEquals(2, summary.getPagesSucceeded());
+        assertEquals(1, summary.getPagesFailed());
+        assertEquals(2, summary.getMovies());
+        assertEquals(pageJson(1, 2, 3, "Movie 1").length() + pageJson(3, 2, 3, "Movie 3").length(),
+                summary.getBytes());
+        assertEquals(2.0 / 3, summary.completeness());
+    }
+
+    @Test
+    void fetchAllMovies_doesNotRetryClientErrors() {
+        AtomicInteger page2Requests = new AtomicInteger();
+        MovieRepositoryImpl repository = newRepository(pageWebClient(page -> {
+            if (page == 2) {
+                page2Requests.incrementAndGet();
+                return ClientResponse.create(HttpStatus.NOT_FOUND).build();
+            }
+            return jsonResponse(pageJson(page, 2, 2, "Movie " + page));
+        }));
+        CrawlReport report = new CrawlReport();
+
+        StepVerifier.create(repository.fetchAllMovies().count().contextWrite(CrawlReport.with(report)))
+                .expectNext(1L)
+                .verifyComplete();
+
+        assertEquals(1, page2Requests.get());
+        assertEquals(Set.of(2), report.getFailedPages());
+    }
+
+    @Test
+    void fetchAllMovies_failsFastOnceTheCircuitBreakerOpens() {
+        AtomicInteger requests = new AtomicInteger();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CircuitBreaker breaker = new CircuitBreaker("movies-api", 2, Duration.ofMinutes(1), e -> true,
+                Clock.systemUTC());
+        MovieRepositoryImpl repository = new MovieRepositoryImpl(pageWebClient(page -> {
+            requests.incrementAndGet();
+            return ClientResponse.create(HttpStatus.BAD_GATEWAY).build();
+        }), new MoviesPageDecoder(new ObjectMapper()),
+                new AdaptiveConcurrencyLimiter(concurrencyLimit, 1, concurrencyLimit, Duration.ofSeconds(2), 0.9),
+                breaker, Retry.backoff(2, Duration.ofMillis(1)), noHedging(), MovieDeduplicator.exact(), registry);
+
+        StepVerifier.create(repository.fetchAllMovies())
+                .expectError(CircuitBreakerOpenException.class)
+                .verify();
+
+        assertEquals(2, requests.get()); // The third attempt is rejected by the open breaker
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, registry.get("movies.upstream.circuit.state").gauge().value());
+    }
+
+    @Test
+    void fetchAllMovies_fansOutOnceThePage1TrialClosesTheBreaker() {
+        Map<Integer, String> pages = Map.of(
+                1, pageJson(1, 2, 3, "Movie 1", "Movie 2"),
+                2, pageJson(2, 2, 3, "Movie 3", "Movie 4"),
+                3, pageJson(3, 2, 3, "Movie 5"));
+        CircuitBreaker breaker = halfOpenBreaker();
+        MovieRepositoryImpl repository = new MovieRepositoryImpl(pageWebClient(page -> jsonResponse(pages.get(page))),
+                new MoviesPageDecoder(new ObjectMapper()),
+                new AdaptiveConcurrencyLimiter(concurrencyLimit, 1, concurrencyLimit, Duration.ofSeconds(2), 0.9),
+                breaker, Retry.backoff(2, Duration.ofMillis(1)), noHedging(), MovieDeduplicator.exact(),
+                meterRegistry);
+        CrawlReport report = new CrawlReport();
+
+        StepVerifier.create(repository.fetchAllMovies().map(Movie::getTitle).collectList()
+                        .contextWrite(CrawlReport.with(report)))
+                .assertNext(titles -> assertEquals(
+                        Set.of("Movie 1", "Movie 2", "Movie 3", "Movie 4", "Movie 5"), Set.copyOf(titles)))
+                .verifyComplete();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertFalse(report.isPartial());
+    }
+
+    @Test
+    void fetchAllMovies_hedgeRejectedDuringTheTrialDoesNotFailThePage() {
+        String page1 = pageJson(1, 2, 1, "Movie 1", "Movie 2");
+        WebClient slowWebClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.fromSupplier(() -> jsonResponse(page1))
+                        .delayElement(Duration.ofMillis(200)))
+                .build();
+        HedgePolicy hedging = new HedgePolicy(true, 0.5, Duration.ofMillis(10), 1, 8);
+        hedging.record(Duration.ofMillis(1).toNanos());
+        CircuitBreaker breaker = halfOpenBreaker();
+        MovieRepositoryImpl repository = new MovieRepositoryImpl(slowWebClient,
+                new MoviesPageDecoder(new ObjectMapper()),
+                new AdaptiveConcurrencyLimiter(concurrencyLimit, 1, concurrencyLimit, Duration.ofSeconds(2), 0.9),
+                breaker, Retry.backoff(2, Duration.ofMillis(1)), hedging, MovieDeduplicator.exact(), meterRegistry);
+
+        StepVerifier.create(repository.fetchAllMovies().count())
+                .expectNext(2L)
+                .verifyComplete();
 
-        verify(webClient).get();
+        assertEquals(1, meterRegistry.get("movies.upstream.page.hedges").counter().count());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
     }
 
+    @Test
+    void syncPages_fansOutOnceThePage1TrialClosesTheBreaker() {
+        Map<Integer, String> pages = Map.of(
+                1, pageJson(1, 2, 2, "Movie 1", "Movie 2"),
+                2, pageJson(2, 2, 2, "Movie 3"));
+        CircuitBreaker breaker = halfOpenBreaker();
+        MovieRepositoryImpl repository = new MovieRepositoryImpl(pageWebClient(page -> jsonResponse(pages.get(page))),
+                new MoviesPageDecoder(new ObjectMapper()),
+                new AdaptiveConcurrencyLimiter(concurrencyLimit, 1, concurrencyLimit, Duration.ofSeconds(2), 0.9),
+                breaker, Retry.backoff(2, Duration.ofMillis(1)), noHedging(), MovieDeduplicator.exact(),
+                meterRegistry);
+
+        StepVerifier.create(repository.syncPages(page -> PageValidators.NONE).map(MoviePage::getPage).collectList())
+                .assertNext(synced -> assertEquals(List.of(1, 2), synced))
+                .verifyComplete();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void fetchAllMovies_fetchesEveryPageOnce() {
+        List<Integer> requestedPages = stubPages(
+                pageJson(1, 2, 3, "Movie 1", "Movie 2"),
+                pageJson(2, 2, 3, "Movie 3", "Movie 4"),
+                pageJson(3, 2, 3, "Movie 5"));
+
+        StepVerifier.create(movieRepository.fetchAllMovies().map(Movie::getTitle).collectList())
+                .assertNext(titles -> assertEquals(
+                        Set.of("Movie 1", "Movie 2", "Movie 3", "Movie 4", "Movie 5"), Set.copyOf(titles)))
+                .verifyComplete();
+
+        assertEquals(List.of(1, 2, 3), requestedPages.stream().sorted().collect(Collectors.toList()));
+        assertEquals(0, meterRegistry.get("movies.upstream.pagination.changes").counter().count());
+    }
+
+    @Test
+    void fetchAllMovies_followsTotalPagesGrowingMidCrawl() {
+        List<Integer> requestedPages = stubPages(
+                pageJson(1, 2, 2, "Movie 1", "Movie 2"),
+                pageJson(2, 2, 3, "Movie 3", "Movie 4"),
+                pageJson(3, 2, 3, "Movie 5"));
+
+        StepVerifier.create(movieRepository.fetchAllMovies().count())
+                .expectNext(5L)
+                .verifyComplete();
+
+        assertEquals(List.of(1, 2, 3), requestedPages);
+        assertEquals(1, meterRegistry.get("movies.upstream.pagination.changes").counter().count());
+    }
+
+    @Test
+    void fetchAllMovies_countsPerPageChanges() {
+        stubPages(
+                pageJson(1, 2, 2, "Movie 1", "Movie 2"),
+                pageJson(2, 3, 2, "Movie 3", "Movie 4", "Movie 5"));
+
+        StepVerifier.create(movieRepository.fetchAllMovies().count())
+                .expectNext(5L)
+                .verifyComplete();
 
-}
\ No newline at end of file
+        assertEquals(1, meterRegistry.get("movies.upstream.pagination.changes").counter().count());
+    }
+
+    @Test
+    void syncPages_revalidatesWithEtagsAndHashesChangedPages() {
+        Map<Integer, String> pages = new ConcurrentHashMap<>(Map.of(
+                1, pageJson(1, 2, 2, "Movie 1", "Movie 2"),
+                2, pageJson(2, 2, 2, "Movie 3")));
+        List<String> conditionalRequests = new CopyOnWriteArrayList<>();
+        WebClient etagWebClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    int page = Integer.parseInt(UriComponentsBuilder.fromUri(request.url()).build()
+                            .getQueryParams().getFirst("page"));
+                    String etag = "\"" + pages.get(page).hashCode() + "\"";
+                    String ifNoneMatch = request.headers().getFirst(HttpHeaders.IF_NONE_MATCH);
+                    if (ifNoneMatch != null) {
+                        conditionalRequests.add(page + ":" + ifNoneMatch);
+                    }
+                    if (etag.equals(ifNoneMatch)) {
+                        return Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+                    }
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                            .header(HttpHeaders.ETAG, etag)
+                            .body(MovieTestDataHelper.dataBuffers(pages.get(page), 16))
+                            .build());
+                })
+                .build();
+        MovieRepositoryImpl repository = newRepository(etagWebClient);
+
+        Map<Integer, MoviePage> firstSync = repository.syncPages(page -> PageValidators.NONE)
+                .collectMap(MoviePage::getPage)
+                .block();
+        assertEquals(2, firstSync.size());
+        assertTrue(firstSync.values().stream().allMatch(MoviePage::isModified));
+        assertEquals(List.of("Movie 3"), firstSync.get(2).getMovies().stream().map(Movie::getTitle)
+                .collect(Collectors.toList()));
+        assertTrue(conditionalRequests.isEmpty());
+
+        pages.put(2, pageJson(2, 2, 2, "Movie 4"));
+        Map<Integer, MoviePage> secondSync = repository.syncPages(page -> new PageValidators(
+                        firstSync.get(page).getEtag(), null, firstSync.get(page).getTotalPages()))
+                .collectMap(MoviePage::getPage)
+                .block();
+
+        assertFalse(secondSync.get(1).isModified());
+        assertEquals(2, secondSync.get(1).getTotalPages());
+        assertTrue(secondSync.get(2).isModified());
+        assertNotEquals(firstSync.get(2).getContentHash(), secondSync.get(2).getContentHash());
+        assertEquals(2, conditionalRequests.size());
+        assertEquals(1, meterRegistry.get("movies.upstream.pages.not.modified").counter().count());
+    }
+
+    private MovieRepositoryImpl newRepository(WebClient client) {
+        return new MovieRepositoryImpl(client, new MoviesPageDecoder(new ObjectMapper()),
+                new AdaptiveConcurrencyLimiter(concurrencyLimit, 1, concurrencyLimit, Duration.ofSeconds(2), 0.9),
+                new CircuitBreaker("movies-api", 5, Duration.ofSeconds(30), e -> true, Clock.systemUTC()),
+                Retry.backoff(2, Duration.ofMillis(1)), noHedging(), MovieDeduplicator.exact(), meterRegistry);
+    }
+
+    /**
+     * A breaker opened by a failed call, with no open duration, so the next call is its half-open trial.
+     */
+    private static CircuitBreaker halfOpenBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker("movies-api", 1, Duration.ZERO, e -> true, Clock.systemUTC());
+        breaker.run(() -> Mono.error(new IllegalStateException("upstream down")))
+                .onErrorResume(e -> Flux.empty())
+                .blockLast();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static HedgePolicy noHedging() {
+        return new HedgePolicy(false, 0.95, Duration.ofMillis(200), 20, 128);
+    }
+
+    /**
+     * Answers every request with the response for its page query parameter.
+     */
+    private static WebClient pageWebClient(IntFunction<ClientResponse> responses) {
+        return WebClient.builder()
+                .exchangeFunction(request -> Mono.fromSupplier(() -> responses.apply(Integer.parseInt(
+                        UriComponentsBuilder.fromUri(request.url()).build().getQueryParams().getFirst("page")))))
+                .build();
+    }
+
+    private static ClientResponse jsonResponse(String json) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .body(MovieTestDataHelper.dataBuffers(json, 16))
+                .build();
+    }
+
+    /**
+     * Serves the given page bodies by the page query parameter and records the requested pages.
+     */
+    private List<Integer> stubPages(String... pages) {
+        List<Integer> requestedPages = new CopyOnWriteArrayList<>();
+        AtomicInteger lastPage = new AtomicInteger();
+
+        when(webClient.get()).thenAnswer(invocation -> requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(Function.class))).thenAnswer(invocation -> {
+            Function<UriBuilder, URI> uriFunction = invocation.getArgument(0);
+            URI uri = uriFunction.apply(UriComponentsBuilder.newInstance());
+            int page = Integer.parseInt(UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst("page"));
+            requestedPages.add(page);
+            lastPage.set(page);
+            return requestHeadersSpec;
+        });
+        when(requestHeadersSpec.header(eq("Accept"),
+                eq("application/json"))).thenAnswer(invocation -> requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenAnswer(invocation -> responseSpec);
+        when(responseSpec.bodyToFlux(eq(DataBuffer.class)))
+                .thenAnswer(invocation -> MovieTestDataHelper.dataBuffers(pages[lastPage.get() - 1], 64));
+        return requestedPages;
+    }
+
+    private static String pageJson(int page, int perPage, int totalPages, String... titles) {
+        String data = Arrays.stream(titles)
+                .map(title -> "{\"Title\":\"" + title + "\",\"Director\":\"Director A\"}")
+                .collect(Collectors.joining(","));
+        return "{\"page\":" + page + ",\"per_page\":" + perPage + ",\"total\":" + (perPage * totalPages)
+                + ",\"total_pages\":" + totalPages + ",\"data\":[" + data + "]}";
+    }
+}
@@ -0,0 +1,81 @@
+package com.directa24.main.challenge.api.repository.impl;
+
+import com.directa24.main.challenge.api.exception.ResponseParsingException;
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MoviesResponse;
+import com.directa24.main.challenge.mocks.MovieTestDataHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MoviesPageDecoderTest {
+
+    private final MoviesPageDecoder decoder = new MoviesPageDecoder(new ObjectMapper());
+
+    private static List<String> titles(List<MoviesResponse> chunks) {
+        return chunks.stream()
+                .flatMap(chunk -> chunk.getData().stream())
+                .map(Movie::getTitle)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void testDecodeEmitsHeaderBeforeMovies() {
+        StepVerifier.create(decoder.decode(MovieTestDataHelper.dataBuffers(MovieTestDataHelper.warJsonPage1, 64)))
+                .expectNextMatches(header -> header.getTotalPages() == 1 && header.getPerPage() == 2
+                        && header.getData().isEmpty())
+                .thenConsumeWhile(chunk -> chunk.getTotalPages() == 1 && !chunk.getData().isEmpty())
+                .verifyComplete();
+    }
+
+    @Test
+    void testDecodeIsIndependentOfChunkBoundaries() {
+        for (int chunkSize : new int[]{1, 7, 1024}) {
+            List<MoviesResponse> chunks = decoder
+                    .decode(MovieTestDataHelper.dataBuffers(MovieTestDataHelper.warJsonPage1, chunkSize))
+                    .collectList()
+                    .block();
+
+            assertEquals(List.of("Movie 1", "Movie 2"), titles(chunks));
+            Movie first = chunks.get(1).getData().get(0);
+            assertEquals("Director A", first.getDirector());
+            assertEquals("Actor 1, Actor A", first.getActors());
+        }
+    }
+
+    @Test
+    void testDecodeHeaderAfterDataAndUnknownFields() {
+        String json = "{\"data\":[{\"Title\":\"Movie 1\",\"Director\":\"Director A\",\"Ratings\":[{\"Source\":\"x\"}]}]," +
+                "\"support\":{\"url\":\"https://example.com\",\"pages\":[1,2]},\"page\":3,\"per_page\":10," +
+                "\"total\":25,\"total_pages\":3}";
+
+        StepVerifier.create(decoder.decode(MovieTestDataHelper.dataBuffers(json, 5)))
+                .expectNextMatches(header -> header.getPage() == 3 && header.getTotal() == 25
+                        && header.getTotalPages() == 3 && header.getData().isEmpty())
+                .expectNextMatches(chunk -> chunk.getData().size() == 1
+                        && chunk.getData().get(0).getDirector().equals("Director A"))
+                .verifyComplete();
+    }
+
+    @Test
+    void testDecodeMalformedBody() {
+        StepVerifier.create(decoder.decode(MovieTestDataHelper.dataBuffers("{\"page\":1,\"data\":[{]}", 4)))
+                .verifyErrorMatches(e -> e instanceof ResponseParsingException && e.getCause() instanceof IOException);
+    }
+
+    @Test
+    void testDecodeTruncatedBody() {
+        StepVerifier.create(decoder.decode(MovieTestDataHelper.dataBuffers(
+                        MovieTestDataHelper.warJsonPage1.substring(0, 120), 16)).then())
+                .verifyError(ResponseParsingException.class);
+        StepVerifier.create(decoder.decode(MovieTestDataHelper.dataBuffers("", 16)).then())
+                .verifyErrorMessage("Truncated movies page");
+    }
+
+}
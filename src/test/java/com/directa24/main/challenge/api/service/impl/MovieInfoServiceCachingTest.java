@@ -1,6 +1,7 @@
 package com.directa24.main.challenge.api.service.impl;
 
-import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.catalog.MovieCatalog;
+import com.directa24.main.challenge.api.model.CatalogResult;
 import com.directa24.main.challenge.api.repository.MovieRepository;
 import com.directa24.main.challenge.api.service.MovieInfoService;
 import com.directa24.main.challenge.mocks.MovieTestDataHelper;
@@ -19,7 +20,6 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
-import java.time.Duration;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -38,17 +38,19 @@ public class MovieInfoServiceCachingTest {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private MovieCatalog movieCatalog;
+
     @MockBean
     private MovieRepository movieRepository;
 
-    private static final int PROCESSING_THRESHOLD = 5;
-
     @BeforeEach
     void setUp() {
         Cache cache = cacheManager.getCache("directorsCache");
         if (cache != null) {
             cache.clear();
         }
+        movieCatalog.invalidate().block();
     }
 
     @Test
@@ -59,7 +61,7 @@ public class MovieInfoServiceCachingTest {
                         MovieTestDataHelper.movieMock3()));
 
         // First call to populate the cache
-        StepVerifier.create(movieInfoService.getDirectors(1))
+        StepVerifier.create(movieInfoService.getDirectors(1).map(CatalogResult::getValue))
                 .expectNextMatches(directors -> directors.contains("Director1"))
                 .verifyComplete();
 
@@ -67,7 +69,7 @@ public class MovieInfoServiceCachingTest {
         verify(movieRepository, times(1)).fetchAllMovies();
 
         // Second call should fetch from the cache
-        StepVerifier.create(movieInfoService.getDirectors(1))
+        StepVerifier.create(movieInfoService.getDirectors(1).map(CatalogResult::getValue))
                 .expectNextMatches(directors -> directors.contains("Director1"))
                 .verifyComplete();
 
@@ -76,14 +78,14 @@ public class MovieInfoServiceCachingTest {
     }
 
     @Test
-    void testCacheEvictionOnDifferentThresholds() {
+    void testDifferentThresholdsShareDirectorIndex() {
 
         when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(
                 MovieTestDataHelper.movieMock1(), MovieTestDataHelper.movieMock2(),
                 MovieTestDataHelper.movieMock3()));
 
         // First call with threshold 1
-        StepVerifier.create(movieInfoService.getDirectors(1))
+        StepVerifier.create(movieInfoService.getDirectors(1).map(CatalogResult::getValue))
                 .expectNextMatches(directors -> directors.contains("Director1"))
                 .verifyComplete();
 
@@ -92,54 +94,48 @@ public class MovieInfoServiceCachingTest {
                         .getCache("directorsCache").getNativeCache();
         assertTrue(caffeineCache.estimatedSize() > 0, "Cache should contain an entry");
 
-        StepVerifier.create(movieInfoService.getDirectors(2))
+        StepVerifier.create(movieInfoService.getDirectors(2).map(CatalogResult::getValue))
                 .expectNextMatches(List::isEmpty)
                 .verifyComplete();
 
         caffeineCache =
                 (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cacheManager
                         .getCache("directorsCache").getNativeCache();
-        assertTrue(caffeineCache.estimatedSize() == 2, "Cache should contain two entry");
+        assertEquals(2, caffeineCache.estimatedSize(), "Cache should contain one result per threshold");
 
 
-        // Verify that the repository was called twice due to different keys in cache
-        verify(movieRepository, times(2)).fetchAllMovies();
+        // Verify that the repository was called once, both thresholds are answered from the same index
+        verify(movieRepository, times(1)).fetchAllMovies();
     }
 
     @Test
-    void testCacheExpiration() throws InterruptedException {
+    void testRefreshSwapsSnapshotAndResults() {
         when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(
                 MovieTestDataHelper.movieMock1(), MovieTestDataHelper.movieMock2(),
                 MovieTestDataHelper.movieMock3()));
-        // First call to populate the cache
-        StepVerifier.create(movieInfoService.getDirectors(1))
-                .expectNextMatches(directors -> directors.contains("Director1"))
+        // First call to populate the snapshot and the cache
+        StepVerifier.create(movieInfoService.getDirectors(1).map(CatalogResult::getValue))
+                .expectNext(List.of("Director1"))
                 .verifyComplete();
 
-        com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeineCache =
-                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cacheManager
-                        .getCache("directorsCache").getNativeCache();
-        assertTrue(caffeineCache.estimatedSize() > 0, "Cache should contain an entry");
-
-        // Trigger manual cleanup and wait
-        caffeineCache.cleanUp();
-        Thread.sleep(Duration.ofMinutes(2).toMillis()); // Exceeds cache expiry duration
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(
+                MovieTestDataHelper.movieMock3(), MovieTestDataHelper.movieMock6()));
 
-        // Re-validate cache size
-        caffeineCache.cleanUp();
-        assertEquals(0, caffeineCache.estimatedSize(), "Cache should be empty after expiration");
+        // Act - A background refresh swaps in the new snapshot
+        StepVerifier.create(movieCatalog.refresh())
+                .expectNextCount(1)
+                .verifyComplete();
 
-        // Act - Second call: Data should be re-fetched as cache is expired
-        Mono<List<String>> result2 = movieInfoService.getDirectors(1);
+        Mono<List<String>> result2 = movieInfoService.getDirectors(1).map(CatalogResult::getValue);
 
         StepVerifier.create(result2)
-                .expectNextMatches(directors -> directors.contains("Director1"))
+                .expectNext(List.of("Director2"))
                 .verifyComplete();
 
-        caffeineCache =
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeineCache =
                 (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cacheManager
                         .getCache("directorsCache").getNativeCache();
-        assertTrue(caffeineCache.estimatedSize() > 0, "Cache should have one entry");
+        assertEquals(2, caffeineCache.estimatedSize(), "Cache should hold one result per snapshot version");
 
         // Assert - Verify that the repository method was called twice
         verify(movieRepository, times(2)).fetchAllMovies();
@@ -1,17 +1,39 @@
 package com.directa24.main.challenge.api.service.impl;
 
+import com.directa24.main.challenge.api.cache.InMemoryRemoteCacheStore;
+import com.directa24.main.challenge.api.catalog.CatalogSnapshotStore;
+import com.directa24.main.challenge.api.catalog.MovieCatalog;
+import com.directa24.main.challenge.api.catalog.SharedCatalog;
+import com.directa24.main.challenge.api.dto.DirectorStreamEvent;
+import com.directa24.main.challenge.api.model.CatalogResult;
+import com.directa24.main.challenge.api.model.CrawlReport;
+import com.directa24.main.challenge.api.model.Movie;
+import com.directa24.main.challenge.api.model.MovieFilter;
 import com.directa24.main.challenge.api.repository.MovieRepository;
 import com.directa24.main.challenge.mocks.MovieTestDataHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.test.context.ActiveProfiles;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ActiveProfiles("test")
@@ -22,12 +44,19 @@ class MovieInfoServiceImplTest {
 
     private MovieInfoServiceImpl movieInfoService;
 
-    private static final int PROCESSING_THRESHOLD = 10;
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(MovieInfoServiceImpl.DIRECTORS_CACHE);
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        movieInfoService = new MovieInfoServiceImpl(PROCESSING_THRESHOLD, movieRepository);
+        movieInfoService = new MovieInfoServiceImpl(
+                new MovieCatalog(Duration.ofMinutes(5), Duration.ofSeconds(30),
+                        Duration.ofMinutes(30), Duration.ofMinutes(1), false, false, movieRepository,
+                        new CatalogSnapshotStore(false, Paths.get("catalog.snapshot")),
+                        new SharedCatalog(Duration.ofMinutes(30), Duration.ofMinutes(2), Duration.ofSeconds(30),
+                                new InMemoryRemoteCacheStore()),
+                        new SimpleMeterRegistry()),
+                cacheManager);
     }
 
     @Test
@@ -40,12 +69,63 @@ class MovieInfoServiceImplTest {
                         MovieTestDataHelper.movieMock5(), MovieTestDataHelper.movieMock6()));
 
         // Call method under test
-        StepVerifier.create(movieInfoService.getDirectors(2))
+        StepVerifier.create(movieInfoService.getDirectors(2).map(CatalogResult::getValue))
                 .expectNextMatches(directors -> directors.contains("Director1")
                         && !directors.contains("Director2"))
                 .verifyComplete();
     }
 
+    @Test
+    void testGetCatalogVersionReportsWhenTheSnapshotIsDueForARefresh() {
+
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(MovieTestDataHelper.movieMock1()));
+
+        StepVerifier.create(movieInfoService.getDirectors(1).then(movieInfoService.getCatalogVersion()))
+                .assertNext(result -> {
+                    assertEquals(1L, result.getValue());
+                    assertEquals(1L, result.getVersion());
+                    // Refreshed 30 seconds ahead of the 5 minute interval
+                    assertEquals(result.getLoadedAt().plus(Duration.ofSeconds(270)), result.getRefreshDueAt());
+                    assertTrue(result.freshFor().compareTo(Duration.ofSeconds(270)) <= 0);
+                })
+                .verifyComplete();
+        verify(movieRepository, times(1)).fetchAllMovies();
+    }
+
+    @Test
+    void testGetDirectorsReportsTheSnapshotItWasAnsweredFrom() {
+
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(MovieTestDataHelper.movieMock1(),
+                MovieTestDataHelper.movieMock2()));
+
+        StepVerifier.create(movieInfoService.getDirectors(1))
+                .assertNext(result -> {
+                    assertEquals(List.of("Director1"), result.getValue());
+                    assertEquals(1L, result.getVersion());
+                    assertFalse(result.isPartial());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetDirectorsDoesNotCacheResultsOfAPartialSnapshot() {
+
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.deferContextual(context -> {
+            CrawlReport.from(context).ifPresent(report -> report.pageFailed(2));
+            return Flux.just(MovieTestDataHelper.movieMock1(), MovieTestDataHelper.movieMock2());
+        }));
+
+        StepVerifier.create(movieInfoService.getDirectors(1))
+                .assertNext(result -> {
+                    assertEquals(List.of("Director1"), result.getValue());
+                    assertTrue(result.isPartial());
+                    assertEquals(1, result.getCrawl().getPagesMissing());
+                })
+                .verifyComplete();
+
+        assertNull(cacheManager.getCache(MovieInfoServiceImpl.DIRECTORS_CACHE).get(new SimpleKey(1L, 1)));
+    }
+
     @Test
     void testGetDirectorsEmptyResultWhenNoDirectorsAboveThreshold() {
 
@@ -55,7 +135,7 @@ class MovieInfoServiceImplTest {
                 MovieTestDataHelper.movieMock5(), MovieTestDataHelper.movieMock6()));
 
         // Call method under test
-        StepVerifier.create(movieInfoService.getDirectors(5))
+        StepVerifier.create(movieInfoService.getDirectors(5).map(CatalogResult::getValue))
                 .expectNextMatches(List::isEmpty)
                 .verifyComplete();
     }
@@ -68,9 +148,196 @@ class MovieInfoServiceImplTest {
                 MovieTestDataHelper.movieMock2()));
 
         // Call method under test
-        StepVerifier.create(movieInfoService.getDirectors(1))
+        StepVerifier.create(movieInfoService.getDirectors(1).map(CatalogResult::getValue))
                 .expectNextMatches(directors -> directors.contains("Director1"))
                 .verifyComplete();
     }
 
-}
\ No newline at end of file
+    @Test
+    void testGetDirectorsSharesOneCrawlAcrossThresholds() {
+
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(MovieTestDataHelper.movieMock1(),
+                MovieTestDataHelper.movieMock2(), MovieTestDataHelper.movieMock3(),
+                MovieTestDataHelper.movieMock5(), MovieTestDataHelper.movieMock6()));
+
+        StepVerifier.create(movieInfoService.getDirectors(1).map(CatalogResult::getValue))
+                .expectNext(List.of("Director1", "Director2"))
+                .verifyComplete();
+
+        StepVerifier.create(movieInfoService.getDirectors(2).map(CatalogResult::getValue))
+                .expectNext(List.of("Director1"))
+                .verifyComplete();
+
+        StepVerifier.create(movieInfoService.getDirectors(3).map(CatalogResult::getValue))
+                .expectNextMatches(List::isEmpty)
+                .verifyComplete();
+
+        verify(movieRepository, times(1)).fetchAllMovies();
+    }
+
+    @Test
+    void testGetDirectorsAnswersEveryThresholdOfABatchFromOneCrawl() {
+
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(MovieTestDataHelper.movieMock1(),
+                MovieTestDataHelper.movieMock2(), MovieTestDataHelper.movieMock3(),
+                MovieTestDataHelper.movieMock5(), MovieTestDataHelper.movieMock6()));
+
+        StepVerifier.create(movieInfoService.getDirectors(List.of(3, 1, 2, 1)).map(CatalogResult::getValue))
+                .assertNext(directors -> {
+                    assertEquals(List.of(3, 1, 2), List.copyOf(directors.keySet()));
+                    assertEquals(List.of(), directors.get(3));
+                    assertEquals(List.of("Director1", "Director2"), directors.get(1));
+                    assertEquals(List.of("Director1"), directors.get(2));
+                })
+                .verifyComplete();
+
+        verify(movieRepository, times(1)).fetchAllMovies();
+    }
+
+    @Test
+    void testGetDirectorsCountsOnlyMoviesMatchingTheFilter() {
+
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(MovieTestDataHelper.movieMock1(),
+                MovieTestDataHelper.movieMock2(), MovieTestDataHelper.movieMock3(),
+                MovieTestDataHelper.movieMock4(), MovieTestDataHelper.movieMock5(),
+                MovieTestDataHelper.movieMock6()));
+
+        StepVerifier.create(movieInfoService.getDirectors(0, new MovieFilter("fantasy", null, null, null, null))
+                        .map(CatalogResult::getValue))
+                .expectNext(List.of("Director1"))
+                .verifyComplete();
+
+        StepVerifier.create(movieInfoService.getDirectors(0, new MovieFilter(null, null, null, 2000, null))
+                        .map(CatalogResult::getValue))
+                .expectNext(List.of("Director1", "Director2"))
+                .verifyComplete();
+
+        verify(movieRepository, times(1)).fetchAllMovies();
+    }
+
+    @Test
+    void testGetTopDirectorsReturnsCountsInIndexOrder() {
+
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(MovieTestDataHelper.movieMock1(),
+                MovieTestDataHelper.movieMock2(), MovieTestDataHelper.movieMock3(),
+                MovieTestDataHelper.movieMock4(), MovieTestDataHelper.movieMock5(),
+                MovieTestDataHelper.movieMock6()));
+
+        StepVerifier.create(movieInfoService.getTopDirectors(2).map(CatalogResult::getValue))
+                .assertNext(directors -> {
+                    assertEquals(2, directors.size());
+                    assertEquals("Director1", directors.get(0).getDirector());
+                    assertEquals(3, directors.get(0).getMovies());
+                    assertEquals("Director2", directors.get(1).getDirector());
+                    assertEquals(2, directors.get(1).getMovies());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testStreamDirectorsEmitsEachDirectorWhileTheColdCrawlIsRunning() {
+        Sinks.Many<Movie> crawl = Sinks.many().unicast().onBackpressureBuffer();
+        when(movieRepository.fetchAllMovies()).thenReturn(crawl.asFlux());
+
+        StepVerifier.create(movieInfoService.streamDirectors(1))
+                .then(() -> {
+                    crawl.tryEmitNext(MovieTestDataHelper.movieMock1());
+                    crawl.tryEmitNext(MovieTestDataHelper.movieMock3());
+                    crawl.tryEmitNext(MovieTestDataHelper.movieMock2());
+                })
+                .assertNext(event -> assertEquals("Director1", event.getDirector()))
+                .then(() -> {
+                    crawl.tryEmitNext(MovieTestDataHelper.movieMockDirectorNull());
+                    crawl.tryEmitNext(MovieTestDataHelper.movieMock6());
+                })
+                .assertNext(event -> assertEquals("Director2", event.getDirector()))
+                .then(() -> {
+                    crawl.tryEmitNext(MovieTestDataHelper.movieMock5());
+                    crawl.tryEmitComplete();
+                })
+                .assertNext(summary -> {
+                    assertEquals(DirectorStreamEvent.SUMMARY, summary.getType());
+                    assertEquals(2, summary.getDirectors());
+                    assertEquals("crawl", summary.getSource());
+                    assertEquals(6L, summary.getMovies());
+                    assertEquals(false, summary.getPartial());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testColdStreamsShareTheCatalogLoad() {
+        Sinks.Many<Movie> crawl = Sinks.many().unicast().onBackpressureBuffer();
+        when(movieRepository.fetchAllMovies()).thenReturn(crawl.asFlux());
+
+        StepVerifier.create(Flux.merge(movieInfoService.streamDirectors(1), movieInfoService.streamDirectors(2),
+                                movieInfoService.getDirectors(1).map(result -> DirectorStreamEvent.director("result")))
+                        .filter(event -> event.getDirector() != null)
+                        .map(DirectorStreamEvent::getDirector))
+                .then(() -> {
+                    crawl.tryEmitNext(MovieTestDataHelper.movieMock1());
+                    crawl.tryEmitNext(MovieTestDataHelper.movieMock2());
+                })
+                .expectNext("Director1")
+                .then(() -> {
+                    crawl.tryEmitNext(MovieTestDataHelper.movieMock3());
+                    crawl.tryEmitComplete();
+                })
+                .expectNext("result") // Director1 never crosses the threshold of the second stream
+                .verifyComplete();
+
+        verify(movieRepository, times(1)).fetchAllMovies();
+    }
+
+    @Test
+    void testStreamJoiningTheLoadLateSeesEveryMovie() {
+        Sinks.Many<Movie> crawl = Sinks.many().unicast().onBackpressureBuffer();
+        when(movieRepository.fetchAllMovies()).thenReturn(crawl.asFlux());
+        movieInfoService.getDirectors(1).subscribe();
+        crawl.tryEmitNext(MovieTestDataHelper.movieMock1());
+        crawl.tryEmitNext(MovieTestDataHelper.movieMock2());
+
+        StepVerifier.create(movieInfoService.streamDirectors(1).map(event -> event.getType() + ":"
+                        + (event.getDirector() != null ? event.getDirector() : event.getMovies())))
+                .expectNext("director:Director1")
+                .then(() -> {
+                    crawl.tryEmitNext(MovieTestDataHelper.movieMock3());
+                    crawl.tryEmitComplete();
+                })
+                .expectNext("summary:3")
+                .verifyComplete();
+
+        verify(movieRepository, times(1)).fetchAllMovies();
+    }
+
+    @Test
+    void testStreamDirectorsCountsEveryCreditedDirectorOfTheCrawl() {
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(
+                MovieTestDataHelper.createMovie("Fargo", "1996", "R", "", "98 min", "Crime",
+                        "Joel Coen, Ethan Coen", "Writer", "Actor"),
+                MovieTestDataHelper.createMovie("Blood Simple", "1984", "R", "", "99 min", "Crime", "joel coen",
+                        "Writer", "Actor")));
+
+        StepVerifier.create(movieInfoService.streamDirectors(1).map(event -> event.getType() + ":"
+                        + (event.getDirector() != null ? event.getDirector() : event.getMovies())))
+                .expectNext("director:Joel Coen", "summary:2")
+                .verifyComplete();
+    }
+
+    @Test
+    void testStreamDirectorsAnswersFromTheLoadedSnapshot() {
+
+        when(movieRepository.fetchAllMovies()).thenReturn(Flux.just(MovieTestDataHelper.movieMock1(),
+                MovieTestDataHelper.movieMock2(), MovieTestDataHelper.movieMock3(),
+                MovieTestDataHelper.movieMock5(), MovieTestDataHelper.movieMock6()));
+        movieInfoService.getDirectors(1).block();
+
+        StepVerifier.create(movieInfoService.streamDirectors(1).map(event -> event.getType() + ":"
+                        + (event.getDirector() != null ? event.getDirector() : event.getSource() + "@" + event.getVersion())))
+                .expectNext("director:Director1", "director:Director2", "summary:snapshot@1")
+                .verifyComplete();
+
+        verify(movieRepository, times(1)).fetchAllMovies();
+    }
+
+}
@@ -2,8 +2,12 @@ package com.directa24.main.challenge.mocks;
 
 import com.directa24.main.challenge.api.model.Movie;
 import com.directa24.main.challenge.api.model.MoviesResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import reactor.core.publisher.Flux;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 
 public class MovieTestDataHelper {
@@ -18,6 +22,18 @@ public class MovieTestDataHelper {
             "{\"Title\":\"Movie 1\",\"Year\":\"2012\",\"Rated\":\"PG-13\",\"Released\":\"10 Jun 2012\",\"Runtime\":\"10 min\",\"Genre\":\"Action\",\"Director\":\"Director A\",\"Writer\":\"Writer Za\",\"Actors\":\"Actor 1, Actor A\"}," +
             "{\"Title\":\"Movie 2\",\"Year\":\"1980\",\"Rated\":\"PG-13\",\"Released\":\"20 Apr 1980\",\"Runtime\":\"15 min\",\"Genre\":\"Sci-fy\",\"Director\":\"Director BC\",\"Writer\":\"Writer VC\",\"Actors\":\"Actor Y, Actor Z\"}]}";
 
+    /**
+     * Splits a JSON body into DataBuffers of the given size, as a streamed response body would arrive.
+     */
+    public static Flux<DataBuffer> dataBuffers(String json, int chunkSize) {
+        return Flux.defer(() -> {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            return Flux.range(0, (bytes.length + chunkSize - 1) / chunkSize)
+                    .map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes,
+                            chunk * chunkSize, Math.min(bytes.length, (chunk + 1) * chunkSize))));
+        });
+    }
+
     public static MoviesResponse getMockMoviesResponse() {
 
         List<Movie> movies = List.of(createMovie("Movie 1", "2012", "PG-13", "10 Jun 2012", "10 min", "Action", "Director A", "Writer Za", "Actor 1, Actor A"),